@@ -0,0 +1,70 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic orders shared by the benchmarks: statuses and stage timestamps
+// are spread the way a live table looks (most orders placed, fewer delivered).
+final class BenchmarkData {
+
+    static final String[] STATUSES = {"Order Placed", "Order Processing", "Out for Delivery", "Order Delivered"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Order> orders(int count) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerId((long) i + 1);
+            customer.setCustomerName("Customer " + i);
+            customer.setCustomerEmail("customer" + i + "@ldms.com");
+            customer.setCustomerAddress(i + " Main Street");
+            customer.setCustomerPhone("555-01" + String.format("%02d", i));
+            customer.setRole(Role.ADMIN);
+            customers.add(customer);
+        }
+        List<Driver> drivers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Driver driver = new Driver();
+            driver.setDriverId((long) i + 1);
+            driver.setDriverName("Driver " + i);
+            driver.setVehicle("Van-" + i);
+            driver.setLocation("Zone " + (i % 5));
+            drivers.add(driver);
+        }
+
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int stage = Math.min(random.nextInt(6), 3);
+            LocalDateTime placed = now.minusHours(random.nextInt(24 * 14));
+            Order order = new Order();
+            order.setId((long) i + 1);
+            order.setStatus(STATUSES[stage]);
+            order.setEstimatedDelivery(placed.plusDays(2).plusHours(12));
+            order.setCustomer(customers.get(i % customers.size()));
+            order.getOrderPlaced().setTimestamp(placed);
+            if (stage >= 1) {
+                order.setDriver(drivers.get(i % drivers.size()));
+                order.getOrderProcessing().setTimestamp(placed.plusHours(2));
+            }
+            if (stage >= 2) {
+                order.getOrderOutForDelivery().setTimestamp(placed.plusHours(20));
+            }
+            if (stage >= 3) {
+                order.getOrderDelivered().setTimestamp(placed.plusHours(40));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
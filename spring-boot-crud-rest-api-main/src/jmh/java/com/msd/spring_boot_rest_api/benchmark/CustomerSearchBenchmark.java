@@ -0,0 +1,137 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.dto.CustomerSearchResult;
+import com.msd.spring_boot_rest_api.search.CustomerSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Typeahead latency of CustomerSearchIndex, sampled so the JSON result carries p50/p99
+ * (target: p99 under 5 ms). Every query is derived from a random indexed customer, so
+ * each has at least one match:
+ * <ul>
+ *   <li>shortPrefix - the first two letters of a name</li>
+ *   <li>namePrefix - the first six letters of a name</li>
+ *   <li>emailFragment - seven characters from inside an email address</li>
+ *   <li>phoneFragment - six digits from inside a phone number</li>
+ *   <li>typo - a full name with one letter replaced (answered by the fuzzy fallback)</li>
+ * </ul>
+ * The 1M step needs about 2 GB of heap, hence the larger fork heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CustomerSearchBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final int QUERIES = 4_096;
+    private static final String[] SYLLABLES = {
+        "ka", "ma", "ni", "ru", "sa", "la", "de", "pe", "re", "si", "wa", "ja", "ya", "ba", "na",
+        "da", "ri", "ta", "go", "mi", "ku", "ha", "ro", "su", "an", "el", "in", "ol", "ur", "es"
+    };
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "ldms.com", "outlook.com"};
+
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    private CustomerSearchIndex index;
+    private String[] shortPrefixes;
+    private String[] namePrefixes;
+    private String[] emailFragments;
+    private String[] phoneFragments;
+    private String[] typos;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        // Only rebuild() reads the repository; the index is filled directly
+        index = new CustomerSearchIndex(null, 2000);
+        String[][] rows = new String[customers][];
+        for (int i = 0; i < customers; i++) {
+            String first = word(random, 2 + random.nextInt(2));
+            String last = word(random, 2 + random.nextInt(3));
+            rows[i] = new String[] {
+                capitalise(first) + " " + capitalise(last),
+                first + "." + last + random.nextInt(1000) + "@" + DOMAINS[random.nextInt(DOMAINS.length)],
+                String.format("07%d-%07d", random.nextInt(10), random.nextInt(10_000_000))
+            };
+            index.update(i + 1, rows[i][0], rows[i][1], rows[i][2]);
+        }
+        shortPrefixes = queries(random, rows, fields -> fields[0].substring(0, 2));
+        namePrefixes = queries(random, rows, fields -> fields[0].substring(0, 6));
+        emailFragments = queries(random, rows, fields -> fields[1].substring(2, 9));
+        phoneFragments = queries(random, rows, fields -> fields[2].substring(4, 10));
+        typos = queries(random, rows, fields -> typo(random, fields[0]));
+    }
+
+    @Benchmark
+    public List<CustomerSearchResult> shortPrefix() {
+        return index.search(shortPrefixes[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<CustomerSearchResult> namePrefix() {
+        return index.search(namePrefixes[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<CustomerSearchResult> emailFragment() {
+        return index.search(emailFragments[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<CustomerSearchResult> phoneFragment() {
+        return index.search(phoneFragments[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    @Benchmark
+    public List<CustomerSearchResult> typo() {
+        return index.search(typos[next++ & (QUERIES - 1)], LIMIT);
+    }
+
+    private static String[] queries(Random random, String[][] rows, Function<String[], String> query) {
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = query.apply(rows[random.nextInt(rows.length)]);
+        }
+        return queries;
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String capitalise(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    // The name with one letter after the first two replaced
+    private static String typo(Random random, String name) {
+        int at = 2 + random.nextInt(name.length() - 2);
+        char replacement = (char) ('a' + random.nextInt(26));
+        return name.substring(0, at) + replacement + name.substring(at + 1);
+    }
+}
@@ -0,0 +1,122 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.assignment.DriverAssignmentStrategy;
+import com.msd.spring_boot_rest_api.assignment.DriverAvailabilityIndex;
+import com.msd.spring_boot_rest_api.assignment.LeastLoadedAssignmentStrategy;
+import com.msd.spring_boot_rest_api.assignment.RoundRobinAssignmentStrategy;
+import com.msd.spring_boot_rest_api.assignment.SpatialGridIndex;
+import com.msd.spring_boot_rest_api.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver assignment at 10k drivers. Each assignment is followed by a release (as on
+ * delivery) so the index stays at a steady size; the threaded variants share one index,
+ * so they include the contention on its lock:
+ * <ul>
+ *   <li>assignAndRelease - one thread, assignments per second</li>
+ *   <li>assignAndRelease4Threads / assignAndRelease16Threads - the same under contention</li>
+ *   <li>nearest - k=8 nearest query of the nearest-driver policy over a metro-sized grid
+ *       (~45 x 45 km)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverAssignmentBenchmark {
+
+    private static final int DRIVERS = 10_000;
+    private static final int QUERY_POINTS = 4_096;
+
+    @Param({"least-loaded", "round-robin"})
+    public String strategy;
+
+    private DriverAvailabilityIndex index;
+    private DriverAssignmentStrategy assignment;
+    private SpatialGridIndex grid;
+    private final Order order = new Order();
+    private double[][] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Only rebuild() reads the repositories; the indexes are filled directly
+        index = new DriverAvailabilityIndex(null, null);
+        for (long id = 1; id <= DRIVERS; id++) {
+            index.addDriver(id);
+        }
+        assignment = switch (strategy) {
+            case "least-loaded" -> new LeastLoadedAssignmentStrategy(index);
+            case "round-robin" -> new RoundRobinAssignmentStrategy(index);
+            default -> throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        };
+
+        Random random = new Random(7);
+        grid = new SpatialGridIndex(null, 0.05, 200);
+        for (long id = 1; id <= DRIVERS; id++) {
+            grid.update(id, latitude(random), longitude(random));
+        }
+        points = new double[QUERY_POINTS][];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            points[i] = new double[] {latitude(random), longitude(random)};
+        }
+    }
+
+    @Benchmark
+    public long assignAndRelease() {
+        return assignOnce();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long assignAndRelease4Threads() {
+        return assignOnce();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long assignAndRelease16Threads() {
+        return assignOnce();
+    }
+
+    // Independent of the strategy parameter; reported once per strategy value
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Long> nearest() {
+        double[] point = points[next++ & (QUERY_POINTS - 1)];
+        return grid.nearest(point[0], point[1], 8, id -> true);
+    }
+
+    private long assignOnce() {
+        long driverId = assignment.assign(order).orElseThrow();
+        index.release(driverId);
+        return driverId;
+    }
+
+    private static double latitude(Random random) {
+        return 6.8 + random.nextDouble() * 0.4;
+    }
+
+    private static double longitude(Random random) {
+        return 79.8 + random.nextDouble() * 0.4;
+    }
+}
@@ -0,0 +1,150 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.security.JwtAuthenticationFilter;
+import com.msd.spring_boot_rest_api.security.JwtTokenProvider;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Cost of authenticating one request with a bearer token:
+ * <ul>
+ *   <li>legacyFilter - the previous filter body: three separate parses (validate, email,
+ *       role), each a full HMAC-SHA512 check and JSON parse</li>
+ *   <li>filterSingleParse - JwtAuthenticationFilter with the verified-token cache disabled</li>
+ *   <li>filterCached - JwtAuthenticationFilter with a warm cache (a client replaying its token)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private OncePerRequestFilter legacyFilter;
+    private MockHttpServletRequest legacyRequest;
+    private JwtAuthenticationFilter uncachedFilter;
+    private MockHttpServletRequest uncachedRequest;
+
+    private JwtAuthenticationFilter cachedFilter;
+    private MockHttpServletRequest cachedRequest;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SecretKey legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        legacyFilter = new LegacyJwtAuthenticationFilter(legacyKey);
+        legacyRequest = bearerRequest(Jwts.builder()
+                .setSubject("warehouse@ldms.com")
+                .claim("role", Role.WAREHOUSE.name())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(legacyKey)
+                .compact());
+
+        JwtTokenProvider uncachedProvider = new JwtTokenProvider(0);
+        uncachedFilter = new JwtAuthenticationFilter(uncachedProvider);
+        uncachedRequest = bearerRequest(uncachedProvider.generateToken("warehouse@ldms.com", Role.WAREHOUSE));
+
+        JwtTokenProvider cachedProvider = new JwtTokenProvider(10_000);
+        cachedFilter = new JwtAuthenticationFilter(cachedProvider);
+        cachedRequest = bearerRequest(cachedProvider.generateToken("warehouse@ldms.com", Role.WAREHOUSE));
+        cachedFilter.doFilter(cachedRequest, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void legacyFilter() throws Exception {
+        legacyFilter.doFilter(legacyRequest, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void filterSingleParse() throws Exception {
+        uncachedFilter.doFilter(uncachedRequest, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void filterCached() throws Exception {
+        cachedFilter.doFilter(cachedRequest, response, NO_OP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequest bearerRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    // JwtAuthenticationFilter as it was before tokens were verified once per request, with
+    // the old validateToken, getEmailFromJWT and getRoleFromJWT inlined: each parsed the
+    // token again. It signs with a key of its own, since JwtTokenProvider's is private.
+    private static class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+
+        private final JwtParser parser;
+
+        LegacyJwtAuthenticationFilter(SecretKey key) {
+            this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String jwt = request.getHeader("Authorization").substring(7);
+            if (validateToken(jwt)) {
+                String email = parser.parseClaimsJws(jwt).getBody().getSubject();
+                Role role = Role.valueOf(parser.parseClaimsJws(jwt).getBody().get("role", String.class));
+                var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+                var authentication = new UsernamePasswordAuthenticationToken(email, null, authorities);
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private boolean validateToken(String jwt) {
+            try {
+                parser.parseClaimsJws(jwt);
+                return true;
+            } catch (JwtException | IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+}
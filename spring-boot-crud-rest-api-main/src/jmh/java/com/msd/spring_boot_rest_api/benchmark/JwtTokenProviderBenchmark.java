@@ -0,0 +1,61 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.security.JwtTokenProvider;
+import com.msd.spring_boot_rest_api.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification: generateToken (HS512 sign), verify with the cache
+ * disabled (HMAC check + JSON parse) and verify on a cache hit (SHA-256 digest + lookup).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private String uncachedToken;
+    private String cachedToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        uncachedProvider = new JwtTokenProvider(0);
+        uncachedToken = uncachedProvider.generateToken("driver@ldms.com", Role.DRIVER);
+        cachedProvider = new JwtTokenProvider(10_000);
+        cachedToken = cachedProvider.generateToken("driver@ldms.com", Role.DRIVER);
+        cachedProvider.verify(cachedToken);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedProvider.generateToken("driver@ldms.com", Role.DRIVER);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyUncached() {
+        return uncachedProvider.verify(uncachedToken);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyCached() {
+        return cachedProvider.verify(cachedToken);
+    }
+}
@@ -0,0 +1,157 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.SpringBootRestApiApplication;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of the keyset list queries against in-memory H2, as the orders table grows;
+ * the latency should stay flat. Statuses are spread evenly over the four codes and every
+ * order past placed has a processing time within +/- one year around today, so each
+ * query matches a fixed share of the table at every size:
+ * <ul>
+ *   <li>todayOrders / pastOrders / upcomingOrders - the processing-time date buckets</li>
+ *   <li>oneStatus - the status view for Out for Delivery</li>
+ *   <li>twoStatuses - the status view for Order Placed and Out for Delivery</li>
+ *   <li>twoStatusesDeep - the same, resumed past every placed order and half of those out
+ *       for delivery</li>
+ * </ul>
+ * The 5M step needs about 6 GB of heap, hence the fork heap; pass -p rows=... to skip it
+ * on a smaller machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Hibernate's query path takes longer to reach steady state than the in-memory benchmarks
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class OrderQueryBenchmark {
+
+    private static final int INSERT_BATCH = 10_000;
+    private static final Limit PAGE = Limit.of(51);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final List<Byte> OUT_FOR_DELIVERY = List.of(OrderStatusCode.OUT_FOR_DELIVERY.getCode());
+    private static final List<Byte> PLACED_AND_OUT = List.of(OrderStatusCode.PLACED.getCode(),
+            OrderStatusCode.OUT_FOR_DELIVERY.getCode());
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private LocalDateTime startOfToday;
+    private LocalDateTime startOfTomorrow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passed as arguments so they win over the test application.properties, which logs
+        // every statement. The security config needs a servlet context, hence the unused port.
+        context = new SpringApplicationBuilder(SpringBootRestApiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:jmh-orders;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.org.hibernate.SQL=INFO",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO");
+        orderRepository = context.getBean(OrderRepository.class);
+        startOfToday = LocalDate.now().atStartOfDay();
+        startOfTomorrow = startOfToday.plusDays(1);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Order> todayOrders() {
+        return orderRepository.findProcessingPageAfter(startOfToday, startOfTomorrow, startOfToday, 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Order> pastOrders() {
+        return orderRepository.findProcessingPageAfter(EARLIEST, startOfToday, EARLIEST, 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Order> upcomingOrders() {
+        return orderRepository.findProcessingPageAfter(startOfTomorrow, LATEST, startOfTomorrow, 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Order> oneStatus() {
+        return orderRepository.findStatusPageAfter(OUT_FOR_DELIVERY, (byte) 0, EARLIEST, 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Order> twoStatuses() {
+        return orderRepository.findStatusPageAfter(PLACED_AND_OUT, (byte) 0, EARLIEST, 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Order> twoStatusesDeep() {
+        return orderRepository.findStatusPageAfter(PLACED_AND_OUT, OrderStatusCode.OUT_FOR_DELIVERY.getCode(),
+                startOfToday, 0L, PAGE);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into customers (customer_name, customer_email, customer_address, customer_phone, role) "
+                + "values ('Bench Customer', 'bench@ldms.com', 'Bench Street 1', '0000000000', 'ADMIN')");
+        long customerId = jdbcTemplate.queryForObject("select max(customer_id) from customers", Long.class);
+        String sql = "insert into orders (status, estimated_delivery, customer_id, "
+                + "placed_time, placed_completed, processing_time, processing_completed, "
+                + "out_for_delivery_completed, delivered_completed) "
+                + "values (?, ?, ?, ?, true, ?, ?, ?, ?)";
+        Random random = new Random(42);
+
+        for (int done = 0; done < rows; done += INSERT_BATCH) {
+            int batch = Math.min(INSERT_BATCH, rows - done);
+            List<Object[]> args = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                int status = 1 + random.nextInt(4);
+                LocalDateTime processing = startOfToday.plusMinutes(random.nextLong(-365L * 24 * 60, 365L * 24 * 60));
+                LocalDateTime placed = processing.minusHours(6);
+                args.add(new Object[] {
+                        status,
+                        Timestamp.valueOf(placed.plusDays(2).plusHours(12)),
+                        customerId,
+                        Timestamp.valueOf(placed),
+                        status > 1 ? Timestamp.valueOf(processing) : null,
+                        status > 1,
+                        status > 2,
+                        status > 3
+                });
+            }
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+}
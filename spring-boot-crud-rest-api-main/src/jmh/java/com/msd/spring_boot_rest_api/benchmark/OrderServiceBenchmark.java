@@ -0,0 +1,105 @@
+package com.msd.spring_boot_rest_api.benchmark;
+
+import com.msd.spring_boot_rest_api.dto.CursorPage;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import com.msd.spring_boot_rest_api.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of the OrderService read paths, with the repository replaced by a
+ * fixed-answer stub so only the service's own work is measured:
+ * <ul>
+ *   <li>currentOrderStage - getCurrentOrderStage for one order</li>
+ *   <li>ordersByStatuses - first page of the status view (label to code mapping and cursor
+ *       encoding; the IN query over the status codes runs in SQL)</li>
+ *   <li>currentlyPlacedOrders - the stream filter over findAll()</li>
+ *   <li>todayOrders - getTodayOrders, now a keyset page (cursor encoding and paging only;
+ *       the date filtering happens in SQL)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final List<String> ACTIVE_STATUSES = List.of("Order Processing", "Out for Delivery");
+
+    @Param({"1000", "10000", "100000"})
+    public int orders;
+
+    private OrderService service;
+    private long lookupId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Order> rows = BenchmarkData.orders(orders);
+        service = new OrderService(stubRepository(rows), null, null, null, null, null, null,
+                null, null, null, new SimpleMeterRegistry());
+        lookupId = rows.get(rows.size() / 2).getId();
+    }
+
+    @Benchmark
+    public String currentOrderStage() {
+        return service.getCurrentOrderStage(lookupId);
+    }
+
+    @Benchmark
+    public CursorPage<Order> ordersByStatuses() {
+        return service.getOrdersByStatuses(ACTIVE_STATUSES, null, 50);
+    }
+
+    @Benchmark
+    public List<Order> currentlyPlacedOrders() {
+        return service.getCurrentlyPlacedOrders();
+    }
+
+    @Benchmark
+    public CursorPage<Order> todayOrders() {
+        return service.getTodayOrders(null, 50);
+    }
+
+    private static OrderRepository stubRepository(List<Order> rows) {
+        Map<Long, Order> byId = new HashMap<>();
+        rows.forEach(order -> byId.put(order.getId(), order));
+        List<Order> processingPage = rows.stream()
+                .filter(order -> order.getOrderProcessing().getTimestamp() != null)
+                .limit(51)
+                .toList();
+        List<Order> statusPage = rows.stream()
+                .filter(order -> ACTIVE_STATUSES.contains(order.getStatus()))
+                .limit(51)
+                .toList();
+        return (OrderRepository) Proxy.newProxyInstance(OrderRepository.class.getClassLoader(),
+                new Class<?>[] {OrderRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(byId.get((Long) args[0]));
+                    case "findAll" -> rows;
+                    case "findProcessingPageAfter" -> processingPage;
+                    case "findStatusPageAfter", "findStatusPageAfterUnprocessed" -> statusPage;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
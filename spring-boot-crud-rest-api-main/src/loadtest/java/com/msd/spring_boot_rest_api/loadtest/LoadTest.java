@@ -0,0 +1,335 @@
+package com.msd.spring_boot_rest_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msd.spring_boot_rest_api.SpringBootRestApiApplication;
+import com.msd.spring_boot_rest_api.assignment.DriverAvailabilityIndex;
+import com.msd.spring_boot_rest_api.assignment.SpatialGridIndex;
+import com.msd.spring_boot_rest_api.config.VirtualThreadPinningMonitor;
+import com.msd.spring_boot_rest_api.dto.OrderCursor;
+import com.msd.spring_boot_rest_api.loadtest.LoadTestConfig.Operation;
+import com.msd.spring_boot_rest_api.search.CustomerSearchIndex;
+import com.msd.spring_boot_rest_api.service.OrderStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the application on a random port against in-memory H2, seeds synthetic users,
+ * customers, drivers and orders, then runs closed-loop virtual-thread clients over a
+ * weighted mix of logins, order listings, order detail reads and status transitions.
+ * Latency is recorded per operation in HdrHistogram (microsecond resolution) after the
+ * warm-up, and the run exits with status 1 if any configured SLO is breached.
+ *
+ * Run with (see LoadTestConfig for every option):
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--clients=500 --slo=list.p99:250"
+ */
+public final class LoadTest {
+
+    private static final String[] NEXT_STATUS = {"Order Processing", "Out for Delivery", "Order Delivered"};
+
+    private final LoadTestConfig config;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    // Orders still moving through the stages: {order id, index into NEXT_STATUS}
+    private final ConcurrentLinkedQueue<long[]> transitions = new ConcurrentLinkedQueue<>();
+    private List<Long> orderIds;
+    private HttpClient client;
+    private String baseUrl;
+    private volatile boolean measuring;
+
+    private LoadTest(LoadTestConfig config, ConfigurableApplicationContext context) {
+        this.config = config;
+        this.context = context;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        int status;
+        // Arguments rather than default properties, which the test application.properties on
+        // this classpath would override (it logs every SQL statement)
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootRestApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        // Statement and second-level cache counts for the report
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.org.hibernate.SQL=INFO",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO")) {
+            status = new LoadTest(config, context).run();
+        }
+        System.exit(status);
+    }
+
+    private int run() throws Exception {
+        seed();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(threads)
+                    .build();
+
+            long start = System.nanoTime();
+            long measureFrom = start + Duration.ofSeconds(config.warmupSeconds).toNanos();
+            long end = measureFrom + Duration.ofSeconds(config.durationSeconds).toNanos();
+            for (int i = 0; i < config.clients; i++) {
+                int clientIndex = i;
+                threads.submit(() -> {
+                    runClient(clientIndex, end);
+                    return null;
+                });
+            }
+
+            sleepUntil(measureFrom);
+            // Drop everything recorded during warm-up
+            recorders.values().forEach(Recorder::getIntervalHistogram);
+            errors.values().forEach(LongAdder::reset);
+            statistics().clear();
+            measuring = true;
+            sleepUntil(end);
+            measuring = false;
+        }
+        return report();
+    }
+
+    private void seed() {
+        System.out.printf("Seeding %d users, %d customers, %d drivers, %d orders%n",
+                config.users, config.customers, config.drivers, config.orders);
+        Seeder seeder = new Seeder(context.getBean(JdbcTemplate.class));
+        seeder.seedUsers(config.users, context.getBean(PasswordEncoder.class).encode(Seeder.PASSWORD));
+        seeder.seedCustomers(config.customers);
+        seeder.seedDrivers(config.drivers);
+        orderIds = seeder.seedOrders(config.orders);
+        orderIds.forEach(id -> transitions.add(new long[] {id, 0}));
+
+        // The seeder writes with plain JDBC, behind the second-level cache's back
+        context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+        // The in-memory indexes were built at start-up, before the data existed
+        context.getBean(DriverAvailabilityIndex.class).rebuild();
+        context.getBean(SpatialGridIndex.class).rebuild();
+        context.getBean(CustomerSearchIndex.class).rebuild();
+        context.getBean(OrderStatsService.class).seed();
+    }
+
+    private void runClient(int clientIndex, long end) {
+        String bearer = null;
+        int totalWeight = config.totalWeight();
+        try {
+            while (System.nanoTime() < end) {
+                if (bearer == null) {
+                    try {
+                        bearer = "Bearer " + login(clientIndex);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        // e.g. 503 from a saturated password pool; back off and retry
+                        Thread.sleep(100);
+                    }
+                    continue;
+                }
+                Operation operation = config.pick(ThreadLocalRandom.current().nextInt(totalWeight));
+                long begin = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(operation, bearer);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long micros = (System.nanoTime() - begin) / 1_000;
+                if (measuring) {
+                    recorders.get(operation).recordValue(micros);
+                    if (!ok) {
+                        errors.get(operation).increment();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean execute(Operation operation, String bearer) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case LOGIN:
+                return loginRequest(random.nextInt(config.users)).statusCode() == 200;
+            case LIST: {
+                String cursor = OrderCursor.encode(orderIds.get(random.nextInt(orderIds.size())));
+                return get("/api/orders?size=50&cursor=" + cursor, bearer) == 200;
+            }
+            case DETAIL:
+                return get("/api/orders/" + orderIds.get(random.nextInt(orderIds.size())), bearer) == 200;
+            case TRANSITION: {
+                long[] order = transitions.poll();
+                if (order == null) {
+                    // Every seeded order is delivered; fall back to a read
+                    return get("/api/orders/" + orderIds.get(random.nextInt(orderIds.size())), bearer) == 200;
+                }
+                int status = put("/api/orders/" + order[0] + "/status",
+                        "{\"status\":\"" + NEXT_STATUS[(int) order[1]] + "\"}", bearer);
+                boolean ok = status == 200;
+                if (ok) {
+                    order[1]++;
+                }
+                if (order[1] < NEXT_STATUS.length) {
+                    transitions.add(order);
+                }
+                return ok;
+            }
+            default:
+                throw new IllegalStateException("Unhandled operation " + operation);
+        }
+    }
+
+    private String login(int clientIndex) throws Exception {
+        HttpResponse<String> response = loginRequest(clientIndex % config.users);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> loginRequest(int userIndex) throws Exception {
+        String body = "{\"email\":\"" + Seeder.userEmail(userIndex) + "\",\"password\":\"" + Seeder.PASSWORD + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int get(String path, String bearer) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", bearer)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int put(String path, String json, String bearer) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", bearer)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int report() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+
+        System.out.printf("%n%d clients, %d s measured after %d s warm-up%n",
+                config.clients, config.durationSeconds, config.warmupSeconds);
+        System.out.printf("%-11s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Operation operation : config.mix.keySet()) {
+            Histogram histogram = histograms.get(operation);
+            long requests = histogram.getTotalCount();
+            long failed = errors.get(operation).sum();
+            totalRequests += requests;
+            totalErrors += failed;
+            System.out.printf("%-11s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation.key, requests, failed,
+                    requests / (double) config.durationSeconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+        System.out.printf("%-11s %9d %7d %9.1f%n", "total", totalRequests, totalErrors,
+                totalRequests / (double) config.durationSeconds);
+        Statistics statistics = statistics();
+        long cacheLookups = statistics.getSecondLevelCacheHitCount() + statistics.getSecondLevelCacheMissCount();
+        System.out.printf("Hibernate statements per request: %.2f, second-level cache hit ratio: %s%n",
+                totalRequests == 0 ? 0.0 : statistics.getPrepareStatementCount() / (double) totalRequests,
+                cacheLookups == 0 ? "n/a"
+                        : String.format("%.3f", statistics.getSecondLevelCacheHitCount() / (double) cacheLookups));
+        // Only present with spring.threads.virtual.enabled=true
+        context.getBeanProvider(VirtualThreadPinningMonitor.class).ifAvailable(monitor ->
+                System.out.println("Virtual thread pinned events: " + monitor.getPinnedCount() + " " + monitor.getPinnedSites()));
+
+        List<String> breaches = new ArrayList<>();
+        for (Map.Entry<String, Double> slo : config.slo.entrySet()) {
+            String key = slo.getKey();
+            double limit = slo.getValue();
+            if (key.equals("errors")) {
+                double rate = totalRequests == 0 ? 1.0 : totalErrors / (double) totalRequests;
+                if (rate > limit) {
+                    breaches.add(String.format("error rate %.4f > %.4f", rate, limit));
+                }
+                continue;
+            }
+            int split = key.indexOf(".p");
+            if (split < 0) {
+                throw new IllegalArgumentException("SLO keys look like list.p99 or errors, got: " + key);
+            }
+            Operation operation = Operation.from(key.substring(0, split));
+            double percentile = Double.parseDouble(key.substring(split + 2));
+            double actual = millis(histograms.get(operation), percentile);
+            if (histograms.get(operation).getTotalCount() == 0) {
+                breaches.add(key + " has no samples");
+            } else if (actual > limit) {
+                breaches.add(String.format("%s %.2f ms > %.2f ms", key, actual, limit));
+            }
+        }
+        if (breaches.isEmpty()) {
+            System.out.println(config.slo.isEmpty() ? "No SLOs configured" : "All SLOs met");
+            return 0;
+        }
+        breaches.forEach(breach -> System.out.println("SLO breached: " + breach));
+        return 1;
+    }
+
+    private Statistics statistics() {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            Thread.sleep(Math.max(1, remaining / 1_000_000));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.msd.spring_boot_rest_api.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Load test settings from --key=value arguments. Defaults are a small smoke run.
+//
+//   --customers=1000 --drivers=200 --orders=50000 --users=50
+//   --clients=200 --warmup-s=10 --duration-s=60
+//   --mix=login:2,list:40,detail:48,transition:10
+//   --slo=list.p99:250,detail.p99:50,transition.p99.9:500,errors:0.01
+//
+// SLO latencies are milliseconds at the named percentile; "errors" is the highest
+// tolerated share of failed requests across all endpoints.
+final class LoadTestConfig {
+
+    int customers = 1_000;
+    int drivers = 200;
+    int orders = 50_000;
+    int users = 50;
+    int clients = 200;
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    final Map<Operation, Integer> mix = new LinkedHashMap<>();
+    final Map<String, Double> slo = new LinkedHashMap<>();
+
+    enum Operation {
+        LOGIN("login"), LIST("list"), DETAIL("detail"), TRANSITION("transition");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation from(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in --mix: " + key);
+        }
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        String mix = "login:2,list:40,detail:48,transition:10";
+        String slo = "";
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "customers" -> config.customers = Integer.parseInt(value);
+                case "drivers" -> config.drivers = Integer.parseInt(value);
+                case "orders" -> config.orders = Integer.parseInt(value);
+                case "users" -> config.users = Integer.parseInt(value);
+                case "clients" -> config.clients = Integer.parseInt(value);
+                case "warmup-s" -> config.warmupSeconds = Integer.parseInt(value);
+                case "duration-s" -> config.durationSeconds = Integer.parseInt(value);
+                case "mix" -> mix = value;
+                case "slo" -> slo = value;
+                default -> throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            config.mix.put(Operation.from(parts[0]), Integer.parseInt(parts[1]));
+        }
+        if (!slo.isBlank()) {
+            for (String entry : slo.split(",")) {
+                String[] parts = entry.trim().split(":");
+                config.slo.put(parts[0], Double.parseDouble(parts[1]));
+            }
+        }
+        return config;
+    }
+
+    // Picks an operation for a uniformly random roll in [0, total weight)
+    Operation pick(int roll) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Roll outside the mix weights");
+    }
+
+    int totalWeight() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
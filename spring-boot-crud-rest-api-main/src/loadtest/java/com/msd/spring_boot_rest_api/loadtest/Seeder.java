@@ -0,0 +1,92 @@
+package com.msd.spring_boot_rest_api.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Bulk-inserts synthetic data with JDBC batches (the JPA path would dominate start-up at
+// 100k+ orders). Customers and drivers are scattered over one metro area so the nearest
+// driver strategy has real work to do; every order starts as "Order Placed".
+final class Seeder {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final int BATCH = 5_000;
+    private static final double BASE_LATITUDE = 6.80;
+    private static final double BASE_LONGITUDE = 79.80;
+    private static final double SPREAD_DEGREES = 0.40;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    Seeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void seedUsers(int count, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {userEmail(i), passwordHash});
+        }
+        jdbcTemplate.batchUpdate("insert into users (email, password, role) values (?, ?, 'WAREHOUSE')", rows);
+    }
+
+    void seedCustomers(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {"Customer " + i, "customer" + i + "@loadtest.ldms", i + " Load Street",
+                    String.format("555-%07d", i), latitude(), longitude()});
+        }
+        batch("insert into customers (customer_name, customer_email, customer_address, customer_phone, "
+                + "customer_latitude, customer_longitude, role) values (?, ?, ?, ?, ?, ?, 'ADMIN')", rows);
+    }
+
+    void seedDrivers(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {"Driver " + i, "Van-" + i, "Zone " + (i % 10), latitude(), longitude()});
+        }
+        batch("insert into drivers (driver_name, vehicle, driver_location, driver_latitude, driver_longitude) "
+                + "values (?, ?, ?, ?, ?)", rows);
+    }
+
+    // Returns the ids of the inserted orders in insertion order
+    List<Long> seedOrders(int count) {
+        long firstCustomer = jdbcTemplate.queryForObject("select min(customer_id) from customers", Long.class);
+        long customers = jdbcTemplate.queryForObject("select count(*) from customers", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime placed = now.minusMinutes(random.nextInt(7 * 24 * 60));
+            rows.add(new Object[] {Timestamp.valueOf(placed.plusDays(2).plusHours(12)), firstCustomer + i % customers,
+                    Timestamp.valueOf(placed)});
+        }
+        // status 1 is OrderStatusCode.PLACED
+        batch("insert into orders (status, estimated_delivery, customer_id, placed_time, placed_completed, "
+                + "processing_completed, out_for_delivery_completed, delivered_completed) "
+                + "values (1, ?, ?, ?, true, false, false, false)", rows);
+        return jdbcTemplate.queryForList("select order_id from orders order by order_id", Long.class);
+    }
+
+    static String userEmail(int index) {
+        return "loadtest" + index + "@ldms.com";
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+    }
+
+    private double latitude() {
+        return BASE_LATITUDE + random.nextDouble() * SPREAD_DEGREES;
+    }
+
+    private double longitude() {
+        return BASE_LONGITUDE + random.nextDouble() * SPREAD_DEGREES;
+    }
+}
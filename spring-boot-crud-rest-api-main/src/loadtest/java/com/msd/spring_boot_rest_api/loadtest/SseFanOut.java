@@ -0,0 +1,251 @@
+package com.msd.spring_boot_rest_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msd.spring_boot_rest_api.SpringBootRestApiApplication;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.service.OrderEventBroadcaster;
+import com.msd.spring_boot_rest_api.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Fan-out of live-tracking events to many concurrent SSE subscribers of one driver
+ * stream, over real HTTP against Tomcat on a random port. Every subscriber records the
+ * delay between the transition being requested and the event arriving; p50/p99/max are
+ * reported over all deliveries. Heap growth from opening the streams, divided by their
+ * number, gives an upper bound for memory per connection: client and server share this
+ * JVM, so it includes the client side as well. Exits with status 1 if any subscriber
+ * failed to connect or missed an event.
+ *
+ * Options: --subscribers=10000 --orders=20 (each order sends two events). 10,000
+ * subscribers need about 20,000 file descriptors (ulimit -n). Run with:
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.msd.spring_boot_rest_api.loadtest.SseFanOut
+ */
+public final class SseFanOut {
+
+    private static final List<String> STEPS = List.of("Out for Delivery", "Order Delivered");
+
+    private SseFanOut() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int subscribers = 10_000;
+        int orders = 20;
+        for (String arg : args) {
+            if (arg.startsWith("--subscribers=")) {
+                subscribers = Integer.parseInt(arg.substring("--subscribers=".length()));
+            } else if (arg.startsWith("--orders=")) {
+                orders = Integer.parseInt(arg.substring("--orders=".length()));
+            } else {
+                throw new IllegalArgumentException("Expected --subscribers=N or --orders=N, got: " + arg);
+            }
+        }
+        int status;
+        // Arguments rather than default properties, which the test application.properties on
+        // this classpath would override (it logs every SQL statement)
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootRestApiApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.max-connections=" + (subscribers + 1_000),
+                        "--spring.threads.virtual.enabled=true",
+                        "--spring.datasource.url=jdbc:h2:mem:sse-fanout;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.org.hibernate.SQL=INFO",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO")) {
+            status = run(context, subscribers, orders);
+        }
+        System.exit(status);
+    }
+
+    private static int run(ConfigurableApplicationContext context, int subscribers, int orders) throws Exception {
+        new Seeder(context.getBean(JdbcTemplate.class))
+                .seedUsers(1, context.getBean(PasswordEncoder.class).encode(Seeder.PASSWORD));
+        Seed seed = seed(context, orders);
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        OrderEventBroadcaster broadcaster = context.getBean(OrderEventBroadcaster.class);
+        OrderService orderService = context.getBean(OrderService.class);
+        ObjectMapper mapper = new ObjectMapper();
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build();
+            String bearer = "Bearer " + login(client, base, mapper);
+            HttpRequest subscribe = HttpRequest.newBuilder(URI.create(base + "/api/drivers/" + seed.driverId + "/events"))
+                    .header("Authorization", bearer)
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build();
+
+            // Request time per "<orderId>:<status>", set just before the transition is applied
+            Map<String, Long> requestedAt = new ConcurrentHashMap<>();
+            int expected = orders * STEPS.size();
+            ConcurrentLinkedQueue<long[]> perSubscriber = new ConcurrentLinkedQueue<>();
+            AtomicInteger errors = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(subscribers);
+
+            long heapBefore = usedHeap();
+            for (int i = 0; i < subscribers; i++) {
+                clientThreads.submit(() -> {
+                    long[] samples = new long[expected];
+                    int count = 0;
+                    try {
+                        HttpResponse<Stream<String>> response = client.send(subscribe, HttpResponse.BodyHandlers.ofLines());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            return null;
+                        }
+                        try (Stream<String> lines = response.body()) {
+                            Iterator<String> iterator = lines.iterator();
+                            while (count < expected && iterator.hasNext()) {
+                                String line = iterator.next();
+                                if (line.startsWith("data:{")) {
+                                    long now = System.nanoTime();
+                                    JsonNode event = mapper.readTree(line.substring(5));
+                                    Long sent = requestedAt.get(event.get("orderId").asLong() + ":"
+                                            + event.get("status").asText());
+                                    if (sent != null) {
+                                        samples[count++] = now - sent;
+                                    }
+                                }
+                            }
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        perSubscriber.add(Arrays.copyOf(samples, count));
+                        done.countDown();
+                    }
+                    return null;
+                });
+            }
+            long waitUntil = System.currentTimeMillis() + 120_000;
+            while (broadcaster.getSubscriberCount() < subscribers - errors.get()
+                    && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(100);
+            }
+            int connected = broadcaster.getSubscriberCount();
+            long heapPerConnection = (usedHeap() - heapBefore) / Math.max(1, connected);
+            System.out.printf("subscribers: %d connected, %d failed%n", connected, errors.get());
+            System.out.printf("heap per connection (client + server): %.1f KB%n", heapPerConnection / 1024.0);
+
+            for (Long orderId : seed.orderIds) {
+                for (String step : STEPS) {
+                    requestedAt.put(orderId + ":" + step, System.nanoTime());
+                    orderService.updateOrderStatus(orderId, step);
+                }
+            }
+            if (!done.await(120, TimeUnit.SECONDS)) {
+                System.out.printf("%d subscribers still waiting for events%n", done.getCount());
+                return 1;
+            }
+
+            long[] all = perSubscriber.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            long missing = (long) connected * expected - all.length;
+            System.out.printf("deliveries: %d (missing %d)%n", all.length, missing);
+            if (all.length > 0) {
+                System.out.printf("fan-out latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                        all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, all[all.length - 1] / 1e6);
+            }
+            return missing == 0 && errors.get() == 0 ? 0 : 1;
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // One driver with every order in Order Processing, so each transition is an event on its stream
+    private static Seed seed(ConfigurableApplicationContext context, int orders) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            Customer customer = new Customer();
+            customer.setCustomerName("Fan-out Customer");
+            customer.setCustomerEmail("fanout@ldms.com");
+            customer.setCustomerAddress("1 Main Street");
+            customer.setCustomerPhone("555-0100");
+            customer.setRole(Role.ADMIN);
+            entityManager.persist(customer);
+            Driver driver = new Driver();
+            driver.setDriverName("Fan-out Driver");
+            driver.setVehicle("Van-001");
+            entityManager.persist(driver);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> orderIds = new ArrayList<>();
+            for (int i = 0; i < orders; i++) {
+                Order order = new Order();
+                order.setStatus("Order Processing");
+                order.setEstimatedDelivery(now.plusDays(2));
+                order.setCustomer(customer);
+                order.setDriver(driver);
+                order.getOrderPlaced().setCompleted(true);
+                order.getOrderPlaced().setTimestamp(now.minusDays(1));
+                order.getOrderProcessing().setCompleted(true);
+                order.getOrderProcessing().setTimestamp(now.minusHours(1));
+                entityManager.persist(order);
+                orderIds.add(order.getId());
+            }
+            entityManager.getTransaction().commit();
+            return new Seed(driver.getDriverId(), orderIds);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String login(HttpClient client, String base, ObjectMapper mapper) throws Exception {
+        String body = "{\"email\":\"" + Seeder.userEmail(0) + "\",\"password\":\"" + Seeder.PASSWORD + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return mapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body()).get("token").asText();
+    }
+
+    private static final class Seed {
+        private final Long driverId;
+        private final List<Long> orderIds;
+
+        private Seed(Long driverId, List<Long> orderIds) {
+            this.driverId = driverId;
+            this.orderIds = orderIds;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.model.Order;
+
+import java.util.Optional;
+
+// Picks the driver for an order entering "Order Processing". Implementations reserve the
+// driver in DriverAvailabilityIndex as part of the pick, so concurrent transitions see
+// each other's assignments. Select one with ldms.assignment.strategy:
+// nearest (default), least-loaded or round-robin.
+public interface DriverAssignmentStrategy {
+
+    Optional<Long> assign(Order order);
+}
@@ -0,0 +1,206 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory priority queue of drivers ordered by their number of active (not yet
+// delivered) orders. Assignment takes the head and re-inserts it with one more order;
+// delivery does the reverse. All operations are O(log drivers) under a single lock, so
+// concurrent status transitions never read a stale load.
+@Component
+public class DriverAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverAvailabilityIndex.class);
+
+    private static final Comparator<DriverLoad> BY_LOAD = Comparator
+            .comparingInt((DriverLoad load) -> load.activeOrders)
+            .thenComparingLong(load -> load.driverId);
+
+    private final DriverRepository driverRepository;
+    private final OrderRepository orderRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<DriverLoad> byLoad = new TreeSet<>(BY_LOAD);
+    private final Map<Long, DriverLoad> byDriver = new HashMap<>();
+    // Sorted copy of the driver ids, republished on membership changes (round-robin reads it lock-free)
+    private volatile long[] driverIds = new long[0];
+
+    public DriverAvailabilityIndex(DriverRepository driverRepository, OrderRepository orderRepository) {
+        this.driverRepository = driverRepository;
+        this.orderRepository = orderRepository;
+    }
+
+    // Full rebuild from the database: at startup and periodically, to pick up drivers
+    // added or removed outside the API.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ldms.assignment.refresh-interval-ms:300000}",
+            initialDelayString = "${ldms.assignment.refresh-interval-ms:300000}")
+    public void rebuild() {
+        Map<Long, Integer> loads = new HashMap<>();
+        for (Object[] row : orderRepository.countActiveOrdersByDriver()) {
+            loads.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        Collection<Long> ids = driverRepository.findAllDriverIds();
+        replaceAll(ids, loads);
+        log.info("Driver availability index rebuilt with {} drivers", ids.size());
+    }
+
+    void replaceAll(Collection<Long> ids, Map<Long, Integer> loads) {
+        lock.lock();
+        try {
+            byLoad.clear();
+            byDriver.clear();
+            for (Long id : ids) {
+                DriverLoad load = new DriverLoad(id, loads.getOrDefault(id, 0));
+                byLoad.add(load);
+                byDriver.put(id, load);
+            }
+            publishIds();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reserves the driver with the fewest active orders.
+    public Optional<Long> acquireLeastLoaded() {
+        return acquireLeastLoaded(Integer.MAX_VALUE);
+    }
+
+    // Same, but only if that driver has fewer than maxActiveOrders; empty when every driver is full.
+    public Optional<Long> acquireLeastLoaded(int maxActiveOrders) {
+        lock.lock();
+        try {
+            DriverLoad head = byLoad.isEmpty() ? null : byLoad.first();
+            if (head == null || head.activeOrders >= maxActiveOrders) {
+                return Optional.empty();
+            }
+            byLoad.remove(head);
+            DriverLoad next = new DriverLoad(head.driverId, head.activeOrders + 1);
+            byLoad.add(next);
+            byDriver.put(next.driverId, next);
+            return Optional.of(next.driverId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reserves a specific driver; false if the driver is not (or no longer) in the index.
+    public boolean acquire(long driverId) {
+        return adjust(driverId, 1);
+    }
+
+    // Reserves a specific driver only if it currently has fewer than maxActiveOrders.
+    public boolean tryAcquire(long driverId, int maxActiveOrders) {
+        lock.lock();
+        try {
+            DriverLoad current = byDriver.get(driverId);
+            if (current == null || current.activeOrders >= maxActiveOrders) {
+                return false;
+            }
+            return adjust(driverId, 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gives back one active order, e.g. on delivery or when an assignment is abandoned.
+    public void release(long driverId) {
+        adjust(driverId, -1);
+    }
+
+    public void addDriver(long driverId) {
+        lock.lock();
+        try {
+            if (!byDriver.containsKey(driverId)) {
+                DriverLoad load = new DriverLoad(driverId, 0);
+                byLoad.add(load);
+                byDriver.put(driverId, load);
+                publishIds();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void removeDriver(long driverId) {
+        lock.lock();
+        try {
+            DriverLoad load = byDriver.remove(driverId);
+            if (load != null) {
+                byLoad.remove(load);
+                publishIds();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasCapacity(long driverId, int maxActiveOrders) {
+        lock.lock();
+        try {
+            DriverLoad load = byDriver.get(driverId);
+            return load != null && load.activeOrders < maxActiveOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int activeOrders(long driverId) {
+        lock.lock();
+        try {
+            DriverLoad load = byDriver.get(driverId);
+            return load == null ? 0 : load.activeOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long[] driverIds() {
+        return driverIds;
+    }
+
+    private boolean adjust(long driverId, int delta) {
+        lock.lock();
+        try {
+            DriverLoad current = byDriver.get(driverId);
+            if (current == null) {
+                return false;
+            }
+            byLoad.remove(current);
+            DriverLoad next = new DriverLoad(driverId, Math.max(0, current.activeOrders + delta));
+            byLoad.add(next);
+            byDriver.put(driverId, next);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publishIds() {
+        driverIds = byDriver.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static final class DriverLoad {
+        final long driverId;
+        final int activeOrders;
+
+        DriverLoad(long driverId, int activeOrders) {
+            this.driverId = driverId;
+            this.activeOrders = activeOrders;
+        }
+    }
+}
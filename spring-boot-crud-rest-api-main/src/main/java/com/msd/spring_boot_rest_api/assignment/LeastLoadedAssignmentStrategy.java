@@ -0,0 +1,24 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.model.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// The driver with the fewest active orders (ties broken by lowest id).
+@Component
+@ConditionalOnProperty(name = "ldms.assignment.strategy", havingValue = "least-loaded")
+public class LeastLoadedAssignmentStrategy implements DriverAssignmentStrategy {
+
+    private final DriverAvailabilityIndex index;
+
+    public LeastLoadedAssignmentStrategy(DriverAvailabilityIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public Optional<Long> assign(Order order) {
+        return index.acquireLeastLoaded();
+    }
+}
@@ -0,0 +1,50 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+// Default policy: the nearest driver to the customer's address that still has capacity
+// (fewer than ldms.assignment.max-active-orders active orders). Falls back to
+// least-loaded when the customer has no coordinates or no positioned driver qualifies,
+// under the same limit: if every driver is full there is no driver to assign.
+@Component
+@ConditionalOnProperty(name = "ldms.assignment.strategy", havingValue = "nearest", matchIfMissing = true)
+public class NearestDriverAssignmentStrategy implements DriverAssignmentStrategy {
+
+    private final SpatialGridIndex spatialIndex;
+    private final DriverAvailabilityIndex availabilityIndex;
+    private final int maxActiveOrders;
+    private final int candidates;
+
+    public NearestDriverAssignmentStrategy(SpatialGridIndex spatialIndex,
+                                           DriverAvailabilityIndex availabilityIndex,
+                                           @Value("${ldms.assignment.max-active-orders:10}") int maxActiveOrders,
+                                           @Value("${ldms.assignment.candidates:8}") int candidates) {
+        this.spatialIndex = spatialIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.maxActiveOrders = maxActiveOrders;
+        this.candidates = candidates;
+    }
+
+    @Override
+    public Optional<Long> assign(Order order) {
+        Customer customer = order.getCustomer();
+        if (customer != null && customer.getLatitude() != null && customer.getLongitude() != null) {
+            List<Long> nearest = spatialIndex.nearest(customer.getLatitude(), customer.getLongitude(), candidates,
+                    driverId -> availabilityIndex.hasCapacity(driverId, maxActiveOrders));
+            // Another transition may fill a candidate between the query and the reservation
+            for (Long driverId : nearest) {
+                if (availabilityIndex.tryAcquire(driverId, maxActiveOrders)) {
+                    return Optional.of(driverId);
+                }
+            }
+        }
+        return availabilityIndex.acquireLeastLoaded(maxActiveOrders);
+    }
+}
@@ -0,0 +1,38 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.model.Order;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cycles through drivers in id order regardless of load.
+@Component
+@ConditionalOnProperty(name = "ldms.assignment.strategy", havingValue = "round-robin")
+public class RoundRobinAssignmentStrategy implements DriverAssignmentStrategy {
+
+    private final DriverAvailabilityIndex index;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public RoundRobinAssignmentStrategy(DriverAvailabilityIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public Optional<Long> assign(Order order) {
+        // A driver can disappear between reading the id snapshot and reserving it;
+        // retry a bounded number of times against the fresh snapshot.
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long[] ids = index.driverIds();
+            if (ids.length == 0) {
+                return Optional.empty();
+            }
+            long driverId = ids[(int) Math.floorMod(cursor.getAndIncrement(), (long) ids.length)];
+            if (index.acquire(driverId)) {
+                return Optional.of(driverId);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,197 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+// Uniform lat/lng grid over driver positions. A k-nearest query scans rings of cells
+// outward from the query point and stops as soon as no unvisited ring can hold a closer
+// driver, so it only looks at drivers in the immediate neighbourhood instead of the
+// whole fleet.
+@Component
+public class SpatialGridIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SpatialGridIndex.class);
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final DriverRepository driverRepository;
+    private final double cellDegrees;
+    private final int maxRings;
+
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Position> positions = new ConcurrentHashMap<>();
+
+    public SpatialGridIndex(DriverRepository driverRepository,
+                            @Value("${ldms.assignment.grid-cell-degrees:0.05}") double cellDegrees,
+                            @Value("${ldms.assignment.grid-max-rings:200}") int maxRings) {
+        this.driverRepository = driverRepository;
+        this.cellDegrees = cellDegrees;
+        this.maxRings = maxRings;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ldms.assignment.refresh-interval-ms:300000}",
+            initialDelayString = "${ldms.assignment.refresh-interval-ms:300000}")
+    public void rebuild() {
+        List<Object[]> rows = driverRepository.findAllDriverPositions();
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        for (Object[] row : rows) {
+            long driverId = ((Number) row[0]).longValue();
+            update(driverId, ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue());
+            seen.add(driverId);
+        }
+        positions.keySet().stream().filter(id -> !seen.contains(id)).toList().forEach(this::remove);
+        log.info("Driver spatial index rebuilt with {} positioned drivers", rows.size());
+    }
+
+    // Moves between cells run inside compute on the driver's position, so concurrent
+    // updates and removals of one driver apply one at a time and never leave it in a cell
+    // it has left.
+    public void update(long driverId, double latitude, double longitude) {
+        long cell = cellKey(latitude, longitude);
+        positions.compute(driverId, (id, previous) -> {
+            if (previous != null && previous.cell != cell) {
+                removeFromCell(previous.cell, id);
+            }
+            addToCell(cell, id);
+            return new Position(latitude, longitude, cell);
+        });
+    }
+
+    public void remove(long driverId) {
+        positions.computeIfPresent(driverId, (id, previous) -> {
+            removeFromCell(previous.cell, id);
+            return null;
+        });
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    // Up to k drivers accepted by the filter, nearest first.
+    public List<Long> nearest(double latitude, double longitude, int k, LongPredicate eligible) {
+        List<Candidate> found = new ArrayList<>();
+        if (k <= 0 || positions.isEmpty()) {
+            return List.of();
+        }
+        int cx = cellIndex(longitude);
+        int cy = cellIndex(latitude);
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        int visited = 0;
+
+        for (int ring = 0; ring <= maxRings && visited < positions.size(); ring++) {
+            // Every point in ring r is at least (r - 1) cells away along one axis
+            if (found.size() >= k && ring > 1) {
+                double ringLowerBoundKm = Math.toRadians((ring - 1) * cellDegrees * cosLat) * EARTH_RADIUS_KM;
+                if (ringLowerBoundKm > found.get(k - 1).distanceKm) {
+                    break;
+                }
+            }
+            for (int dy = -ring; dy <= ring; dy++) {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    if (Math.abs(dx) != ring && Math.abs(dy) != ring) {
+                        continue; // inner cells were visited in earlier rings
+                    }
+                    Set<Long> drivers = cells.get(key(cx + dx, cy + dy));
+                    if (drivers == null) {
+                        continue;
+                    }
+                    for (Long driverId : drivers) {
+                        visited++;
+                        Position position = positions.get(driverId);
+                        if (position == null || !eligible.test(driverId)) {
+                            continue;
+                        }
+                        found.add(new Candidate(driverId,
+                                distanceKm(latitude, longitude, position.latitude, position.longitude)));
+                    }
+                }
+            }
+            found.sort(Comparator.comparingDouble(candidate -> candidate.distanceKm));
+        }
+
+        List<Long> result = new ArrayList<>(Math.min(k, found.size()));
+        for (int i = 0; i < found.size() && i < k; i++) {
+            result.add(found.get(i).driverId);
+        }
+        return result;
+    }
+
+    // Equirectangular approximation; accurate to well under 1% at city distances.
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_KM;
+    }
+
+    // Number of (cell, driver) entries; equals size() unless a driver is in a cell it left.
+    // For tests.
+    int cellEntries() {
+        return cells.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Under the cell's bin lock, like removeFromCell, so an add never lands in a set that
+    // is being dropped as empty
+    private void addToCell(long cell, long driverId) {
+        cells.compute(cell, (key, drivers) -> {
+            Set<Long> set = drivers == null ? ConcurrentHashMap.newKeySet() : drivers;
+            set.add(driverId);
+            return set;
+        });
+    }
+
+    private void removeFromCell(long cell, long driverId) {
+        cells.computeIfPresent(cell, (key, drivers) -> {
+            drivers.remove(driverId);
+            return drivers.isEmpty() ? null : drivers;
+        });
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return key(cellIndex(longitude), cellIndex(latitude));
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) y << 32) | (x & 0xffffffffL);
+    }
+
+    private static final class Position {
+        final double latitude;
+        final double longitude;
+        final long cell;
+
+        Position(double latitude, double longitude, long cell) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+        }
+    }
+
+    private static final class Candidate {
+        final long driverId;
+        final double distanceKm;
+
+        Candidate(long driverId, double distanceKm) {
+            this.driverId = driverId;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
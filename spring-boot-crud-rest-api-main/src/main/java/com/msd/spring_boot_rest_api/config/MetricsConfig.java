@@ -0,0 +1,45 @@
+package com.msd.spring_boot_rest_api.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.sql.DataSource;
+
+// Metrics are served at /actuator/prometheus. Actuator already binds the Hikari pool
+// (hikaricp.connections.*), HTTP server requests and every Spring Data repository call
+// (spring.data.repository.invocations, tagged by repository and method); this config adds
+// @Timed support and the app's own gauges. ldms-metrics.properties holds the exposure and
+// histogram defaults, which any application property overrides.
+@Configuration
+@PropertySource("classpath:ldms-metrics.properties")
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Only present in virtual-thread mode, where VirtualThreadConfig wraps the pool
+    @Bean
+    public MeterBinder connectionLimitMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConnectionLimitingDataSource.class::isInstance)
+                .map(ConnectionLimitingDataSource.class::cast)
+                .forEach(limiter -> {
+                    Gauge.builder("ldms.db.concurrency.available", limiter,
+                                    ConnectionLimitingDataSource::getAvailablePermits)
+                            .description("Connection permits free under the virtual-thread cap")
+                            .register(registry);
+                    Gauge.builder("ldms.db.concurrency.waiting", limiter,
+                                    ConnectionLimitingDataSource::getQueueLength)
+                            .description("Threads waiting for a connection permit")
+                            .register(registry);
+                });
+    }
+}
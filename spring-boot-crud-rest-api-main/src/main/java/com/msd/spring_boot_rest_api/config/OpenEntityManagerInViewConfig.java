@@ -0,0 +1,33 @@
+package com.msd.spring_boot_rest_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Open-session-in-view keeps each request's EntityManager, and the JDBC connection it has
+// taken, until the response completes. For an SSE stream that is the life of the
+// subscription, so a pool's worth of subscribers would starve every other request. This
+// replaces Spring Boot's registration (which backs off once this bean exists) with one
+// that leaves the event streams out; they read the order or driver once, in a transaction
+// that returns the connection straight away. spring.jpa.open-in-view=false still turns
+// the whole thing off.
+@Configuration
+@ConditionalOnProperty(prefix = "spring.jpa", name = "open-in-view", havingValue = "true", matchIfMissing = true)
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    static final String[] EVENT_STREAM_PATHS = {"/api/orders/*/events", "/api/drivers/*/events"};
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns(EVENT_STREAM_PATHS);
+    }
+}
@@ -0,0 +1,135 @@
+package com.msd.spring_boot_rest_api.config;
+
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+// Order columns that used to be stored as text. ddl-auto=update never changes the type of
+// an existing column, so a database created before the switch is converted here once, at
+// startup, on MySQL and H2. Columns that already have the new type, or a missing table, are
+// left alone.
+//  - orders.estimated_delivery and order_status.time held LocalDateTime.toString(); they
+//    become timestamps. Missing or unparseable values stop the conversion before anything
+//    is changed. The (order_id, time) index is rebuilt over the new type with the column.
+//  - orders.status held the label; it becomes the one-byte OrderStatusCode. A run that stopped
+//    between rewriting the values and changing the type left codes in the text column;
+//    those are accepted as they are, so the step can simply run again.
+@Component
+public class OrderColumnMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderColumnMigration.class);
+
+    // Table and column are filled in. LocalDateTime.toString() drops zero seconds
+    // ("2025-06-02T12:00"), so add them back.
+    static final String TIMESTAMP_NORMALISE_SQL = "UPDATE %1$s SET %2$s = "
+            + "CONCAT(REPLACE(%2$s, 'T', ' '), CASE WHEN CHAR_LENGTH(%2$s) = 16 THEN ':00' ELSE '' END)";
+    // What the normalise step accepts: LocalDateTime.toString(), or a value it already
+    // rewrote in a run that stopped before changing the type
+    static final String TIMESTAMP_TEXT_PATTERN =
+            "^[0-9]{4}-[0-9]{2}-[0-9]{2}[T ][0-9]{2}:[0-9]{2}(:[0-9]{2}([.][0-9]{1,9})?)?$";
+    static final String TIMESTAMP_MYSQL_ALTER_SQL = "ALTER TABLE %s MODIFY %s DATETIME(6) NOT NULL";
+    static final String TIMESTAMP_H2_ALTER_SQL = "ALTER TABLE %s ALTER COLUMN %s TIMESTAMP(6) NOT NULL";
+
+    static final String STATUS_MYSQL_ALTER_SQL = "ALTER TABLE orders MODIFY status TINYINT NOT NULL";
+    static final String STATUS_H2_ALTER_SQL = "ALTER TABLE orders ALTER COLUMN status TINYINT NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderColumnMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        boolean mysql = "MySQL".equals(product);
+        if (isText(product, "orders", "estimated_delivery")) {
+            convertTimestamp(mysql, "orders", "estimated_delivery");
+        }
+        if (isText(product, "order_status", "time")) {
+            convertTimestamp(mysql, "order_status", "time");
+        }
+        if (isText(product, "orders", "status")) {
+            String labels = Arrays.stream(OrderStatusCode.values())
+                    .map(status -> "'" + status.getLabel() + "'")
+                    .collect(Collectors.joining(", "));
+            String codes = Arrays.stream(OrderStatusCode.values())
+                    .map(status -> "'" + status.getCode() + "'")
+                    .collect(Collectors.joining(", "));
+            // Refuse to start rather than run against values the entity cannot read. NOT IN
+            // never matches NULL, so missing statuses are counted separately.
+            Long missing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM orders WHERE status IS NULL", Long.class);
+            if (missing != null && missing > 0) {
+                throw new IllegalStateException(missing + " orders have no status; "
+                        + "set one before converting orders.status");
+            }
+            Long unknown = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM orders WHERE status NOT IN (" + labels + ", " + codes + ")", Long.class);
+            if (unknown != null && unknown > 0) {
+                throw new IllegalStateException(unknown + " orders have a status other than " + labels
+                        + "; fix them before converting orders.status");
+            }
+            StringBuilder sql = new StringBuilder("UPDATE orders SET status = CASE status");
+            for (OrderStatusCode status : OrderStatusCode.values()) {
+                sql.append(" WHEN '").append(status.getLabel()).append("' THEN '").append(status.getCode()).append("'");
+            }
+            sql.append(" ELSE status END WHERE status IN (").append(labels).append(")");
+            int rows = jdbcTemplate.update(sql.toString());
+            jdbcTemplate.execute(mysql ? STATUS_MYSQL_ALTER_SQL : STATUS_H2_ALTER_SQL);
+            log.info("Converted orders.status ({} rows)", rows);
+        }
+    }
+
+    private void convertTimestamp(boolean mysql, String table, String column) {
+        // As for status: refuse to start rather than fail halfway through the ALTER
+        Long missing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + column + " IS NULL", Long.class);
+        if (missing != null && missing > 0) {
+            throw new IllegalStateException(missing + " rows have no value in " + table + "." + column
+                    + "; set one before converting it");
+        }
+        Long unparseable = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + column + " NOT REGEXP ?", Long.class,
+                TIMESTAMP_TEXT_PATTERN);
+        if (unparseable != null && unparseable > 0) {
+            throw new IllegalStateException(unparseable + " rows have a value in " + table + "." + column
+                    + " that is not an ISO-8601 date-time; fix them before converting it");
+        }
+        int rows = jdbcTemplate.update(String.format(TIMESTAMP_NORMALISE_SQL, table, column));
+        jdbcTemplate.execute(String.format(mysql ? TIMESTAMP_MYSQL_ALTER_SQL : TIMESTAMP_H2_ALTER_SQL, table, column));
+        log.info("Converted {}.{} ({} rows)", table, column, rows);
+    }
+
+    // True if the column still has a character type and this database can be converted
+    private boolean isText(String product, String table, String column) {
+        String type = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upper = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null,
+                    upper ? table.toUpperCase(Locale.ROOT) : table, upper ? column.toUpperCase(Locale.ROOT) : column)) {
+                return columns.next() ? columns.getString("TYPE_NAME") : null;
+            }
+        });
+        if (type == null || !type.toUpperCase(Locale.ROOT).contains("CHAR")) {
+            return false;
+        }
+        if (!"MySQL".equals(product) && !"H2".equals(product)) {
+            log.warn("{}.{} is still {} on {}; convert it by hand", table, column, type, product);
+            return false;
+        }
+        log.info("Converting {}.{} from {}", table, column, type);
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.msd.spring_boot_rest_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (e.g. periodic reconciliation of the order stats counters)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
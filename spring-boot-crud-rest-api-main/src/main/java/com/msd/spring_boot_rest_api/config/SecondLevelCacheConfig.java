@@ -0,0 +1,91 @@
+package com.msd.spring_boot_rest_api.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hibernate second-level cache (JCache backed by Caffeine) for the Driver and Customer
+// reference data, plus query results for DriverRepository.findAll. Writes made through
+// JPA update or evict the cached rows and invalidate cached query results for the table;
+// rows changed outside the application (SQL scripts, seeding) are picked up once their
+// entry expires after ldms.cache.reference.ttl-seconds, which defaults to the driver index
+// refresh interval. ldms.cache.second-level.enabled=false turns the cache off.
+@Configuration
+@ConditionalOnProperty(name = "ldms.cache.second-level.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    // Named in the @Cache annotations on Driver/Customer and the query hints in DriverRepository
+    private static final String DRIVER_REGION = "drivers";
+    private static final String CUSTOMER_REGION = "customers";
+    private static final String DRIVER_QUERY_REGION = "driver-queries";
+
+    private static final AtomicInteger contexts = new AtomicInteger();
+
+    // Own URI per application context: Caffeine shares a cache manager between callers
+    // asking for the same URI, and test contexts on different databases must not share rows.
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${ldms.cache.reference.max-entries:10000}") long maxEntries,
+            @Value("${ldms.cache.reference.ttl-seconds:300}") long ttlSeconds) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ldms-second-level-cache-" + contexts.incrementAndGet()),
+                        SecondLevelCacheConfig.class.getClassLoader());
+        for (String region : List.of(DRIVER_REGION, CUSTOMER_REGION, DRIVER_QUERY_REGION,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            cacheManager.createCache(region, configuration(maxEntries, ttlSeconds));
+        }
+        // Never expired: a missing timestamp would let a stale query result through
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration(maxEntries, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.cache.use_second_level_cache", true);
+            properties.putIfAbsent("hibernate.cache.use_query_cache", true);
+            properties.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            // Every region is created above with its bounds; an unplanned one would be unbounded
+            properties.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    // cache.gets{result=hit|miss}, cache.puts, cache.removals and cache.evictions per region
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), "cache.layer", "hibernate");
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(long maxEntries, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        // Hibernate already caches disassembled copies; no need to serialize them again
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
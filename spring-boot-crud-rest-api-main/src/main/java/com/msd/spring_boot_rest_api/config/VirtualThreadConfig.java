@@ -0,0 +1,50 @@
+package com.msd.spring_boot_rest_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Virtual-thread mode is Spring Boot's own switch, spring.threads.virtual.enabled=true: Tomcat
+// request handling, @Async/async MVC (applicationTaskExecutor) and @Scheduled jobs then run
+// on virtual threads. PasswordVerifier keeps its platform pool on purpose since hashing is
+// CPU-bound. This config adds what the switch does not: a cap on concurrent DB connection
+// acquisition sized to the Hikari pool (ldms.db.max-concurrency to override).
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int poolSize = 10;
+                long timeoutMs = 30_000;
+                if (bean instanceof HikariDataSource hikari) {
+                    // An unset pool size reads -1 until the pool starts, which then uses 10
+                    if (hikari.getMaximumPoolSize() > 0) {
+                        poolSize = hikari.getMaximumPoolSize();
+                    }
+                    timeoutMs = hikari.getConnectionTimeout();
+                }
+                int maxConcurrency = environment.getProperty("ldms.db.max-concurrency", Integer.class, 0);
+                int permits = maxConcurrency > 0 ? maxConcurrency : poolSize;
+                log.info("Limiting data source '{}' to {} concurrent connections", beanName, permits);
+                return new ConnectionLimitingDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+}
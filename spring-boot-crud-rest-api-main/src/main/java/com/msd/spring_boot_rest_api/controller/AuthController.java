@@ -2,11 +2,17 @@ package com.msd.spring_boot_rest_api.controller;
 
 import com.msd.spring_boot_rest_api.dto.LoginRequest;
 import com.msd.spring_boot_rest_api.dto.LoginResponse;
+import com.msd.spring_boot_rest_api.exception.ServiceUnavailableException;
 import com.msd.spring_boot_rest_api.model.User;
 import com.msd.spring_boot_rest_api.repository.UserRepository;
 import com.msd.spring_boot_rest_api.security.JwtTokenProvider;
+import com.msd.spring_boot_rest_api.security.PasswordVerifier;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,34 +23,61 @@ import com.msd.spring_boot_rest_api.dto.LoginResponse;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        System.out.println("Login attempt for email: " + loginRequest.getEmail());
+        // ldms.auth.login is timed per outcome, so its count doubles as the outcome counter
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            log.debug("Login attempt for {}", loginRequest.getEmail());
 
-        Optional<User> userOpt = userRepository.findByEmail(loginRequest.getEmail());
-        if (userOpt.isEmpty()) {
-            System.out.println("User not found!");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
-        }
+            Optional<User> userOpt = userRepository.findByEmail(loginRequest.getEmail());
+            if (userOpt.isEmpty()) {
+                log.debug("Login failed for {}: unknown user", loginRequest.getEmail());
+                outcome = "unknown_user";
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+            }
 
-        User user = userOpt.get();
-        System.out.println("Found user: " + user.getEmail() + " with password: " + user.getPassword());
+            User user = userOpt.get();
 
-        if (!user.getPassword().equals(loginRequest.getPassword())) {
-            System.out.println("Password mismatch!");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
-        }
+            // Hashing runs on PasswordVerifier's bounded pool; 503 when it is saturated
+            PasswordVerifier.Result verification = passwordVerifier.verify(loginRequest.getPassword(), user.getPassword());
+            if (!verification.matches()) {
+                log.debug("Login failed for {}: wrong password", user.getEmail());
+                outcome = "bad_password";
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid password");
+            }
+            if (verification.getUpgradedHash() != null) {
+                // Legacy plaintext (or weaker) password: store the current hash from now on
+                user.setPassword(verification.getUpgradedHash());
+                userRepository.save(user);
+            }
 
-        System.out.println("Login successful!");
-        String token = tokenProvider.generateToken(user.getEmail(), user.getRole());
-        System.out.println("Generated JWT token: " + token);
-        return ResponseEntity.ok(new LoginResponse(token, "Bearer"));
+            // The token is a bearer credential and never logged
+            String token = tokenProvider.generateToken(user.getEmail(), user.getRole());
+            log.debug("Login succeeded for {}", user.getEmail());
+            outcome = "success";
+            return ResponseEntity.ok(new LoginResponse(token, "Bearer"));
+        } catch (ServiceUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("ldms.auth.login", "outcome", outcome));
+        }
     }    
 
 }
@@ -0,0 +1,33 @@
+package com.msd.spring_boot_rest_api.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.msd.spring_boot_rest_api.dto.CustomerSearchResult;
+import com.msd.spring_boot_rest_api.search.CustomerSearchIndex;
+
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CustomerController {
+
+    private final CustomerSearchIndex searchIndex;
+
+    public CustomerController(CustomerSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    // Typeahead: customers whose name, email or phone contains q (or nearly does), best
+    // match first. Answered from memory; an invalid q or limit gets 400. ADMIN and
+    // WAREHOUSE only (SecurityConfig).
+    @GetMapping("/search")
+    public List<CustomerSearchResult> search(@RequestParam String q,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        return searchIndex.search(q, limit);
+    }
+}
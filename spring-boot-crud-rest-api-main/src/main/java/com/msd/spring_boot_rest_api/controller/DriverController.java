@@ -2,14 +2,25 @@ package com.msd.spring_boot_rest_api.controller;
 
 import java.util.List;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.msd.spring_boot_rest_api.assignment.SpatialGridIndex;
+import com.msd.spring_boot_rest_api.dto.LocationUpdateRequest;
 import com.msd.spring_boot_rest_api.model.Driver;
 import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import com.msd.spring_boot_rest_api.service.OrderEventBroadcaster;
+import com.msd.spring_boot_rest_api.service.OrderResponseCache;
 
 @RestController
 @RequestMapping("/api/drivers")
@@ -17,9 +28,16 @@ import com.msd.spring_boot_rest_api.repository.DriverRepository;
 public class DriverController {
 
     private final DriverRepository driverRepository;
+    private final SpatialGridIndex spatialIndex;
+    private final OrderResponseCache orderResponseCache;
+    private final OrderEventBroadcaster eventBroadcaster;
 
-    public DriverController(DriverRepository driverRepository) {
+    public DriverController(DriverRepository driverRepository, SpatialGridIndex spatialIndex,
+                            OrderResponseCache orderResponseCache, OrderEventBroadcaster eventBroadcaster) {
         this.driverRepository = driverRepository;
+        this.spatialIndex = spatialIndex;
+        this.orderResponseCache = orderResponseCache;
+        this.eventBroadcaster = eventBroadcaster;
     }
 
     @GetMapping
@@ -27,7 +45,43 @@ public class DriverController {
     public List<Driver> getAllDrivers() {
         return driverRepository.findAll();
     }
+
+    // Position reports; keeps the proximity index current. Admin only (see SecurityConfig):
+    // driver accounts are not linked to Driver rows, so a driver could not be limited to its own.
+    @PutMapping("/{id}/location")
+    public ResponseEntity<Driver> updateLocation(@PathVariable Long id, @RequestBody LocationUpdateRequest request) {
+        Double latitude = request.getLatitude();
+        Double longitude = request.getLongitude();
+        if (latitude == null || longitude == null
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("latitude must be in [-90, 90] and longitude in [-180, 180]");
+        }
+        return driverRepository.findById(id)
+                .map(driver -> {
+                    driver.setLatitude(latitude);
+                    driver.setLongitude(longitude);
+                    if (request.getLocation() != null) {
+                        driver.setLocation(request.getLocation());
+                    }
+                    Driver saved = driverRepository.save(driver);
+                    spatialIndex.update(saved.getDriverId(), latitude, longitude);
+                    orderResponseCache.invalidateDriver(saved.getDriverId());
+                    return ResponseEntity.ok(saved);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
     
+    // Stage changes of every order assigned to this driver, as Server-Sent Events
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> driverEvents(@PathVariable Long id,
+                                                   @RequestHeader(value = "Last-Event-ID", required = false)
+                                                   String lastEventId) {
+        if (driverRepository.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(eventBroadcaster.subscribeToDriver(id, lastEventId));
+    }
+
     @GetMapping("/test")
     public String test() {
         return "API is working!";
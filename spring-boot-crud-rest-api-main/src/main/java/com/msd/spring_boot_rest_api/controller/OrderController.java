@@ -1,11 +1,29 @@
 package com.msd.spring_boot_rest_api.controller;
 
+import com.msd.spring_boot_rest_api.dto.BatchStatusUpdateRequest;
+import com.msd.spring_boot_rest_api.dto.BatchStatusUpdateResult;
+import com.msd.spring_boot_rest_api.dto.CursorPage;
+import com.msd.spring_boot_rest_api.dto.OrderChanges;
+import com.msd.spring_boot_rest_api.dto.OrderStats;
+import com.msd.spring_boot_rest_api.dto.OrderSummary;
 import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.service.OrderEventBroadcaster;
+import com.msd.spring_boot_rest_api.service.OrderExportService;
+import com.msd.spring_boot_rest_api.service.OrderResponseCache;
 import com.msd.spring_boot_rest_api.service.OrderService;
+import com.msd.spring_boot_rest_api.service.OrderStatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,9 +32,19 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService service;
+    private final OrderExportService exportService;
+    private final OrderStatsService statsService;
+    private final OrderResponseCache responseCache;
+    private final OrderEventBroadcaster eventBroadcaster;
 
-    public OrderController(OrderService service) {
+    public OrderController(OrderService service, OrderExportService exportService,
+                           OrderStatsService statsService, OrderResponseCache responseCache,
+                           OrderEventBroadcaster eventBroadcaster) {
         this.service = service;
+        this.exportService = exportService;
+        this.statsService = statsService;
+        this.responseCache = responseCache;
+        this.eventBroadcaster = eventBroadcaster;
     }
 
     // DTO class for status update request
@@ -34,18 +62,118 @@ public class OrderController {
 
     @GetMapping
     // @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE') or hasRole('DRIVER')")
-    public List<Order> getAllOrders() {
-        return service.getAllOrders();
+    public CursorPage<Order> getAllOrders(@RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "50") int size) {
+        return service.getOrders(cursor, size);
     }
 
+    @GetMapping("/summary")
+    public CursorPage<OrderSummary> getOrderSummaries(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int size) {
+        return service.getOrderSummaries(cursor, size);
+    }
+
+    @GetMapping("/today")
+    public CursorPage<Order> getTodayOrders(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int size) {
+        return service.getTodayOrders(cursor, size);
+    }
+
+    @GetMapping("/past")
+    public CursorPage<Order> getPastOrders(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int size) {
+        return service.getPastOrders(cursor, size);
+    }
+
+    @GetMapping("/upcoming")
+    public CursorPage<Order> getUpcomingOrders(@RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int size) {
+        return service.getUpcomingOrders(cursor, size);
+    }
+
+    // Undelivered orders whose ETA falls within the next ?hours, soonest first
+    @GetMapping("/due-soon")
+    public CursorPage<Order> getOrdersDueSoon(@RequestParam(defaultValue = "24") int hours,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int size) {
+        return service.getOrdersDueWithin(hours, cursor, size);
+    }
+
+    // Undelivered orders already past their ETA, most overdue first
+    @GetMapping("/overdue")
+    public CursorPage<Order> getOverdueOrders(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int size) {
+        return service.getOverdueOrders(cursor, size);
+    }
+
+    // Orders in any of the given statuses (?status=Order Placed&status=Out for Delivery),
+    // grouped by status in stage order, each status by processing time
+    @GetMapping("/by-status")
+    public CursorPage<Order> getOrdersByStatus(@RequestParam List<String> status,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int size) {
+        return service.getOrdersByStatus(status, cursor, size);
+    }
+
+    // Delta sync: orders changed or deleted after ?since=<watermark>. Call without since for
+    // the current watermark before a full load, then poll with each response's watermark.
+    @GetMapping("/changes")
+    public OrderChanges getChanges(@RequestParam(required = false) Long since,
+                                   @RequestParam(defaultValue = "500") int size) {
+        return service.getChanges(since, size);
+    }
+
+    // Per-status and per-stage counts from in-memory counters; safe to poll every second.
+    @GetMapping("/stats")
+    public OrderStats getOrderStats() {
+        return statsService.getStats();
+    }
+
+    // Streams every matching order as NDJSON or CSV without materialising the result set.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        OrderExportService.Format exportFormat = OrderExportService.Format.from(format);
+        // Reject unknown statuses now; once streaming starts the response is already a 200
+        if (status != null) {
+            status.forEach(OrderStatusCode::fromLabel);
+        }
+        StreamingResponseBody body = out -> exportService.export(status, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    // Served from OrderResponseCache as pre-serialized JSON. Spring answers 304 itself when
+    // If-None-Match carries the ETag; no-cache makes clients revalidate on every poll.
     @GetMapping("/{id}")
     // @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE') or hasRole('DRIVER')")
-    public ResponseEntity<Order> getOrder(@PathVariable Long id) {
-        return service.getOrderById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getOrder(@PathVariable Long id) {
+        return responseCache.get(id, () -> service.getOrderById(id))
+                .map(cached -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(cached.getEtag())
+                        .cacheControl(CacheControl.noCache())
+                        .body(cached.getBody()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Live stage changes of one order as Server-Sent Events; reconnects resume via Last-Event-ID
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> orderEvents(@PathVariable Long id,
+                                                  @RequestHeader(value = "Last-Event-ID", required = false)
+                                                  String lastEventId) {
+        if (service.getOrderById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(eventBroadcaster.subscribeToOrder(id, lastEventId));
+    }
+
     @DeleteMapping("/{id}")
     // @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE')")
     public ResponseEntity<?> deleteOrder(@PathVariable Long id) {
@@ -53,12 +181,18 @@ public class OrderController {
         return ResponseEntity.ok().build();
     }
 
+    // Moves many orders to one status; the body reports success or failure per order.
+    @PutMapping("/status:batch")
+    // @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE')")
+    public BatchStatusUpdateResult updateOrderStatuses(@RequestBody BatchStatusUpdateRequest request) {
+        return service.updateOrderStatuses(request.getOrderIds(), request.getStatus());
+    }
+
+    // 404 for an unknown order, 409 when its current status does not allow the move
     @PutMapping("/{id}/status")
     // @PreAuthorize("hasRole('ADMIN') or hasRole('WAREHOUSE')")
     public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestBody StatusUpdateRequest request) {
-        return service.getOrderById(id)
-                .map(order -> ResponseEntity.ok(service.updateOrderStatus(id, request.getStatus())))
-                .orElse(ResponseEntity.notFound().build());
+        return ResponseEntity.ok(service.updateOrderStatus(id, request.getStatus()));
     }
 
 
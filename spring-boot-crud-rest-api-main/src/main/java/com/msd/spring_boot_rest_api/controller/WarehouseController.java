@@ -1,14 +1,13 @@
 package com.msd.spring_boot_rest_api.controller;
 
+import com.msd.spring_boot_rest_api.dto.CursorPage;
 import com.msd.spring_boot_rest_api.model.Order;
 import com.msd.spring_boot_rest_api.service.OrderService;
-import com.msd.spring_boot_rest_api.entity.Order;
-
-import java.util.List;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -26,7 +25,8 @@ public class WarehouseController {
     
     @PreAuthorize("hasRole('WAREHOUSE')")
     @GetMapping("/all-orders")
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public CursorPage<Order> getAllOrders(@RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "50") int size) {
+        return orderService.getOrders(cursor, size);
     }
 }
@@ -0,0 +1,25 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import java.util.List;
+
+public class BatchStatusUpdateRequest {
+    private List<Long> orderIds;
+    private String status;
+
+    // Getters & setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,76 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import com.msd.spring_boot_rest_api.model.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of PUT /api/orders/status:batch, one entry per distinct requested order id.
+public class BatchStatusUpdateResult {
+
+    private final String status;
+    private final List<Item> results = new ArrayList<>();
+    private int succeeded;
+    private int failed;
+
+    public BatchStatusUpdateResult(String status) {
+        this.status = status;
+    }
+
+    public void addSuccess(Order order) {
+        Long driverId = order.getDriver() == null ? null : order.getDriver().getDriverId();
+        results.add(new Item(order.getId(), true, driverId, null));
+        succeeded++;
+    }
+
+    public void addFailure(Long orderId, String error) {
+        results.add(new Item(orderId, false, null, error));
+        failed++;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public static class Item {
+        private final Long orderId;
+        private final boolean success;
+        private final Long driverId;
+        private final String error;
+
+        public Item(Long orderId, boolean success, Long driverId, String error) {
+            this.orderId = orderId;
+            this.success = success;
+            this.driverId = driverId;
+            this.error = error;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public Long getDriverId() {
+            return driverId;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
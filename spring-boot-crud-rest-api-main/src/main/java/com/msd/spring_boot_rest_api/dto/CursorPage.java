@@ -0,0 +1,34 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated listing. "next" is an opaque cursor for the following
+// page, or null when this is the last page.
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String next;
+
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Builds a page from a query that fetched one row more than the page size, so we
+    // know whether another page exists without running a COUNT(*).
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
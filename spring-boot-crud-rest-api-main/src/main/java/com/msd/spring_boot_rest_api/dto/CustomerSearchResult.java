@@ -0,0 +1,33 @@
+package com.msd.spring_boot_rest_api.dto;
+
+// One typeahead suggestion from GET /api/customers/search, served from CustomerSearchIndex
+// without a database read
+public class CustomerSearchResult {
+    private final Long customerId;
+    private final String customerName;
+    private final String customerEmail;
+    private final String customerPhone;
+
+    public CustomerSearchResult(Long customerId, String customerName, String customerEmail, String customerPhone) {
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.customerEmail = customerEmail;
+        this.customerPhone = customerPhone;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public String getCustomerPhone() {
+        return customerPhone;
+    }
+}
@@ -0,0 +1,32 @@
+package com.msd.spring_boot_rest_api.dto;
+
+public class LocationUpdateRequest {
+    private Double latitude;
+    private Double longitude;
+    private String location;
+
+    // Getters & setters
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+}
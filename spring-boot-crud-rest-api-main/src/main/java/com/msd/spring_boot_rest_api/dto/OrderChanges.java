@@ -0,0 +1,39 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import com.msd.spring_boot_rest_api.model.Order;
+
+import java.util.List;
+
+// Response of GET /api/orders/changes: orders written and ids deleted after the requested
+// watermark. Pass "watermark" as ?since= on the next call; "more" means the page was full
+// and the next call should follow right away.
+public class OrderChanges {
+
+    private final List<Order> changed;
+    private final List<Long> deleted;
+    private final long watermark;
+    private final boolean more;
+
+    public OrderChanges(List<Order> changed, List<Long> deleted, long watermark, boolean more) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.more = more;
+    }
+
+    public List<Order> getChanged() {
+        return changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+}
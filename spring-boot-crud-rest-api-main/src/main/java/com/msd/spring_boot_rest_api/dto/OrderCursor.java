@@ -0,0 +1,94 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor: the sort key of the last row on the previous page.
+// Plain listings are keyed on order_id, date views on (processing_time, order_id) and
+// status views on (status, processing_time, order_id).
+public class OrderCursor {
+    private final byte status;
+    private final LocalDateTime time;
+    private final long id;
+
+    private OrderCursor(byte status, LocalDateTime time, long id) {
+        this.status = status;
+        this.time = time;
+        this.id = id;
+    }
+
+    public static String encode(long id) {
+        return encodeRaw(Long.toString(id));
+    }
+
+    public static String encode(LocalDateTime time, long id) {
+        return encodeRaw(time + "|" + id);
+    }
+
+    // time may be null (an order not yet processed)
+    public static String encode(byte status, LocalDateTime time, long id) {
+        return encodeRaw(status + "|" + (time == null ? "" : time) + "|" + id);
+    }
+
+    public static long decodeId(String cursor) {
+        try {
+            return Long.parseLong(decodeRaw(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static OrderCursor decodeTimeAndId(String cursor) {
+        String raw = decodeRaw(cursor);
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new OrderCursor((byte) 0, LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static OrderCursor decodeStatusTimeAndId(String cursor) {
+        String[] parts = decodeRaw(cursor).split("\\|", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new OrderCursor(Byte.parseByte(parts[0]),
+                    parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeRaw(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,38 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Pushed to live-tracking subscribers when an order changes stage. Deliberately small:
+// clients that need the full order fetch it (GET /api/orders/{id} answers 304 if unchanged).
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderEvent {
+    private final Long orderId;
+    private final Long driverId;
+    private final String status;
+    private final LocalDateTime time;
+
+    public OrderEvent(Long orderId, Long driverId, String status, LocalDateTime time) {
+        this.orderId = orderId;
+        this.driverId = driverId;
+        this.status = status;
+        this.time = time;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+}
@@ -0,0 +1,36 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Snapshot served by GET /api/orders/stats.
+// byStatus: orders currently in each status. byStage: orders that have completed each stage.
+public class OrderStats {
+    private final long total;
+    private final Map<String, Long> byStatus;
+    private final Map<String, Long> byStage;
+    private final Instant reconciledAt;
+
+    public OrderStats(long total, Map<String, Long> byStatus, Map<String, Long> byStage, Instant reconciledAt) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byStage = byStage;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public Map<String, Long> getByStage() {
+        return byStage;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+}
@@ -0,0 +1,69 @@
+package com.msd.spring_boot_rest_api.dto;
+
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+
+import java.time.LocalDateTime;
+
+// Lean read model for order list screens: only the columns the UI renders, selected
+// directly by a JPQL constructor expression so no entities are hydrated.
+public class OrderSummary {
+    private final Long id;
+    private final String status;
+    private final LocalDateTime estimatedDelivery;
+    private final String customerName;
+    private final String driverName;
+    private final LocalDateTime placedTime;
+    private final LocalDateTime processingTime;
+    private final LocalDateTime outForDeliveryTime;
+    private final LocalDateTime deliveredTime;
+
+    public OrderSummary(Long id, Byte statusCode, LocalDateTime estimatedDelivery, String customerName, String driverName,
+                        LocalDateTime placedTime, LocalDateTime processingTime,
+                        LocalDateTime outForDeliveryTime, LocalDateTime deliveredTime) {
+        this.id = id;
+        this.status = OrderStatusCode.labelOf(statusCode);
+        this.estimatedDelivery = estimatedDelivery;
+        this.customerName = customerName;
+        this.driverName = driverName;
+        this.placedTime = placedTime;
+        this.processingTime = processingTime;
+        this.outForDeliveryTime = outForDeliveryTime;
+        this.deliveredTime = deliveredTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getEstimatedDelivery() {
+        return estimatedDelivery;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getDriverName() {
+        return driverName;
+    }
+
+    public LocalDateTime getPlacedTime() {
+        return placedTime;
+    }
+
+    public LocalDateTime getProcessingTime() {
+        return processingTime;
+    }
+
+    public LocalDateTime getOutForDeliveryTime() {
+        return outForDeliveryTime;
+    }
+
+    public LocalDateTime getDeliveredTime() {
+        return deliveredTime;
+    }
+}
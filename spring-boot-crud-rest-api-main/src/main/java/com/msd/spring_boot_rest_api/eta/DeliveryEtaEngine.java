@@ -0,0 +1,308 @@
+package com.msd.spring_boot_rest_api.eta;
+
+import com.msd.spring_boot_rest_api.event.OrderEventConsumer;
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Order;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.IntCountsHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+
+// Delivery ETAs from observed stage durations instead of a fixed 2.5 days. Each committed
+// transition records how long the order spent in its previous stage (a "leg": placed ->
+// processing -> out for delivery -> delivered) into HdrHistogram sketches for the whole
+// fleet, the order's driver and its delivery region, a lat/lng grid cell of the customer's
+// geocoded address. Every sketch keeps the ldms.eta.quantile of each leg precomputed, so an
+// ETA is at most three legs of map lookups and additions.
+//
+// A leg's duration comes from the most specific sketch with at least ldms.eta.min-samples
+// observations: driver, then region, then fleet, else ldms.eta.default-leg-minutes (whose
+// default adds up to the old 2.5 days). Sketches are checkpointed to
+// ldms.eta.checkpoint-path every ldms.eta.checkpoint-ms and on shutdown, and read back on
+// startup; durations recorded after the last checkpoint are lost on a crash.
+@Component
+public class DeliveryEtaEngine implements OrderEventConsumer<OrderStatusChanged>, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryEtaEngine.class);
+
+    // Status at the end of each leg, in order
+    static final List<String> LEG_ENDS = List.of("Order Processing", "Out for Delivery", "Order Delivered");
+
+    private static final int CHECKPOINT_MAGIC = 0x4c455441; // "LETA"
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final byte SCOPE_FLEET = 0;
+    private static final byte SCOPE_DRIVER = 1;
+    private static final byte SCOPE_REGION = 2;
+
+    private final double quantile;
+    private final long minSamples;
+    private final long defaultLegMinutes;
+    private final double regionDegrees;
+    private final Path checkpointPath;
+    private final Sketch fleet = new Sketch();
+    private final Map<Long, Sketch> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Sketch> regions = new ConcurrentHashMap<>();
+    private final AtomicLong samples = new AtomicLong();
+    // Set by every recorded duration, cleared by a checkpoint
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public DeliveryEtaEngine(@Value("${ldms.eta.quantile:0.5}") double quantile,
+                             @Value("${ldms.eta.min-samples:20}") long minSamples,
+                             @Value("${ldms.eta.default-leg-minutes:1200}") long defaultLegMinutes,
+                             @Value("${ldms.eta.region-degrees:0.5}") double regionDegrees,
+                             @Value("${ldms.eta.checkpoint-path:data/eta-sketches.bin}") String checkpointPath) {
+        if (quantile <= 0 || quantile > 1) {
+            throw new IllegalArgumentException("ldms.eta.quantile must be in (0, 1]");
+        }
+        this.quantile = quantile;
+        this.minSamples = minSamples;
+        this.defaultLegMinutes = defaultLegMinutes;
+        this.regionDegrees = regionDegrees;
+        // Empty turns checkpointing off (tests)
+        this.checkpointPath = checkpointPath.isBlank() ? null : Path.of(checkpointPath);
+    }
+
+    @Override
+    public String getName() {
+        return "eta";
+    }
+
+    @Override
+    public Class<OrderStatusChanged> getEventType() {
+        return OrderStatusChanged.class;
+    }
+
+    @Override
+    public void accept(List<OrderStatusChanged> events) {
+        for (OrderStatusChanged event : events) {
+            int leg = LEG_ENDS.indexOf(event.getStatus());
+            if (leg < 0 || !event.isStageNewlyCompleted() || event.getPreviousTime() == null) {
+                continue;
+            }
+            long minutes = Duration.between(event.getPreviousTime(), event.getTime()).toMinutes();
+            if (minutes < 0) {
+                continue;
+            }
+            fleet.record(leg, minutes);
+            if (event.getDriverId() != null) {
+                drivers.computeIfAbsent(event.getDriverId(), id -> new Sketch()).record(leg, minutes);
+            }
+            if (event.getDeliveryLatitude() != null && event.getDeliveryLongitude() != null) {
+                long region = regionKey(event.getDeliveryLatitude(), event.getDeliveryLongitude());
+                regions.computeIfAbsent(region, id -> new Sketch()).record(leg, minutes);
+            }
+            samples.incrementAndGet();
+            dirty.set(true);
+        }
+    }
+
+    // When an order that reached status at time from should be delivered. Only transitions
+    // re-estimate, so status is one of the leg ends. The order's driver and customer must
+    // be loaded.
+    public LocalDateTime estimateDelivery(Order order, String status, LocalDateTime from) {
+        int reached = LEG_ENDS.indexOf(status);
+        if (reached < 0) {
+            throw new IllegalArgumentException("No delivery estimate from status: " + status);
+        }
+        int firstLeg = reached + 1;
+        Sketch driver = order.getDriver() == null ? null : drivers.get(order.getDriver().getDriverId());
+        Customer customer = order.getCustomer();
+        Sketch region = customer == null || customer.getLatitude() == null || customer.getLongitude() == null
+                ? null : regions.get(regionKey(customer.getLatitude(), customer.getLongitude()));
+        long minutes = 0;
+        for (int leg = firstLeg; leg < LEG_ENDS.size(); leg++) {
+            minutes += legMinutes(leg, driver, region);
+        }
+        return from.plusMinutes(minutes);
+    }
+
+    private long legMinutes(int leg, Sketch driver, Sketch region) {
+        long estimate;
+        if (driver != null && (estimate = driver.estimates[leg]) >= 0) {
+            return estimate;
+        }
+        if (region != null && (estimate = region.estimates[leg]) >= 0) {
+            return estimate;
+        }
+        estimate = fleet.estimates[leg];
+        return estimate >= 0 ? estimate : defaultLegMinutes;
+    }
+
+    private long regionKey(double latitude, double longitude) {
+        long y = (long) Math.floor(latitude / regionDegrees);
+        long x = (long) Math.floor(longitude / regionDegrees);
+        return (y << 32) | (x & 0xffffffffL);
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (checkpointPath == null || !Files.exists(checkpointPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                log.warn("Ignoring ETA checkpoint {}: unknown format", checkpointPath);
+                return;
+            }
+            // Region keys only mean the same cells if the grid is unchanged
+            boolean sameGrid = in.readDouble() == regionDegrees;
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                byte scope = in.readByte();
+                long id = in.readLong();
+                int leg = in.readByte();
+                byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                Sketch sketch = switch (scope) {
+                    case SCOPE_FLEET -> fleet;
+                    case SCOPE_DRIVER -> drivers.computeIfAbsent(id, key -> new Sketch());
+                    default -> sameGrid ? regions.computeIfAbsent(id, key -> new Sketch()) : null;
+                };
+                if (sketch != null) {
+                    sketch.restore(leg, IntCountsHistogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0));
+                }
+            }
+            log.info("ETA sketches restored from {}: {} drivers, {} regions", checkpointPath,
+                    drivers.size(), regions.size());
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            // Start from what was read; new transitions fill in the rest
+            log.warn("Could not read ETA checkpoint {}", checkpointPath, e);
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash mid-write keeps the
+    // previous checkpoint
+    @Scheduled(fixedDelayString = "${ldms.eta.checkpoint-ms:60000}",
+            initialDelayString = "${ldms.eta.checkpoint-ms:60000}")
+    @PreDestroy
+    public void checkpoint() {
+        if (checkpointPath == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            Path directory = checkpointPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, checkpointPath.getFileName().toString(), ".tmp");
+            // Copies, so the entry count matches while new drivers and regions keep appearing
+            Map<Long, Sketch> driverSketches = Map.copyOf(drivers);
+            Map<Long, Sketch> regionSketches = Map.copyOf(regions);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeDouble(regionDegrees);
+                out.writeInt((1 + driverSketches.size() + regionSketches.size()) * LEG_ENDS.size());
+                write(out, SCOPE_FLEET, 0, fleet);
+                for (Map.Entry<Long, Sketch> entry : driverSketches.entrySet()) {
+                    write(out, SCOPE_DRIVER, entry.getKey(), entry.getValue());
+                }
+                for (Map.Entry<Long, Sketch> entry : regionSketches.entrySet()) {
+                    write(out, SCOPE_REGION, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Could not write ETA checkpoint {}", checkpointPath, e);
+        }
+    }
+
+    // One entry per leg, empty legs included, so the count is known before writing
+    private static void write(DataOutputStream out, byte scope, long id, Sketch sketch) throws IOException {
+        for (int leg = 0; leg < LEG_ENDS.size(); leg++) {
+            byte[] encoded = sketch.encode(leg);
+            out.writeByte(scope);
+            out.writeLong(id);
+            out.writeByte(leg);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ldms.eta.sketches", drivers, Map::size)
+                .description("Stage-duration sketches kept for ETAs")
+                .tag("scope", "driver")
+                .register(registry);
+        Gauge.builder("ldms.eta.sketches", regions, Map::size)
+                .description("Stage-duration sketches kept for ETAs")
+                .tag("scope", "region")
+                .register(registry);
+        FunctionCounter.builder("ldms.eta.samples", samples, AtomicLong::get)
+                .description("Stage durations recorded into the ETA sketches")
+                .register(registry);
+    }
+
+    // One histogram of minutes per leg. Writers and the checkpoint hold the sketch's lock;
+    // ETA reads only touch the estimates array, which is replaced whole on every change.
+    private final class Sketch {
+        private final IntCountsHistogram[] legs = new IntCountsHistogram[LEG_ENDS.size()];
+        private volatile long[] estimates = {-1, -1, -1};
+
+        synchronized void record(int leg, long minutes) {
+            if (legs[leg] == null) {
+                // Two significant digits; auto-resizes to the longest duration seen
+                legs[leg] = new IntCountsHistogram(2);
+            }
+            legs[leg].recordValue(minutes);
+            refresh(leg);
+        }
+
+        synchronized void restore(int leg, IntCountsHistogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            histogram.setAutoResize(true);
+            if (legs[leg] == null) {
+                legs[leg] = histogram;
+            } else {
+                legs[leg].add(histogram);
+            }
+            refresh(leg);
+        }
+
+        synchronized byte[] encode(int leg) {
+            IntCountsHistogram histogram = legs[leg] == null ? new IntCountsHistogram(2) : legs[leg];
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            byte[] encoded = new byte[length];
+            buffer.flip();
+            buffer.get(encoded);
+            return encoded;
+        }
+
+        private void refresh(int leg) {
+            long[] updated = estimates.clone();
+            updated[leg] = legs[leg].getTotalCount() >= minSamples
+                    ? legs[leg].getValueAtPercentile(quantile * 100) : -1;
+            estimates = updated;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.msd.spring_boot_rest_api.event;
+
+import java.util.List;
+
+// A side effect run by OrderEventPipeline after a transaction commits. Every consumer bean
+// gets its own queue and thread, so a slow or failing one never holds up the others.
+public interface OrderEventConsumer<E> {
+
+    // Used in thread names, metric tags and ldms.pipeline.<name>.* overrides
+    String getName();
+
+    Class<E> getEventType();
+
+    // Events arrive in publish order, up to the configured batch size at a time. Throwing
+    // retries the whole batch, so consumers should be idempotent or handle partial failure
+    // themselves.
+    void accept(List<E> events) throws Exception;
+}
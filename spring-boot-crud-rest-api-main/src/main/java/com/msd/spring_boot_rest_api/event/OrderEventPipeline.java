@@ -0,0 +1,295 @@
+package com.msd.spring_boot_rest_api.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the side effects of order writes (status history, live tracking, ...) off the
+// request path and only for transactions that commit. publish() hands the event to every
+// OrderEventConsumer of its type. Each consumer has its own bounded queue and thread, takes
+// events in batches and retries a failed batch with exponential backoff.
+//
+// Settings are ldms.pipeline.<setting>, overridable per consumer as
+// ldms.pipeline.<consumer>.<setting>. When a queue is full, publish() waits up to
+// offer-timeout-ms for room and then runs the consumer on the caller's thread, so a backlog
+// slows writers down rather than growing memory or losing events. Queued events are
+// delivered before shutdown.
+@Component
+public class OrderEventPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventPipeline.class);
+
+    private final List<Worker<?>> workers = new ArrayList<>();
+    private final long shutdownTimeoutMs;
+
+    public OrderEventPipeline(List<OrderEventConsumer<?>> consumers, MeterRegistry meterRegistry,
+                              Environment environment) {
+        this.shutdownTimeoutMs = environment.getProperty("ldms.pipeline.shutdown-timeout-ms", Long.class, 10_000L);
+        for (OrderEventConsumer<?> consumer : consumers) {
+            workers.add(new Worker<>(consumer, environment, meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        workers.forEach(Worker::start);
+    }
+
+    // Inside a transaction the event is queued only once it commits, so a rolled-back write
+    // has no side effects.
+    public void publish(Object event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(Object event) {
+        for (Worker<?> worker : workers) {
+            worker.offer(event);
+        }
+    }
+
+    // Returns once every event published before the call has been handled (or
+    // ldms.pipeline.shutdown-timeout-ms has passed)
+    public void flush() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Worker<?> worker : workers) {
+            worker.awaitIdle(deadline);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        workers.forEach(Worker::stop);
+    }
+
+    private static final class Worker<E> {
+        private final OrderEventConsumer<E> consumer;
+        private final String name;
+        private final BlockingQueue<Envelope<E>> queue;
+        private final int batchSize;
+        private final int maxAttempts;
+        private final long retryBackoffMs;
+        private final long offerTimeoutMs;
+        private final long pollIntervalMs;
+        private final ExecutorService executor;
+        // Queued plus being handled; awaitIdle() waits for it to reach zero
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Object idle = new Object();
+        // Publish time of the oldest event in the batch being handled, 0 when there is none
+        private volatile long handlingSince;
+        private volatile boolean running;
+        private final Counter processed;
+        private final Counter retried;
+        private final Counter failed;
+        private final Counter inline;
+        private final Timer delay;
+
+        private Worker(OrderEventConsumer<E> consumer, Environment environment, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.name = consumer.getName();
+            this.queue = new ArrayBlockingQueue<>(setting(environment, "queue-capacity", 10_000L).intValue());
+            this.batchSize = setting(environment, "batch-size", 100L).intValue();
+            this.maxAttempts = setting(environment, "max-attempts", 5L).intValue();
+            this.retryBackoffMs = setting(environment, "retry-backoff-ms", 200L);
+            this.offerTimeoutMs = setting(environment, "offer-timeout-ms", 50L);
+            this.pollIntervalMs = setting(environment, "poll-interval-ms", 200L);
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-events-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.processed = counter(meterRegistry, "processed", "Events handled");
+            this.retried = counter(meterRegistry, "retried", "Events in a batch that failed and was retried");
+            this.failed = counter(meterRegistry, "failed", "Events given up on after the last attempt");
+            this.inline = counter(meterRegistry, "inline", "Events handled on the publisher's thread because the queue was full");
+            this.delay = Timer.builder("ldms.pipeline.delay")
+                    .description("Time from publish (i.e. commit) until the consumer handled the event")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            Gauge.builder("ldms.pipeline.queued", queue, BlockingQueue::size)
+                    .description("Events waiting for the consumer")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            Gauge.builder("ldms.pipeline.lag", this, Worker::lagSeconds)
+                    .description("Age of the oldest event the consumer has not finished")
+                    .tag("consumer", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        private Long setting(Environment environment, String key, Long defaultValue) {
+            Long shared = environment.getProperty("ldms.pipeline." + key, Long.class, defaultValue);
+            return environment.getProperty("ldms.pipeline." + name + "." + key, Long.class, shared);
+        }
+
+        private Counter counter(MeterRegistry meterRegistry, String result, String description) {
+            return Counter.builder("ldms.pipeline.events")
+                    .description(description)
+                    .tags("consumer", name, "result", result)
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            running = true;
+            executor.execute(this::drainLoop);
+        }
+
+        void offer(Object event) {
+            if (!consumer.getEventType().isInstance(event)) {
+                return;
+            }
+            Envelope<E> envelope = new Envelope<>(consumer.getEventType().cast(event), System.nanoTime());
+            if (running) {
+                inFlight.incrementAndGet();
+                try {
+                    if (queue.offer(envelope, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                completed(1);
+            }
+            // Queue full (or pipeline stopped): one attempt on the caller's thread
+            inline.increment();
+            handle(List.of(envelope), 1);
+        }
+
+        private void drainLoop() {
+            List<Envelope<E>> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    Envelope<E> first = queue.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    handlingSince = first.publishedAt;
+                    handle(batch, maxAttempts);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    handlingSince = 0;
+                    completed(batch.size());
+                    batch.clear();
+                }
+            }
+        }
+
+        private void handle(List<Envelope<E>> batch, int attempts) {
+            List<E> events = new ArrayList<>(batch.size());
+            batch.forEach(envelope -> events.add(envelope.event));
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    consumer.accept(events);
+                    long now = System.nanoTime();
+                    batch.forEach(envelope -> delay.record(now - envelope.publishedAt, TimeUnit.NANOSECONDS));
+                    processed.increment(batch.size());
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= attempts || !backOff(attempt)) {
+                        failed.increment(batch.size());
+                        log.error("Order event consumer {} gave up on {} events after {} attempts",
+                                name, batch.size(), attempt, e);
+                        return;
+                    }
+                    retried.increment(batch.size());
+                    log.warn("Order event consumer {} failed on attempt {}, retrying: {}", name, attempt, e.toString());
+                }
+            }
+        }
+
+        // False when interrupted, i.e. the pipeline is shutting down
+        private boolean backOff(int attempt) {
+            try {
+                Thread.sleep(retryBackoffMs << Math.min(attempt - 1, 10));
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void completed(int events) {
+            if (events > 0 && inFlight.addAndGet(-events) == 0) {
+                synchronized (idle) {
+                    idle.notifyAll();
+                }
+            }
+        }
+
+        void awaitIdle(long deadline) {
+            synchronized (idle) {
+                long remaining;
+                while (inFlight.get() > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(idle, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+            executor.shutdownNow();
+            int left = queue.size();
+            if (left > 0) {
+                log.warn("Order event consumer {} stopped with {} events undelivered", name, left);
+            }
+        }
+
+        double lagSeconds() {
+            long oldest = handlingSince;
+            if (oldest == 0) {
+                Envelope<E> head = queue.peek();
+                if (head == null) {
+                    return 0;
+                }
+                oldest = head.publishedAt;
+            }
+            return (System.nanoTime() - oldest) / 1e9;
+        }
+    }
+
+    private static final class Envelope<E> {
+        private final E event;
+        private final long publishedAt;
+
+        private Envelope(E event, long publishedAt) {
+            this.event = event;
+            this.publishedAt = publishedAt;
+        }
+    }
+}
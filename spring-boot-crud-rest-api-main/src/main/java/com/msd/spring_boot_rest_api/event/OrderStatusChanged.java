@@ -0,0 +1,69 @@
+package com.msd.spring_boot_rest_api.event;
+
+import java.time.LocalDateTime;
+
+// Published by OrderService for every committed status transition
+public final class OrderStatusChanged {
+    private final Long orderId;
+    private final Long driverId;
+    private final String previousStatus;
+    private final String status;
+    // False when the stage had already been completed before (e.g. a re-applied status)
+    private final boolean stageNewlyCompleted;
+    private final LocalDateTime time;
+    // When the order entered previousStatus; null if it had none
+    private final LocalDateTime previousTime;
+    // Geocoded delivery address, null if not geocoded
+    private final Double deliveryLatitude;
+    private final Double deliveryLongitude;
+
+    public OrderStatusChanged(Long orderId, Long driverId, String previousStatus, String status,
+                              boolean stageNewlyCompleted, LocalDateTime time, LocalDateTime previousTime,
+                              Double deliveryLatitude, Double deliveryLongitude) {
+        this.orderId = orderId;
+        this.driverId = driverId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.stageNewlyCompleted = stageNewlyCompleted;
+        this.time = time;
+        this.previousTime = previousTime;
+        this.deliveryLatitude = deliveryLatitude;
+        this.deliveryLongitude = deliveryLongitude;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isStageNewlyCompleted() {
+        return stageNewlyCompleted;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public LocalDateTime getPreviousTime() {
+        return previousTime;
+    }
+
+    public Double getDeliveryLatitude() {
+        return deliveryLatitude;
+    }
+
+    public Double getDeliveryLongitude() {
+        return deliveryLongitude;
+    }
+}
@@ -0,0 +1,26 @@
+package com.msd.spring_boot_rest_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The order is not in a status the requested one may follow (or another request moved it first)
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private final String currentStatus;
+    private final String requestedStatus;
+
+    public InvalidStatusTransitionException(Long orderId, String currentStatus, String requestedStatus) {
+        super("Order " + orderId + " cannot move from '" + currentStatus + "' to '" + requestedStatus + "'");
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public String getRequestedStatus() {
+        return requestedStatus;
+    }
+}
@@ -1,8 +1,15 @@
 package com.msd.spring_boot_rest_api.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.msd.spring_boot_rest_api.search.CustomerIndexingListener;
 
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -12,6 +19,12 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
 @Entity
+// Second-level cached, see SecondLevelCacheConfig
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
+// Keeps the typeahead index (CustomerSearchIndex) current
+@EntityListeners(CustomerIndexingListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // lazy proxies on Order
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +48,13 @@ public class Customer {
     @Column(name = "customer_phone", nullable = false)
     private String customerPhone;
 
+    // Geocoded delivery address (WGS84 degrees); null if the address was not geocoded
+    @Column(name = "customer_latitude", nullable = true)
+    private Double latitude;
+
+    @Column(name = "customer_longitude", nullable = true)
+    private Double longitude;
+
     @Enumerated(EnumType.STRING) // store enum name as string ("USER", "ADMIN", etc.)
     @Column(name = "role", nullable = false)
     private Role role;
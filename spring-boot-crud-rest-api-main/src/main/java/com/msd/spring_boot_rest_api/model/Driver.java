@@ -1,5 +1,6 @@
 package com.msd.spring_boot_rest_api.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -7,9 +8,17 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 
 @Entity
+// Reference data, rarely written: served from the second-level cache (SecondLevelCacheConfig)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "drivers")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // lazy proxies on Order
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,5 +40,12 @@ public class Driver {
     @Column(name = "driver_location", nullable = true)
     private String location;
 
+    // Last known position (WGS84 degrees), used for proximity-based assignment
+    @Column(name = "driver_latitude", nullable = true)
+    private Double latitude;
+
+    @Column(name = "driver_longitude", nullable = true)
+    private Double longitude;
+
 
 }
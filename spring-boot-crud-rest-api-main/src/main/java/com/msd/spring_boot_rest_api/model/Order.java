@@ -1,28 +1,43 @@
 package com.msd.spring_boot_rest_api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Backs the keyset-paginated today/past/upcoming views in OrderRepository
+        @Index(name = "idx_orders_processing_time", columnList = "processing_time, order_id"),
+        // Delta sync: GET /api/orders/changes reads the orders written after a watermark
+        @Index(name = "idx_orders_change_seq", columnList = "change_seq"),
+        // Due-soon and overdue views: open orders in ETA order
+        @Index(name = "idx_orders_open_eta", columnList = "delivered_completed, estimated_delivery, order_id"),
+        // Status views: IN (...) over status, each status walked in processing-time order
+        @Index(name = "idx_orders_status_processing", columnList = "status, processing_time, order_id")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "order_id")
     private Long id;
 
+    // OrderStatusCode; getStatus()/setStatus() convert to and from the label the API uses
     @Column(name = "status", nullable = false)
-    private String status;
+    private Byte statusCode;
 
     @Column(name = "estimated_delivery", nullable = false)
-    private String estimatedDelivery;
+    private LocalDateTime estimatedDelivery;
 
-    @ManyToOne
+    // LAZY so a plain select never drags in customer/driver rows one at a time;
+    // list queries in OrderRepository fetch them in the same statement instead.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn
     (name = "customer_id", nullable = false)
     private Customer customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id",nullable = true)
     private Driver driver;
 
@@ -55,6 +70,11 @@ public class Order {
     })
     private OrderStage orderDelivered = new OrderStage();
 
+    // Number from OrderChangeLog, renewed on every write through OrderService. Rows inserted
+    // elsewhere start at 0 until OrderChangeLog stamps them.
+    @Column(name = "change_seq", nullable = false, columnDefinition = "bigint default 0")
+    private long changeSeq;
+
 
 
 
@@ -67,15 +87,22 @@ public class Order {
 
 }
     public String getStatus() {
-        return status;
+        return OrderStatusCode.labelOf(statusCode);
     }
     public void setStatus(String status) {
-        this.status = status;
+        this.statusCode = OrderStatusCode.codeOf(status);
+    }
+    @JsonIgnore
+    public Byte getStatusCode() {
+        return statusCode;
+    }
+    public void setStatusCode(Byte statusCode) {
+        this.statusCode = statusCode;
     }
-    public String getEstimatedDelivery() {
+    public LocalDateTime getEstimatedDelivery() {
         return estimatedDelivery;
     }
-    public void setEstimatedDelivery(String estimatedDelivery) {
+    public void setEstimatedDelivery(LocalDateTime estimatedDelivery) {
         this.estimatedDelivery = estimatedDelivery;
     }
     public Customer getCustomer() {
@@ -125,5 +152,13 @@ public class Order {
         this.orderDelivered = orderDelivered;
     }
 
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
     // Other fields like status, estimatedDelivery, customer, etc. not shown
 }   
@@ -2,8 +2,14 @@ package com.msd.spring_boot_rest_api.model;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
+// One row per status transition, appended by OrderStatusHistoryWriter
 @Entity
-@Table(name = "order_status")
+@Table(name = "order_status", indexes = {
+        // An order's history in time order
+        @Index(name = "idx_order_status_order_time", columnList = "order_id, time")
+})
 public class OrderStatus {
 
     @Id
@@ -15,7 +21,7 @@ public class OrderStatus {
     private String status;
 
     @Column(name = "time", nullable = false)
-    private String time; // Consider using LocalDateTime for real timestamps
+    private LocalDateTime time;
 
     @Column(name = "completed", nullable = false)
     private boolean completed;
@@ -45,11 +51,11 @@ public class OrderStatus {
         this.status = status;
     }
 
-    public String getTime() {
+    public LocalDateTime getTime() {
         return time;
     }
 
-    public void setTime(String time) {
+    public void setTime(LocalDateTime time) {
         this.time = time;
     }
 
@@ -0,0 +1,54 @@
+package com.msd.spring_boot_rest_api.model;
+
+// The four order statuses, stored in orders.status as a one-byte code. The API keeps
+// using the labels. Codes follow the order of the stages and must never be renumbered.
+public enum OrderStatusCode {
+    PLACED((byte) 1, "Order Placed"),
+    PROCESSING((byte) 2, "Order Processing"),
+    OUT_FOR_DELIVERY((byte) 3, "Out for Delivery"),
+    DELIVERED((byte) 4, "Order Delivered");
+
+    private static final OrderStatusCode[] BY_CODE = values();
+
+    private final byte code;
+    private final String label;
+
+    OrderStatusCode(byte code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Labels match case-insensitively, as the old string filters did
+    public static OrderStatusCode fromLabel(String label) {
+        for (OrderStatusCode status : BY_CODE) {
+            if (status.label.equalsIgnoreCase(label)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid status: " + label);
+    }
+
+    public static OrderStatusCode fromCode(byte code) {
+        if (code < 1 || code > BY_CODE.length) {
+            throw new IllegalArgumentException("Invalid status code: " + code);
+        }
+        return BY_CODE[code - 1];
+    }
+
+    // Null-safe conversions for the nullable entity field
+    public static Byte codeOf(String label) {
+        return label == null ? null : fromLabel(label).code;
+    }
+
+    public static String labelOf(Byte code) {
+        return code == null ? null : fromCode(code).label;
+    }
+}
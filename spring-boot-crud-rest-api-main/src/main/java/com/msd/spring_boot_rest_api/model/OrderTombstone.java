@@ -0,0 +1,44 @@
+package com.msd.spring_boot_rest_api.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Left behind by OrderService.deleteOrder so delta-sync clients learn the order is gone
+@Entity
+@Table(name = "order_tombstones", indexes = {
+        @Index(name = "idx_order_tombstones_change_seq", columnList = "change_seq")
+})
+public class OrderTombstone {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public OrderTombstone() {
+    }
+
+    public OrderTombstone(Long orderId, long changeSeq, LocalDateTime deletedAt) {
+        this.orderId = orderId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.msd.spring_boot_rest_api.repository;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // (customerId, name, email, phone) after the given id, for rebuilding CustomerSearchIndex
+    // in keyset batches without hydrating (and second-level caching) every customer
+    @Query("select c.customerId, c.customerName, c.customerEmail, c.customerPhone from Customer c "
+            + "where c.customerId > :afterId order by c.customerId")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") long afterId, Limit limit);
+}
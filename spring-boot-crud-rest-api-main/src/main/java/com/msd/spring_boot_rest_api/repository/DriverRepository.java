@@ -2,13 +2,36 @@ package com.msd.spring_boot_rest_api.repository;
 
 import com.msd.spring_boot_rest_api.model.Driver;
 
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface DriverRepository extends JpaRepository<Driver, Long> {
 
     Optional<Driver> findFirstByOrderByDriverIdAsc();
 
+    // Driver list from the query cache; any JPA write to drivers invalidates it
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "driver-queries")
+    })
+    List<Driver> findAll();
+
+    // Ids only, for seeding DriverAvailabilityIndex without hydrating every driver. Not
+    // query-cached: the periodic rebuild exists to see drivers added outside the API.
+    @Query("select d.driverId from Driver d")
+    List<Long> findAllDriverIds();
+
+    // (driverId, latitude, longitude) for every driver with a known position, for SpatialGridIndex
+    @Query("select d.driverId, d.latitude, d.longitude from Driver d "
+            + "where d.latitude is not null and d.longitude is not null")
+    List<Object[]> findAllDriverPositions();
+
     // You can later add methods like `findByAvailableTrue()` if needed
 }
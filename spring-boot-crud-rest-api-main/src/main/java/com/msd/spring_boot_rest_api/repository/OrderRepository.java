@@ -1,7 +1,231 @@
 package com.msd.spring_boot_rest_api.repository;
 
+import com.msd.spring_boot_rest_api.dto.OrderSummary;
+import com.msd.spring_boot_rest_api.model.Driver;
 import com.msd.spring_boot_rest_api.model.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderTransitionRepository {
+
+    // Rows pulled per JDBC round trip for list queries; matches the largest page we serve.
+    String LIST_FETCH_SIZE = "501";
+
+    // customer and driver are LAZY on Order; every read that returns entities to the API
+    // loads them through this graph so a page of orders is one statement, not 1 + N.
+
+    @Override
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    Optional<Order> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    List<Order> findAll();
+
+    // Status transitions read the order once, read-only: changes made to the entity before
+    // the compare-and-set below are never flushed by dirty checking.
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findForTransition(@Param("id") long id);
+
+    // Same for batch status updates: one IN select, with the customer needed for
+    // nearest-driver assignment and the driver needed for release on delivery.
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o where o.id in :ids")
+    List<Order> findAllForTransition(@Param("ids") Collection<Long> ids);
+
+    // Deletion locks the order row first: a history row queued for it then waits for the
+    // delete and fails its foreign key, instead of landing between the history delete and
+    // the order delete.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findForDeletion(@Param("id") long id);
+
+    @Query("select o.statusCode from Order o where o.id = :id")
+    Optional<Byte> findStatusCodeById(@Param("id") long id);
+
+    // Compare-and-set transition: one UPDATE that applies only while the order is still in
+    // the status the move starts from, so two requests cannot both make it and a stale read
+    // never overwrites a newer stage. Sets status, driver, estimated delivery and change
+    // sequence, and marks the stage named by the new status completed at stageTime. Status
+    // parameters are OrderStatusCode codes, 1 to 4 in stage order; nothing moves an order to
+    // 1 (placed), so only stages 2 to 4 are stamped. Returns 0 if the guard failed.
+    String TRANSITION_UPDATE = "update Order o set o.changeSeq = :changeSeq, "
+            + "o.statusCode = :status, o.driver = :driver, "
+            + "o.estimatedDelivery = :estimatedDelivery, "
+            + "o.orderProcessing.timestamp = case when :status = 2 "
+            + "then :stageTime else o.orderProcessing.timestamp end, "
+            + "o.orderProcessing.completed = case when :status = 2 "
+            + "then true else o.orderProcessing.completed end, "
+            + "o.orderOutForDelivery.timestamp = case when :status = 3 "
+            + "then :stageTime else o.orderOutForDelivery.timestamp end, "
+            + "o.orderOutForDelivery.completed = case when :status = 3 "
+            + "then true else o.orderOutForDelivery.completed end, "
+            + "o.orderDelivered.timestamp = case when :status = 4 "
+            + "then :stageTime else o.orderDelivered.timestamp end, "
+            + "o.orderDelivered.completed = case when :status = 4 "
+            + "then true else o.orderDelivered.completed end "
+            + "where o.id = :id and ";
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(TRANSITION_UPDATE + "o.statusCode = :expectedStatus")
+    int compareAndSetStatus(@Param("id") long id,
+                            @Param("expectedStatus") byte expectedStatus,
+                            @Param("status") byte status,
+                            @Param("driver") Driver driver,
+                            @Param("estimatedDelivery") LocalDateTime estimatedDelivery,
+                            @Param("stageTime") LocalDateTime stageTime,
+                            @Param("changeSeq") long changeSeq);
+
+    // Keyset pagination: each page starts strictly after the sort key of the previous
+    // page's last row, so page N costs the same as page 1 (no OFFSET scan, no COUNT).
+
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o where o.id > :afterId order by o.id")
+    List<Order> findPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Date-bucket views walk idx_orders_processing_time in (processing_time, order_id) order.
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o "
+            + "where o.orderProcessing.timestamp >= :from and o.orderProcessing.timestamp < :to "
+            + "and (o.orderProcessing.timestamp > :afterTime "
+            + "or (o.orderProcessing.timestamp = :afterTime and o.id > :afterId)) "
+            + "order by o.orderProcessing.timestamp, o.id")
+    List<Order> findProcessingPageAfter(@Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("afterTime") LocalDateTime afterTime,
+                                        @Param("afterId") long afterId,
+                                        Limit limit);
+
+    // Due-soon and overdue views: undelivered orders with an ETA in [from, to), walking
+    // idx_orders_open_eta in (estimated_delivery, order_id) order.
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o "
+            + "where o.orderDelivered.completed = false "
+            + "and o.estimatedDelivery >= :from and o.estimatedDelivery < :to "
+            + "and (o.estimatedDelivery > :afterTime "
+            + "or (o.estimatedDelivery = :afterTime and o.id > :afterId)) "
+            + "order by o.estimatedDelivery, o.id")
+    List<Order> findOpenByEtaPageAfter(@Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to,
+                                       @Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") long afterId,
+                                       Limit limit);
+
+    // Status views: orders in any of the given status codes, walking
+    // idx_orders_status_processing in (status, processing_time, order_id) order. Placed
+    // orders have no processing time yet; MySQL and H2 both sort NULL first, so they lead
+    // their status and a page that ends on one continues with findStatusPageAfterUnprocessed.
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o "
+            + "where o.statusCode in :statuses "
+            + "and (o.statusCode > :afterStatus "
+            + "or (o.statusCode = :afterStatus and (o.orderProcessing.timestamp > :afterTime "
+            + "or (o.orderProcessing.timestamp = :afterTime and o.id > :afterId)))) "
+            + "order by o.statusCode, o.orderProcessing.timestamp, o.id")
+    List<Order> findStatusPageAfter(@Param("statuses") List<Byte> statuses,
+                                    @Param("afterStatus") byte afterStatus,
+                                    @Param("afterTime") LocalDateTime afterTime,
+                                    @Param("afterId") long afterId,
+                                    Limit limit);
+
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o "
+            + "where o.statusCode in :statuses "
+            + "and (o.statusCode > :afterStatus "
+            + "or (o.statusCode = :afterStatus and (o.orderProcessing.timestamp is not null "
+            + "or o.id > :afterId))) "
+            + "order by o.statusCode, o.orderProcessing.timestamp, o.id")
+    List<Order> findStatusPageAfterUnprocessed(@Param("statuses") List<Byte> statuses,
+                                               @Param("afterStatus") byte afterStatus,
+                                               @Param("afterId") long afterId,
+                                               Limit limit);
+
+    // Delta sync: orders written after a watermark, in the order they were written. Walks
+    // idx_orders_change_seq.
+    @EntityGraph(attributePaths = {"customer", "driver"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o where o.changeSeq > :since and o.changeSeq <= :upTo order by o.changeSeq")
+    List<Order> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Limit limit);
+
+    @Query("select coalesce(max(o.changeSeq), 0) from Order o")
+    long findMaxChangeSeq();
+
+    // Orders inserted outside the application, which have no change sequence yet
+    @Query("select o.id from Order o where o.changeSeq = 0 order by o.id")
+    List<Long> findUnstampedIds(Limit limit);
+
+    // Gives each unstamped order in [minId, maxId] the number id + offset
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Order o set o.changeSeq = o.id + :offset "
+            + "where o.changeSeq = 0 and o.id between :minId and :maxId")
+    int stampChangeSeq(@Param("minId") long minId, @Param("maxId") long maxId, @Param("offset") long offset);
+
+    // Summary projection for list screens: a single joined select of the rendered columns.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = LIST_FETCH_SIZE))
+    @Query("select new com.msd.spring_boot_rest_api.dto.OrderSummary("
+            + "o.id, o.statusCode, o.estimatedDelivery, c.customerName, d.driverName, "
+            + "o.orderPlaced.timestamp, o.orderProcessing.timestamp, "
+            + "o.orderOutForDelivery.timestamp, o.orderDelivered.timestamp) "
+            + "from Order o join o.customer c left join o.driver d "
+            + "where o.id > :afterId order by o.id")
+    List<OrderSummary> findSummaryPageAfter(@Param("afterId") long afterId, Limit limit);
+
+    // One GROUP BY for the dashboard counters: per status, the number of orders and how
+    // many of them have completed each of the four stages.
+    @Query("select o.statusCode, count(o), "
+            + "sum(case when o.orderPlaced.completed = true then 1 else 0 end), "
+            + "sum(case when o.orderProcessing.completed = true then 1 else 0 end), "
+            + "sum(case when o.orderOutForDelivery.completed = true then 1 else 0 end), "
+            + "sum(case when o.orderDelivered.completed = true then 1 else 0 end) "
+            + "from Order o group by o.statusCode")
+    List<Object[]> countByStatusWithStages();
+
+    // Active (assigned, not yet delivered) orders per driver, for DriverAvailabilityIndex
+    @Query("select o.driver.driverId, count(o) from Order o "
+            + "where o.driver is not null and o.orderDelivered.completed = false "
+            + "group by o.driver.driverId")
+    List<Object[]> countActiveOrdersByDriver();
 }
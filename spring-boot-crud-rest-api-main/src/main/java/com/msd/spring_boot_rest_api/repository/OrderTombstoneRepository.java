@@ -0,0 +1,20 @@
+package com.msd.spring_boot_rest_api.repository;
+
+import com.msd.spring_boot_rest_api.model.OrderTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OrderTombstoneRepository extends JpaRepository<OrderTombstone, Long> {
+
+    // Deletions after a watermark, in the order they happened
+    @Query("select t from OrderTombstone t where t.changeSeq > :since and t.changeSeq <= :upTo "
+            + "order by t.changeSeq")
+    List<OrderTombstone> findBetween(@Param("since") long since, @Param("upTo") long upTo, Limit limit);
+
+    @Query("select coalesce(max(t.changeSeq), 0) from OrderTombstone t")
+    long findMaxChangeSeq();
+}
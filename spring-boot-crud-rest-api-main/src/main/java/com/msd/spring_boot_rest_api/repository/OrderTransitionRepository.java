@@ -0,0 +1,17 @@
+package com.msd.spring_boot_rest_api.repository;
+
+import com.msd.spring_boot_rest_api.model.Order;
+
+import java.util.List;
+
+// Batch form of OrderRepository.compareAndSetStatus, kept in plain JDBC so the whole batch
+// goes to the database as one JDBC batch.
+public interface OrderTransitionRepository {
+
+    // Writes the transition already applied to each order in memory (driver, estimated
+    // delivery, change sequence and the stage named by status), but only for orders still in
+    // expectedStatus. Status parameters are OrderStatusCode codes. Returns one update count
+    // per order, in the same order: 1 if the order was updated, 0 if the guard failed, also
+    // when the driver itself reports no counts.
+    int[] compareAndSetStatuses(List<Order> orders, byte expectedStatus, byte status);
+}
@@ -0,0 +1,106 @@
+package com.msd.spring_boot_rest_api.repository;
+
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStage;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Picked up by Spring Data as the implementation of the OrderTransitionRepository fragment
+class OrderTransitionRepositoryImpl implements OrderTransitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OrderTransitionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] compareAndSetStatuses(List<Order> orders, byte expectedStatus, byte status) {
+        if (orders.isEmpty()) {
+            return new int[0];
+        }
+        OrderStatusCode target = OrderStatusCode.fromCode(status);
+        String stage = stageColumn(target);
+        String sql = "UPDATE orders SET status = ?, driver_id = ?, estimated_delivery = ?, change_seq = ?, "
+                + stage + "_time = ?, " + stage + "_completed = true "
+                + "WHERE order_id = ? AND status = ?";
+        int[] counts = jdbcTemplate.batchUpdate(sql, orders, orders.size(), (ps, order) -> {
+            ps.setByte(1, status);
+            if (order.getDriver() == null) {
+                ps.setNull(2, Types.BIGINT);
+            } else {
+                ps.setLong(2, order.getDriver().getDriverId());
+            }
+            ps.setTimestamp(3, timestamp(order.getEstimatedDelivery()));
+            ps.setLong(4, order.getChangeSeq());
+            ps.setTimestamp(5, timestamp(stage(order, target).getTimestamp()));
+            ps.setLong(6, order.getId());
+            ps.setByte(7, expectedStatus);
+        })[0];
+        recheckUnknownCounts(orders, status, counts);
+        return counts;
+    }
+
+    // A driver that rewrites the batch into one multi-row statement (MySQL with
+    // rewriteBatchedStatements=true) reports SUCCESS_NO_INFO instead of a count. Those rows
+    // are read back in one select: an order was updated if it now carries the new status and
+    // the change sequence written for it, which no other transaction can have set.
+    private void recheckUnknownCounts(List<Order> orders, byte status, int[] counts) {
+        List<Object> args = new ArrayList<>();
+        args.add(status);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                args.add(orders.get(i).getId());
+            }
+        }
+        if (args.size() == 1) {
+            return;
+        }
+        Map<Long, Long> changeSeqs = new HashMap<>();
+        jdbcTemplate.query("SELECT order_id, change_seq FROM orders WHERE status = ? AND order_id IN ("
+                        + String.join(", ", Collections.nCopies(args.size() - 1, "?")) + ")",
+                (RowCallbackHandler) rs -> changeSeqs.put(rs.getLong(1), rs.getLong(2)),
+                args.toArray());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                Order order = orders.get(i);
+                Long changeSeq = changeSeqs.get(order.getId());
+                counts[i] = changeSeq != null && changeSeq == order.getChangeSeq() ? 1 : 0;
+            }
+        }
+    }
+
+    // Nothing moves an order to PLACED; it is the status orders are created with
+    private static String stageColumn(OrderStatusCode status) {
+        return switch (status) {
+            case PROCESSING -> "processing";
+            case OUT_FOR_DELIVERY -> "out_for_delivery";
+            case DELIVERED -> "delivered";
+            case PLACED -> throw new IllegalArgumentException("No transition leads to " + status.getLabel());
+        };
+    }
+
+    private static OrderStage stage(Order order, OrderStatusCode status) {
+        return switch (status) {
+            case PROCESSING -> order.getOrderProcessing();
+            case OUT_FOR_DELIVERY -> order.getOrderOutForDelivery();
+            case DELIVERED -> order.getOrderDelivered();
+            case PLACED -> throw new IllegalArgumentException("No transition leads to " + status.getLabel());
+        };
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
@@ -0,0 +1,56 @@
+package com.msd.spring_boot_rest_api.search;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+// Applies JPA writes to customers to CustomerSearchIndex once they commit, so a rolled-back
+// change never shows up in suggestions. Hibernate creates it through Spring's bean container;
+// the index is looked up lazily because it needs CustomerRepository, which in turn needs the
+// EntityManagerFactory this listener is created for. Slices without the index (e.g.
+// @DataJpaTest) skip indexing.
+public class CustomerIndexingListener {
+
+    private final ObjectProvider<CustomerSearchIndex> searchIndex;
+
+    public CustomerIndexingListener(ObjectProvider<CustomerSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void saved(Customer customer) {
+        // Fields are read after commit, so several updates in one transaction index the last state
+        afterCommit(index -> index.update(customer.getCustomerId(), customer.getCustomerName(),
+                customer.getCustomerEmail(), customer.getCustomerPhone()));
+    }
+
+    @PostRemove
+    void removed(Customer customer) {
+        Long customerId = customer.getCustomerId();
+        afterCommit(index -> index.remove(customerId));
+    }
+
+    private void afterCommit(Consumer<CustomerSearchIndex> change) {
+        CustomerSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.accept(index);
+                }
+            });
+        } else {
+            change.accept(index);
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package com.msd.spring_boot_rest_api.search;
+
+import com.msd.spring_boot_rest_api.dto.CustomerSearchResult;
+import com.msd.spring_boot_rest_api.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Typeahead over customer name, email and phone. Each field is normalised (lower case,
+// accents stripped, phone reduced to its digits) and posted under every trigram it contains
+// and under the first one and two characters of each of its words. A query of three or more
+// characters intersects the posting lists of its trigrams, shortest first, and keeps the
+// customers that really contain it; a shorter one reads its word-prefix list. If that finds
+// fewer customers than asked for, fuzzy matches fill up the rest: customers with a substring
+// within one edit of the query (two from 10 characters on).
+//
+// Writes through JPA are applied once they commit (CustomerIndexingListener). A changed
+// customer is appended as a new document and the old one marked removed, so posting lists
+// stay sorted; the periodic rebuild compacts them and picks up rows written outside JPA.
+// Like the other in-memory indexes, it assumes a single application instance.
+@Component
+public class CustomerSearchIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    public static final int MAX_LIMIT = 50;
+    static final int MAX_QUERY_LENGTH = 64;
+    static final int FUZZY_MIN_LENGTH = 4;
+
+    private static final int FIELDS = 3; // name, email, phone
+    // Never part of a normalised query, which has its whitespace collapsed to single spaces
+    private static final char FIELD_SEPARATOR = '\n';
+    private static final int REBUILD_BATCH = 10_000;
+    // Fuzzy candidates are counted over the query's rarest trigrams, up to this many postings
+    // in all; common ones ("com", "gma") barely narrow them down and cost the most to count
+    private static final int FUZZY_POSTINGS_BUDGET = 200_000;
+
+    private static final int RANK_START = 0;
+    private static final int RANK_WORD = 1;
+    private static final int RANK_SUBSTRING = 2;
+    private static final int RANK_FUZZY = 3;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("[0-9+()./ -]*[0-9][0-9+()./ -]*");
+
+    private static final Comparator<Hit> BY_RELEVANCE = Comparator
+            .comparingInt((Hit hit) -> hit.rank)
+            .thenComparingInt(hit -> hit.distance)
+            .thenComparing(hit -> hit.name)
+            .thenComparingLong(hit -> hit.customerId);
+
+    private final CustomerRepository customerRepository;
+    private final int maxCandidates;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private Segment segment = new Segment();
+    // Writes applied while a rebuild reads the table, replayed onto the new segment before it
+    // is published (null value: removed); null when no rebuild is running. Guarded by lock.
+    private Map<Long, String[]> changedDuringRebuild;
+
+    // Per-customer counters for fuzzy candidates, zeroed and reused across queries: at a
+    // million customers a fresh one per query would be a megabyte of garbage each time
+    private final Queue<byte[]> counters = new ConcurrentLinkedQueue<>();
+
+    private volatile Timer searchTimer;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository,
+                               @Value("${ldms.customers.search.max-candidates:2000}") int maxCandidates) {
+        this.customerRepository = customerRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    // Full rebuild from the database: at startup and periodically, to compact the posting
+    // lists and pick up customers written outside JPA.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ldms.customers.search.refresh-interval-ms:300000}",
+            initialDelayString = "${ldms.customers.search.refresh-interval-ms:300000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = null;
+        try {
+            fresh = load();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (fresh != null) {
+                    Segment rebuilt = fresh;
+                    changedDuringRebuild.forEach((customerId, fields) -> {
+                        if (fields == null) {
+                            rebuilt.remove(customerId);
+                        } else {
+                            rebuilt.add(customerId, fields[0], fields[1], fields[2]);
+                        }
+                    });
+                    segment = rebuilt;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Customer search index rebuilt with {} customers", size());
+    }
+
+    private Segment load() {
+        Segment loaded = new Segment();
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = customerRepository.findSearchFieldsAfter(afterId, Limit.of(REBUILD_BATCH));
+            for (Object[] row : rows) {
+                afterId = ((Number) row[0]).longValue();
+                loaded.add(afterId, (String) row[1], (String) row[2], (String) row[3]);
+            }
+        } while (rows.size() == REBUILD_BATCH);
+        return loaded;
+    }
+
+    public void update(long customerId, String name, String email, String phone) {
+        lock.writeLock().lock();
+        try {
+            segment.add(customerId, name, email, phone);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(customerId, new String[] {name, email, phone});
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long customerId) {
+        lock.writeLock().lock();
+        try {
+            segment.remove(customerId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(customerId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit customers matching the query, best first: the query at the start of a
+    // field, then at the start of a word, anywhere, and last within the allowed edits.
+    public List<CustomerSearchResult> search(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String q = query == null ? "" : normaliseQuery(query);
+        if (q.isEmpty()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            TopHits top = new TopHits(limit);
+            matchExact(current, q, top);
+            if (!top.isFull() && q.length() >= FUZZY_MIN_LENGTH) {
+                matchFuzzy(current, q, top);
+            }
+            return top.best().stream().map(hit -> current.result(hit.doc)).toList();
+        } finally {
+            lock.readLock().unlock();
+            Timer timer = searchTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ldms.customers.search.indexed", this, CustomerSearchIndex::size)
+                .description("Customers in the typeahead index")
+                .register(registry);
+        searchTimer = Timer.builder("ldms.customers.search")
+                .description("Typeahead queries answered from the index")
+                .register(registry);
+    }
+
+    // Customers containing the query. At most maxCandidates of them are checked, in the
+    // order they were indexed, so a query matching more is ranked among those only.
+    private void matchExact(Segment current, String q, TopHits top) {
+        IntList[] lists;
+        if (q.length() < 3) {
+            IntList prefixed = current.grams.get(gram(q, 0, q.length()));
+            lists = prefixed == null ? null : new IntList[] {prefixed};
+        } else {
+            lists = current.postings(trigrams(q));
+        }
+        if (lists == null) {
+            return;
+        }
+        IntList shortest = lists[0];
+        int checked = 0;
+        for (int i = 0; i < shortest.size && checked < maxCandidates; i++) {
+            int doc = shortest.values[i];
+            if (current.removed.get(doc) || !containsAll(lists, doc)) {
+                continue;
+            }
+            checked++;
+            int rank = current.rank(doc, q);
+            if (rank >= 0) {
+                top.offer(new Hit(current, doc, rank, 0));
+            }
+        }
+    }
+
+    // Candidates for a fuzzy match share at least (n - 3 * edits) of any n of the query's
+    // trigrams, since one edit breaks at most three; those sharing the most are checked
+    // first, until the free slots are filled. Queries too short for that bound to mean
+    // anything check customers with a word starting with the query's first two characters.
+    // Either way fuzzy matches are best effort: at most maxCandidates are checked.
+    private void matchFuzzy(Segment current, String q, TopHits top) {
+        int maxEdits = q.length() >= 10 ? 2 : 1;
+
+        // Rarest first; a trigram nobody has still counts towards n
+        List<IntList> lists = new ArrayList<>();
+        for (long gram : trigrams(q)) {
+            lists.add(current.grams.getOrDefault(gram, new IntList()));
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        List<IntList> selective = new ArrayList<>();
+        long postings = 0;
+        for (IntList list : lists) {
+            postings += list.size;
+            if (postings > FUZZY_POSTINGS_BUDGET) {
+                break;
+            }
+            selective.add(list);
+        }
+        int counted = selective.size();
+        int needed = counted - 3 * maxEdits;
+
+        Checker checker = new Checker(current, q, maxEdits, top);
+        if (needed < 1) {
+            IntList prefixed = current.grams.get(gram(q, 0, 2));
+            for (int i = 0; prefixed != null && i < prefixed.size && !top.isFull() && checker.more(); i++) {
+                checker.check(prefixed.values[i]);
+            }
+            return;
+        }
+
+        // At most 62 trigrams, so a byte per customer holds the count
+        byte[] shared = counters.poll();
+        if (shared == null || shared.length < current.count) {
+            shared = new byte[current.count];
+        }
+        IntList[] byShared = new IntList[counted + 1];
+        try {
+            IntList reached = new IntList();
+            for (IntList list : selective) {
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.values[i];
+                    if (++shared[doc] == needed) {
+                        reached.add(doc);
+                    }
+                }
+            }
+            for (int i = 0; i < reached.size; i++) {
+                int doc = reached.values[i];
+                if (byShared[shared[doc]] == null) {
+                    byShared[shared[doc]] = new IntList();
+                }
+                byShared[shared[doc]].add(doc);
+            }
+        } finally {
+            for (IntList list : selective) {
+                for (int i = 0; i < list.size; i++) {
+                    shared[list.values[i]] = 0;
+                }
+            }
+            counters.offer(shared);
+        }
+        for (int count = counted; count >= needed && !top.isFull() && checker.more(); count--) {
+            IntList group = byShared[count];
+            for (int i = 0; group != null && i < group.size && checker.more(); i++) {
+                checker.check(group.values[i]);
+            }
+        }
+    }
+
+    private static boolean containsAll(IntList[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].values, 0, lists[i].size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String normaliseText(String value) {
+        if (value == null) {
+            return "";
+        }
+        String unaccented = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(unaccented.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static String normalisePhone(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    // A query that looks like a phone number ("555-01", "(555) 0") is matched by its digits
+    static String normaliseQuery(String query) {
+        String text = normaliseText(query);
+        return PHONE_LIKE.matcher(text).matches() ? normalisePhone(text) : text;
+    }
+
+    // Fewest edits (insertions, deletions, substitutions) turning the query into some
+    // substring of the text; anything above max is reported as max + 1.
+    static int substringDistance(String query, String text, int max) {
+        return new FuzzyPattern(query).distance(text, max);
+    }
+
+    private static boolean isWordStart(String key, int at) {
+        return Character.isLetterOrDigit(key.charAt(at))
+                && (at == 0 || !Character.isLetterOrDigit(key.charAt(at - 1)));
+    }
+
+    private static Set<Long> trigrams(String key) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            grams.add(gram(key, i, 3));
+        }
+        return grams;
+    }
+
+    // The characters and their count packed into one key; 1- and 2-character keys only
+    // ever come from word starts, 3-character ones from anywhere
+    private static long gram(String key, int from, int length) {
+        long gram = length;
+        for (int i = from; i < from + length; i++) {
+            gram = (gram << 16) | key.charAt(i);
+        }
+        return gram;
+    }
+
+    // Documents are numbered in the order they are added; a customer's latest document is
+    // in docs, earlier ones are in removed.
+    private static final class Segment {
+        final Map<Long, Integer> docs = new HashMap<>();
+        final Map<Long, IntList> grams = new HashMap<>();
+        final BitSet removed = new BitSet();
+        long[] customerIds = new long[1024];
+        // FIELDS entries per document, as stored
+        String[] stored = new String[1024 * FIELDS];
+        // One per document: the normalised fields joined by FIELD_SEPARATOR
+        String[] keys = new String[1024];
+        int count;
+
+        void add(long customerId, String name, String email, String phone) {
+            Integer previous = docs.get(customerId);
+            if (previous != null) {
+                int at = previous * FIELDS;
+                if (Objects.equals(stored[at], name) && Objects.equals(stored[at + 1], email)
+                        && Objects.equals(stored[at + 2], phone)) {
+                    return; // e.g. only the address changed
+                }
+                remove(customerId);
+            }
+            int doc = count++;
+            if (doc == customerIds.length) {
+                customerIds = Arrays.copyOf(customerIds, doc * 2);
+                stored = Arrays.copyOf(stored, doc * 2 * FIELDS);
+                keys = Arrays.copyOf(keys, doc * 2);
+            }
+            int at = doc * FIELDS;
+            customerIds[doc] = customerId;
+            stored[at] = name;
+            stored[at + 1] = email;
+            stored[at + 2] = phone;
+            keys[doc] = normaliseText(name) + FIELD_SEPARATOR + normaliseText(email)
+                    + FIELD_SEPARATOR + normalisePhone(phone);
+            post(keys[doc], doc);
+            docs.put(customerId, doc);
+        }
+
+        void remove(long customerId) {
+            Integer doc = docs.remove(customerId);
+            if (doc != null) {
+                removed.set(doc);
+            }
+        }
+
+        private void post(String key, int doc) {
+            for (int i = 0; i < key.length(); i++) {
+                if (i + 3 <= key.length()) {
+                    posting(gram(key, i, 3)).addOnce(doc);
+                }
+                if (isWordStart(key, i)) {
+                    posting(gram(key, i, 1)).addOnce(doc);
+                    if (i + 2 <= key.length()) {
+                        posting(gram(key, i, 2)).addOnce(doc);
+                    }
+                }
+            }
+        }
+
+        private IntList posting(long gram) {
+            return grams.computeIfAbsent(gram, key -> new IntList());
+        }
+
+        // Posting lists of the given grams, shortest first; null if any gram is unknown
+        IntList[] postings(Set<Long> wanted) {
+            IntList[] lists = new IntList[wanted.size()];
+            int i = 0;
+            for (long gram : wanted) {
+                IntList list = grams.get(gram);
+                if (list == null) {
+                    return null;
+                }
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            return lists;
+        }
+
+        // Best rank of the query in the document, or -1 if it does not contain the query
+        int rank(int doc, String q) {
+            String key = keys[doc];
+            int best = -1;
+            for (int at = key.indexOf(q); at >= 0 && best != RANK_START; at = key.indexOf(q, at + 1)) {
+                int rank = at == 0 || key.charAt(at - 1) == FIELD_SEPARATOR ? RANK_START
+                        : isWordStart(key, at) ? RANK_WORD : RANK_SUBSTRING;
+                if (best < 0 || rank < best) {
+                    best = rank;
+                }
+            }
+            return best;
+        }
+
+        CustomerSearchResult result(int doc) {
+            int at = doc * FIELDS;
+            return new CustomerSearchResult(customerIds[doc], stored[at], stored[at + 1], stored[at + 2]);
+        }
+    }
+
+    // Growable sorted list of document numbers
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = doc;
+        }
+
+        // Documents are posted in increasing order, so a repeat is always the last entry
+        void addOnce(int doc) {
+            if (size == 0 || values[size - 1] != doc) {
+                add(doc);
+            }
+        }
+    }
+
+    // Myers' bit-parallel edit distance from a query of up to 64 characters to the closest
+    // substring of a text: one pass over the text, a few word operations per character.
+    static final class FuzzyPattern {
+        private final String query;
+        private final long[] ascii = new long[128];
+        private final long last;
+
+        FuzzyPattern(String query) {
+            this.query = query;
+            for (int i = 0; i < query.length(); i++) {
+                char c = query.charAt(i);
+                if (c < 128) {
+                    ascii[c] |= 1L << i;
+                }
+            }
+            last = 1L << (query.length() - 1);
+        }
+
+        int distance(String text, int max) {
+            long plus = -1L; // vertical deltas of the current column: +1 ...
+            long minus = 0L; // ... and -1
+            int score = query.length();
+            int best = score;
+            for (int j = 0; j < text.length() && best > 0; j++) {
+                long eq = mask(text.charAt(j));
+                long xv = eq | minus;
+                long xh = (((eq & plus) + plus) ^ plus) | eq;
+                long hPlus = minus | ~(xh | plus);
+                long hMinus = plus & xh;
+                if ((hPlus & last) != 0) {
+                    score++;
+                } else if ((hMinus & last) != 0) {
+                    score--;
+                }
+                // Shift in 0: a match may start anywhere in the text
+                hPlus <<= 1;
+                hMinus <<= 1;
+                plus = hMinus | ~(xv | hPlus);
+                minus = hPlus & xv;
+                best = Math.min(best, score);
+            }
+            return Math.min(best, max + 1);
+        }
+
+        private long mask(char c) {
+            if (c < 128) {
+                return ascii[c];
+            }
+            long mask = 0;
+            for (int i = 0; i < query.length(); i++) {
+                if (query.charAt(i) == c) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        }
+    }
+
+    // Verifies fuzzy candidates against the query, counting them against maxCandidates
+    private final class Checker {
+        final Segment current;
+        final FuzzyPattern pattern;
+        final int maxEdits;
+        final TopHits top;
+        int checked;
+
+        Checker(Segment current, String q, int maxEdits, TopHits top) {
+            this.current = current;
+            this.pattern = new FuzzyPattern(q);
+            this.maxEdits = maxEdits;
+            this.top = top;
+        }
+
+        boolean more() {
+            return checked < maxCandidates;
+        }
+
+        void check(int doc) {
+            if (current.removed.get(doc) || top.contains(doc)) {
+                return;
+            }
+            checked++;
+            int distance = pattern.distance(current.keys[doc], maxEdits);
+            if (distance <= maxEdits) {
+                top.offer(new Hit(current, doc, RANK_FUZZY, distance));
+            }
+        }
+    }
+
+    // The best hits seen so far, at most limit of them, worst on top
+    private static final class TopHits {
+        final int limit;
+        final PriorityQueue<Hit> worstFirst = new PriorityQueue<>(BY_RELEVANCE.reversed());
+
+        TopHits(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(Hit hit) {
+            if (worstFirst.size() < limit) {
+                worstFirst.add(hit);
+            } else if (BY_RELEVANCE.compare(hit, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(hit);
+            }
+        }
+
+        boolean isFull() {
+            return worstFirst.size() == limit;
+        }
+
+        boolean contains(int doc) {
+            for (Hit hit : worstFirst) {
+                if (hit.doc == doc) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<Hit> best() {
+            List<Hit> best = new ArrayList<>(worstFirst);
+            best.sort(BY_RELEVANCE);
+            return best;
+        }
+    }
+
+    private static final class Hit {
+        final int doc;
+        final int rank;
+        final int distance;
+        final String name;
+        final long customerId;
+
+        Hit(Segment segment, int doc, int rank, int distance) {
+            this.doc = doc;
+            this.rank = rank;
+            this.distance = distance;
+            this.name = segment.keys[doc];
+            this.customerId = segment.customerIds[doc];
+        }
+    }
+}
@@ -29,9 +29,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
 
-        if (jwt != null && tokenProvider.validateToken(jwt)) {
-            String email = tokenProvider.getEmailFromJWT(jwt);
-            Role role = tokenProvider.getRoleFromJWT(jwt);
+        VerifiedToken token = jwt == null ? null : tokenProvider.verify(jwt).orElse(null);
+        if (token != null) {
+            String email = token.getEmail();
+            Role role = token.getRole();
 
             var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
 
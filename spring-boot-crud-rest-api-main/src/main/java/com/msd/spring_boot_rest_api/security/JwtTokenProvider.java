@@ -2,11 +2,20 @@ package com.msd.spring_boot_rest_api.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import com.msd.spring_boot_rest_api.model.Role;
 
+import java.time.Clock;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
@@ -16,50 +25,100 @@ public class JwtTokenProvider {
     private final SecretKey JWT_SECRET = Keys.secretKeyFor(SignatureAlgorithm.HS512);
     private final long JWT_EXPIRATION_MS = 86400000; // 1 day
 
+    // Built once; JwtParser is immutable and thread-safe
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(JWT_SECRET).build();
+    private final VerifiedTokenCache cache;
+
+    private final Timer signTimer;
+    private final Timer cacheHitTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    @Autowired
+    public JwtTokenProvider(@Value("${ldms.security.token-cache.max-entries:10000}") int cacheMaxEntries,
+                            MeterRegistry meterRegistry) {
+        this(cacheMaxEntries, Clock.systemUTC(), meterRegistry);
+    }
+
+    // Outside Spring (benchmarks, unit tests) meters go to the global registry
+    public JwtTokenProvider(int cacheMaxEntries) {
+        this(cacheMaxEntries, Clock.systemUTC(), Metrics.globalRegistry);
+    }
+
+    JwtTokenProvider(int cacheMaxEntries, Clock clock) {
+        this(cacheMaxEntries, clock, Metrics.globalRegistry);
+    }
+
+    JwtTokenProvider(int cacheMaxEntries, Clock clock, MeterRegistry meterRegistry) {
+        this.cache = new VerifiedTokenCache(cacheMaxEntries, clock);
+        this.signTimer = Timer.builder("ldms.jwt.sign")
+                .description("Time to build and sign a JWT")
+                .register(meterRegistry);
+        // result=cache_hit skips the parse; verified/rejected include the full signature check
+        this.cacheHitTimer = verifyTimer(meterRegistry, "cache_hit");
+        this.verifiedTimer = verifyTimer(meterRegistry, "verified");
+        this.rejectedTimer = verifyTimer(meterRegistry, "rejected");
+        Gauge.builder("ldms.jwt.cache.size", cache, VerifiedTokenCache::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("ldms.jwt.verify")
+                .description("Time to verify a JWT presented on a request")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
     // Generate token
     public String generateToken(String email, Role role) {
-        System.out.println("Generating token for email: " + email + ", role: " + role);
-
+        long start = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + JWT_EXPIRATION_MS);
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .setSubject(email)
                 .claim("role", role.name())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(JWT_SECRET) // <--- change here
                 .compact();
+        signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }    
 
-    // Get email from token
-    public String getEmailFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(JWT_SECRET)
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    // Get role from token
-    public Role getRoleFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(JWT_SECRET)
-                .parseClaimsJws(token)
-                .getBody();
-
-        String role = claims.get("role", String.class);
-        return Role.valueOf(role);
+    // Verify signature and expiry once and return everything the filter needs; empty if
+    // the token is invalid. Repeat calls with the same token are served from the cache.
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        Optional<VerifiedToken> cached = cache.get(token);
+        if (cached.isPresent()) {
+            cacheHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Optional<VerifiedToken> verified = parse(token);
+        (verified.isPresent() ? verifiedTimer : rejectedTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
     }
 
-    // Validate token
-    public boolean validateToken(String authToken) {
+    private Optional<VerifiedToken> parse(String token) {
         try {
-            Jwts.parser().setSigningKey(JWT_SECRET).parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String role = claims.get("role", String.class);
+            Date expiration = claims.getExpiration();
+            if (role == null || expiration == null) {
+                return Optional.empty();
+            }
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), Role.valueOf(role),
+                    expiration.toInstant());
+            cache.put(token, verified);
+            return Optional.of(verified);
         } catch (JwtException | IllegalArgumentException e) {
-            // invalid token
+            // invalid signature, expired, or unknown role
+            return Optional.empty();
         }
-        return false;
     }
 }
@@ -0,0 +1,50 @@
+package com.msd.spring_boot_rest_api.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+@Configuration
+public class PasswordConfig {
+
+    // New hashes are "{bcrypt}..." at ldms.security.bcrypt-strength (log2 rounds, 4-31).
+    // Stored passwords without an {id} prefix are the legacy plaintext rows; they still
+    // match, and AuthController re-hashes them on the next successful login.
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${ldms.security.bcrypt-strength:10}") int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(new LegacyPlaintextPasswordEncoder());
+        return encoder;
+    }
+
+    // Matches only; nothing is ever encoded as plaintext again
+    private static class LegacyPlaintextPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("Plaintext passwords are only supported for matching");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (rawPassword == null || encodedPassword == null) {
+                return false;
+            }
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+}
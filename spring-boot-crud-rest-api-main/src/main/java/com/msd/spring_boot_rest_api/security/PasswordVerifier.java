@@ -0,0 +1,141 @@
+package com.msd.spring_boot_rest_api.security;
+
+import com.msd.spring_boot_rest_api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs password hashing on its own small pool so a login storm is capped at a few cores
+// instead of taking every servlet thread. Work beyond the pool plus a short queue is
+// rejected straight away with 503 rather than queueing behind the storm.
+@Component
+public class PasswordVerifier implements MeterBinder {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${ldms.security.password-threads:0}") int threads,
+                            @Value("${ldms.security.password-queue:64}") int queueCapacity,
+                            @Value("${ldms.security.password-timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        // Default: half the cores, leaving the rest for the order APIs
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+    }
+
+    // Verifies rawPassword against the stored hash. If it matches and the stored value uses
+    // an outdated encoding, the returned result carries a fresh hash to persist.
+    public Result verify(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return Result.mismatch();
+        }
+        return call(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedPassword)) {
+                return Result.mismatch();
+            }
+            String upgraded = passwordEncoder.upgradeEncoding(storedPassword)
+                    ? passwordEncoder.encode(rawPassword)
+                    : null;
+            return Result.matched(upgraded);
+        });
+    }
+
+    public String encode(String rawPassword) {
+        return call(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Password verification timed out, please retry");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password verification interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // executor.* meters (queued, active, completed) under name=password-verify
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password-verify", Tags.empty()).bindTo(registry);
+    }
+
+    int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static final class Result {
+
+        private static final Result MISMATCH = new Result(false, null);
+
+        private final boolean matches;
+        private final String upgradedHash;
+
+        private Result(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public static Result mismatch() {
+            return MISMATCH;
+        }
+
+        public static Result matched(String upgradedHash) {
+            return new Result(true, upgradedHash);
+        }
+
+        public boolean matches() {
+            return matches;
+        }
+
+        // Non-null when the stored password should be replaced with this hash
+        public String getUpgradedHash() {
+            return upgradedHash;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.msd.spring_boot_rest_api.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -34,8 +36,14 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses (SSE, exports) end on an async dispatch of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll() // Allow auth APIs (login/register) without auth
+                        .requestMatchers("/actuator/health").permitAll() // liveness/readiness probes
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // includes the Prometheus scrape
                         .requestMatchers("/api/test/admin").hasRole("ADMIN") // example admin endpoint
+                        .requestMatchers("/api/customers/**").hasAnyRole("ADMIN", "WAREHOUSE") // customer contact details
+                        .requestMatchers(HttpMethod.PUT, "/api/drivers/*/location").hasRole("ADMIN") // position reports
                         .anyRequest().authenticated() // everything else requires authentication
                 )
                 .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,31 @@
+package com.msd.spring_boot_rest_api.security;
+
+import com.msd.spring_boot_rest_api.model.Role;
+
+import java.time.Instant;
+
+// The claims the filter needs from a bearer token whose signature and expiry have been checked.
+public final class VerifiedToken {
+
+    private final String email;
+    private final Role role;
+    private final Instant expiresAt;
+
+    public VerifiedToken(String email, Role role, Instant expiresAt) {
+        this.email = email;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
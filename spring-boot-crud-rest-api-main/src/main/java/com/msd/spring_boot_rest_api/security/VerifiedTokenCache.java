@@ -0,0 +1,86 @@
+package com.msd.spring_boot_rest_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+// Verified tokens keyed by the SHA-256 of the compact JWT, so a client replaying the same
+// bearer token skips the HMAC check and JSON parse until the token's exp. Only tokens that
+// passed verification are stored, and the raw token is never kept. Each entry expires at
+// its token's exp; past maxEntries the least valuable entries are evicted.
+class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> entries;
+
+    VerifiedTokenCache(int maxEntries, Clock clock) {
+        this.entries = maxEntries <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .ticker(() -> epochNanos(clock.instant()))
+                // Evict on the calling thread; the work per put is tiny
+                .executor(Runnable::run)
+                .build();
+    }
+
+    Optional<VerifiedToken> get(String token) {
+        if (entries == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entries.getIfPresent(digest(token)));
+    }
+
+    void put(String token, VerifiedToken verified) {
+        if (entries != null) {
+            entries.put(digest(token), verified);
+        }
+    }
+
+    long size() {
+        if (entries == null) {
+            return 0;
+        }
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    // The ticker reads the same clock, so its nanos are comparable with the token's exp
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, epochNanos(value.getExpiresAt()) - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
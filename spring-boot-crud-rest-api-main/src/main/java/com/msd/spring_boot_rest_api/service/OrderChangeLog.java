@@ -0,0 +1,131 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.msd.spring_boot_rest_api.model.OrderTombstone;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import com.msd.spring_boot_rest_api.repository.OrderTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Change sequence behind delta sync (GET /api/orders/changes). Every order write through
+// OrderService, and every deletion tombstone, takes the next number; a client that keeps
+// the highest number it has seen asks for everything after it.
+//
+// Numbers are taken before the writing transaction commits, and transactions do not commit
+// in number order. watermark() therefore stays below the oldest number still in flight, so
+// a reader never moves past a change it cannot see yet. The sequence continues from the
+// highest stored number after a restart; it assumes a single application instance, like the
+// other in-memory indexes.
+@Component
+public class OrderChangeLog {
+
+    private final OrderRepository orderRepository;
+    private final OrderTombstoneRepository tombstoneRepository;
+    private final int stampBatchSize;
+    // First number of every block handed out and not yet committed or rolled back
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // Last number handed out; -1 until read from the database. Written under this.
+    private volatile long last = -1;
+
+    public OrderChangeLog(OrderRepository orderRepository, OrderTombstoneRepository tombstoneRepository,
+                          @Value("${ldms.orders.changes.stamp-batch-size:1000}") int stampBatchSize) {
+        this.orderRepository = orderRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.stampBatchSize = stampBatchSize;
+    }
+
+    // Inside a transaction the number is released when it completes; otherwise the caller
+    // must call end() once its write has committed or failed.
+    public long next() {
+        return reserve(1);
+    }
+
+    // No-op inside a transaction: a write joining an outer one is not visible until that commits
+    public void end(long changeSeq) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.remove(changeSeq);
+        }
+    }
+
+    // Highest number up to which every change is committed (or rolled back)
+    public long watermark() {
+        long stored = storedMax();
+        synchronized (this) {
+            load(stored);
+            return inFlight.isEmpty() ? last : inFlight.first() - 1;
+        }
+    }
+
+    // Call inside the deleting transaction, so the tombstone commits with the delete
+    public void recordDeletion(Long orderId) {
+        tombstoneRepository.save(new OrderTombstone(orderId, next(), LocalDateTime.now()));
+    }
+
+    public List<OrderTombstone> deletedBetween(long since, long upTo, int limit) {
+        return tombstoneRepository.findBetween(since, upTo, Limit.of(limit));
+    }
+
+    // Orders inserted outside the application (imports, SQL scripts) start at 0 and would
+    // never show up as changed; number them. Each chunk of ids takes one block of numbers
+    // and one UPDATE.
+    @Scheduled(fixedDelayString = "${ldms.orders.changes.stamp-ms:5000}",
+            initialDelayString = "${ldms.orders.changes.stamp-ms:5000}")
+    public void stampNewOrders() {
+        List<Long> ids;
+        while (!(ids = orderRepository.findUnstampedIds(Limit.of(stampBatchSize))).isEmpty()) {
+            long minId = ids.get(0);
+            long maxId = ids.get(ids.size() - 1);
+            long first = reserve(maxId - minId + 1);
+            try {
+                orderRepository.stampChangeSeq(minId, maxId, first - minId);
+            } finally {
+                end(first);
+            }
+        }
+    }
+
+    // count consecutive numbers; the first one stands for the whole block until end()
+    private long reserve(long count) {
+        long stored = storedMax();
+        long first;
+        synchronized (this) {
+            load(stored);
+            first = last + 1;
+            last += count;
+            inFlight.add(first);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(first);
+                }
+            });
+        }
+        return first;
+    }
+
+    // Read before taking the lock: writers queue on it while holding their connections, so
+    // waiting for a connection under it could stall them all (and pins a virtual thread)
+    private long storedMax() {
+        if (last >= 0) {
+            return -1;
+        }
+        return Math.max(orderRepository.findMaxChangeSeq(), tombstoneRepository.findMaxChangeSeq());
+    }
+
+    // Under this; the first reader's value wins, numbers handed out since are newer
+    private void load(long stored) {
+        if (last < 0) {
+            last = stored;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msd.spring_boot_rest_api.dto.OrderEvent;
+import com.msd.spring_boot_rest_api.event.OrderEventConsumer;
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live tracking over Server-Sent Events: GET /api/orders/{id}/events and
+// GET /api/drivers/{id}/events. Each transition is serialized once into an SSE frame and
+// offered to every subscriber of its order and driver topics. Subscribers have their own
+// bounded buffer (ldms.events.buffer-size) drained by a virtual thread, so one slow client
+// never delays the others; a client whose buffer fills up is disconnected and resumes
+// from the replay log when it reconnects.
+//
+// Event ids are "<epoch>-<sequence>". A reconnect with Last-Event-ID gets the missed
+// events for its topic from the last ldms.events.replay-size events. If those no longer
+// cover the gap, or the id is from before a restart, it gets a "resync" event and should
+// re-read the order.
+//
+// Transitions arrive as the "live-tracking" consumer of the OrderEventPipeline, i.e. only
+// once they have committed.
+@Component
+public class OrderEventBroadcaster implements OrderEventConsumer<OrderStatusChanged>, MeterBinder {
+
+    private static final String ORDER_TOPIC = "order:";
+    private static final String DRIVER_TOPIC = "driver:";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    // Ring of recent frames for Last-Event-ID replay. Publishing and subscribing both hold
+    // the lock, so a new subscriber sees every event exactly once: replayed or live.
+    private final Object lock = new Object();
+    private final Frame[] replay;
+    private long sequence;
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public OrderEventBroadcaster(ObjectMapper objectMapper,
+                                 @Value("${ldms.events.buffer-size:64}") int bufferSize,
+                                 @Value("${ldms.events.replay-size:4096}") int replaySize,
+                                 @Value("${ldms.events.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${ldms.events.reconnect-ms:3000}") long reconnectMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.replay = new Frame[replaySize];
+    }
+
+    public SseEmitter subscribeToOrder(Long orderId, String lastEventId) {
+        return subscribe(ORDER_TOPIC + orderId, lastEventId, new SseEmitter(timeoutMs));
+    }
+
+    public SseEmitter subscribeToDriver(Long driverId, String lastEventId) {
+        return subscribe(DRIVER_TOPIC + driverId, lastEventId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(String topic, String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(topic, emitter, bufferSize);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        synchronized (lock) {
+            topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            subscriberCount.incrementAndGet();
+            // First frame sends the response headers right away and sets the retry delay
+            subscriber.offer(build(SseEmitter.event().reconnectTime(reconnectMs).comment("connected")));
+            if (lastEventId != null) {
+                replayTo(subscriber, lastEventId);
+            }
+        }
+        return emitter;
+    }
+
+    @Override
+    public String getName() {
+        return "live-tracking";
+    }
+
+    @Override
+    public Class<OrderStatusChanged> getEventType() {
+        return OrderStatusChanged.class;
+    }
+
+    @Override
+    public void accept(List<OrderStatusChanged> events) {
+        for (OrderStatusChanged event : events) {
+            publish(new OrderEvent(event.getOrderId(), event.getDriverId(), event.getStatus(), event.getTime()));
+        }
+    }
+
+    public void publish(OrderEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String driverTopic = event.getDriverId() == null ? null : DRIVER_TOPIC + event.getDriverId();
+        synchronized (lock) {
+            long id = ++sequence;
+            Frame frame = new Frame(ORDER_TOPIC + event.getOrderId(), driverTopic,
+                    build(SseEmitter.event().id(epoch + "-" + id).name("status").data(data)));
+            replay[(int) (id % replay.length)] = frame;
+            deliver(frame.orderTopic, frame.data);
+            if (driverTopic != null) {
+                deliver(driverTopic, frame.data);
+            }
+        }
+        published.incrementAndGet();
+    }
+
+    // Comment lines keep idle connections open through proxies and reveal dead clients
+    @Scheduled(fixedDelayString = "${ldms.events.heartbeat-ms:15000}",
+            initialDelayString = "${ldms.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = build(SseEmitter.event().comment("ping"));
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(ping)));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ldms.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open live-tracking streams")
+                .register(registry);
+        FunctionCounter.builder("ldms.events.published", published, AtomicLong::get)
+                .description("Order events published to live-tracking streams")
+                .register(registry);
+        FunctionCounter.builder("ldms.events.evicted", evicted, AtomicLong::get)
+                .description("Live-tracking streams closed because the client fell behind")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void deliver(String topic, Set<DataWithMediaType> data) {
+        Set<Subscriber> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(data));
+        }
+    }
+
+    // Missed events that would not fit the subscriber's buffer also mean a resync; replaying
+    // them would only get the client evicted and reconnecting with the same id again.
+    private void replayTo(Subscriber subscriber, String lastEventId) {
+        long last = parseSequence(lastEventId);
+        long oldest = Math.max(1, sequence - replay.length + 1);
+        List<Set<DataWithMediaType>> missed = new ArrayList<>();
+        if (last >= 0 && last <= sequence && last + 1 >= oldest) {
+            for (long id = last + 1; id <= sequence && missed.size() < bufferSize; id++) {
+                Frame frame = replay[(int) (id % replay.length)];
+                if (subscriber.topic.equals(frame.orderTopic) || subscriber.topic.equals(frame.driverTopic)) {
+                    missed.add(frame.data);
+                }
+            }
+            if (missed.size() < bufferSize) {
+                missed.forEach(subscriber::offer);
+                return;
+            }
+        }
+        subscriber.offer(build(SseEmitter.event().id(epoch + "-" + sequence).name("resync").data("")));
+    }
+
+    // -1 for ids from another epoch (i.e. before a restart) or that do not parse
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        if (dash < 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Built once and shared by every subscriber; the set is ordered and must stay so
+    private static Set<DataWithMediaType> build(SseEmitter.SseEventBuilder builder) {
+        return Collections.unmodifiableSet(builder.build());
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> subscribers = topics.get(subscriber.topic);
+        if (subscribers != null && subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (subscribers.isEmpty()) {
+                topics.remove(subscriber.topic, subscribers);
+            }
+        }
+    }
+
+    private static final class Frame {
+        private final String orderTopic;
+        private final String driverTopic;
+        private final Set<DataWithMediaType> data;
+
+        private Frame(String orderTopic, String driverTopic, Set<DataWithMediaType> data) {
+            this.orderTopic = orderTopic;
+            this.driverTopic = driverTopic;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(String topic, SseEmitter emitter, int bufferSize) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Set<DataWithMediaType> data) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(data)) {
+                // Slow consumer: drop the connection rather than buffer without limit
+                evicted.incrementAndGet();
+                close();
+                // complete() waits for a send in progress; never let that block the publisher
+                senders.execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // One drain at a time per subscriber, so frames go out in order
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> data = buffer.poll();
+                if (data == null) {
+                    draining.set(false);
+                    // Re-check: an offer may have landed after poll() but before the reset
+                    if (buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    emitter.send(data);
+                } catch (IOException | IllegalStateException e) {
+                    // Client gone or emitter already completed
+                    close();
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Streams orders straight from a database cursor to the response. Rows are written as
+// they are read and the persistence context is cleared every few hundred rows, so heap
+// use stays flat regardless of how many orders are exported.
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "order_id,status,estimated_delivery,customer_id,customer_name,"
+            + "driver_id,driver_name,placed_time,processing_time,out_for_delivery_time,delivered_time";
+
+    private final EntityManager entityManager;
+    private final ObjectWriter orderWriter;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int clearEvery;
+
+    public OrderExportService(EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              @Value("${ldms.export.fetch-size:1000}") int fetchSize,
+                              @Value("${ldms.export.clear-every:500}") int clearEvery) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.orderWriter = objectMapper.writerFor(Order.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+        this.clearEvery = clearEvery;
+    }
+
+    // Returns the number of exported rows. Any filter may be null.
+    // Note: MySQL Connector/J only honours the fetch size with useCursorFetch=true on the
+    // JDBC URL; without it the driver buffers the whole result set client-side.
+    @Transactional(readOnly = true)
+    public long export(List<String> statuses, LocalDateTime from, LocalDateTime to,
+                       Format format, OutputStream out) throws IOException {
+        try (Stream<Order> orders = openStream(statuses, from, to)) {
+            return format == Format.CSV ? writeCsv(orders, out) : writeNdjson(orders, out);
+        }
+    }
+
+    private Stream<Order> openStream(List<String> statuses, LocalDateTime from, LocalDateTime to) {
+        // customer and driver are fetch-joined so serializing a row never triggers a lazy load
+        StringBuilder jpql = new StringBuilder(
+                "select o from Order o join fetch o.customer left join fetch o.driver where 1 = 1");
+        boolean byStatus = statuses != null && !statuses.isEmpty();
+        if (byStatus) {
+            jpql.append(" and o.statusCode in :statuses");
+        }
+        if (from != null) {
+            jpql.append(" and o.orderProcessing.timestamp >= :from");
+        }
+        if (to != null) {
+            jpql.append(" and o.orderProcessing.timestamp < :to");
+        }
+        jpql.append(" order by o.id");
+
+        TypedQuery<Order> query = entityManager.createQuery(jpql.toString(), Order.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (byStatus) {
+            query.setParameter("statuses", statuses.stream()
+                    .map(status -> OrderStatusCode.fromLabel(status).getCode())
+                    .toList());
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        return query.getResultStream();
+    }
+
+    private long writeNdjson(Stream<Order> orders, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // one object per line, newline-terminated, instead of Jackson's default space separator
+        generator.setRootValueSeparator(null);
+        long count = 0;
+        Iterator<Order> it = orders.iterator();
+        while (it.hasNext()) {
+            orderWriter.writeValue(generator, it.next());
+            generator.writeRaw('\n');
+            if (++count % clearEvery == 0) {
+                generator.flush();
+                entityManager.clear();
+            }
+        }
+        generator.flush();
+        return count;
+    }
+
+    private long writeCsv(Stream<Order> orders, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        Iterator<Order> it = orders.iterator();
+        while (it.hasNext()) {
+            writeCsvRow(writer, it.next());
+            if (++count % clearEvery == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, Order order) throws IOException {
+        Customer customer = order.getCustomer();
+        Driver driver = order.getDriver();
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        writer.write(csv(order.getStatus()));
+        writer.write(',');
+        writer.write(csv(order.getEstimatedDelivery()));
+        writer.write(',');
+        writer.write(customer == null ? "" : String.valueOf(customer.getCustomerId()));
+        writer.write(',');
+        writer.write(customer == null ? "" : csv(customer.getCustomerName()));
+        writer.write(',');
+        writer.write(driver == null ? "" : String.valueOf(driver.getDriverId()));
+        writer.write(',');
+        writer.write(driver == null ? "" : csv(driver.getDriverName()));
+        writer.write(',');
+        writer.write(csv(order.getOrderPlaced().getTimestamp()));
+        writer.write(',');
+        writer.write(csv(order.getOrderProcessing().getTimestamp()));
+        writer.write(',');
+        writer.write(csv(order.getOrderOutForDelivery().getTimestamp()));
+        writer.write(',');
+        writer.write(csv(order.getOrderDelivered().getTimestamp()));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof String && isFormulaStart(text)) {
+            // Spreadsheets would evaluate the cell; the quote makes them show it as text
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isFormulaStart(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
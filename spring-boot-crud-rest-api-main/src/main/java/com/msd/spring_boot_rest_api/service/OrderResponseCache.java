@@ -0,0 +1,190 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.msd.spring_boot_rest_api.model.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Serialized JSON of single orders, as served by GET /api/orders/{id}, with a strong ETag
+// computed from those bytes. A hit costs no database read and no serialization, and a
+// client presenting the current ETag gets 304. Bounded by total bytes
+// (ldms.orders.response-cache.max-bytes) and expired after
+// ldms.orders.response-cache.ttl-seconds as a backstop for writes made outside the app.
+//
+// Writers must call invalidate() after changing an order. A miss first stores a pending
+// future, then loads on the caller's thread (inside its transaction or open session) and
+// completes it; concurrent readers of the same order wait for that one load. An
+// invalidation that races with a load removes the pending future, so what the load
+// returns never becomes visible. The load runs outside the cache's map lock: a reader
+// waiting for a database connection there would pin its virtual thread while the threads
+// holding the connections queue on the same lock.
+@Component
+public class OrderResponseCache implements MeterBinder {
+
+    private final ObjectWriter orderWriter;
+    private final AsyncCache<Long, CachedOrder> cache;
+    // Cached order ids per assigned driver, so a driver change drops just those entries
+    // instead of scanning the cache. Entries are added when loaded and removed when evicted
+    // or expired; ids of entries invalidated one by one stay until their driver's next
+    // change, which costs no more than an invalidate of an absent key.
+    private final Map<Long, Set<Long>> driverOrders = new ConcurrentHashMap<>();
+
+    public OrderResponseCache(ObjectMapper objectMapper,
+                              @Value("${ldms.orders.response-cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${ldms.orders.response-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.orderWriter = objectMapper.writerFor(Order.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, CachedOrder entry) -> entry.body.length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                // Runs inside the eviction, so it cannot undo the index entry of a newer load
+                .evictionListener((Long id, CachedOrder entry, RemovalCause cause) -> unindex(id, entry))
+                .recordStats()
+                .buildAsync();
+    }
+
+    // Empty when the loader finds no order; misses are not cached (Caffeine drops futures
+    // completed with null).
+    public Optional<CachedOrder> get(Long orderId, Supplier<Optional<Order>> loader) {
+        CompletableFuture<CachedOrder> pending = new CompletableFuture<>();
+        CompletableFuture<CachedOrder> future = cache.get(orderId, (id, executor) -> pending);
+        if (future == pending) {
+            try {
+                CachedOrder entry = loader.get().map(this::serialize).orElse(null);
+                if (entry != null) {
+                    index(orderId, entry);
+                }
+                pending.complete(entry);
+            } catch (RuntimeException | Error e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException e) {
+            // Another reader's load failed; report it as this one's
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Inside a transaction the entry is dropped once it commits: a read in between still
+    // sees the old row and would otherwise cache it again.
+    public void invalidate(Long orderId) {
+        cache.synchronous().invalidate(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(orderId);
+                }
+            });
+        }
+    }
+
+    // The order JSON embeds the driver, so a driver change invalidates that driver's orders
+    public void invalidateDriver(Long driverId) {
+        Set<Long> orderIds = driverOrders.remove(driverId);
+        if (orderIds != null) {
+            cache.synchronous().invalidateAll(orderIds);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "ldms.orders.response");
+    }
+
+    long size() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    long indexedOrders() {
+        cache.synchronous().cleanUp();
+        return driverOrders.values().stream().mapToLong(Set::size).sum();
+    }
+
+    private void index(Long orderId, CachedOrder entry) {
+        if (entry.driverId != null) {
+            driverOrders.compute(entry.driverId, (driverId, ids) -> {
+                Set<Long> orderIds = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                orderIds.add(orderId);
+                return orderIds;
+            });
+        }
+    }
+
+    private void unindex(Long orderId, CachedOrder entry) {
+        if (entry != null && entry.driverId != null) {
+            driverOrders.computeIfPresent(entry.driverId, (driverId, ids) -> {
+                ids.remove(orderId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private CachedOrder serialize(Order order) {
+        byte[] body;
+        try {
+            body = orderWriter.writeValueAsBytes(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        Long driverId = order.getDriver() == null ? null : order.getDriver().getDriverId();
+        return new CachedOrder(body, etag(body), driverId);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            // 128 bits are plenty to tell two versions of one order apart
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class CachedOrder {
+        private final byte[] body;
+        private final String etag;
+        private final Long driverId;
+
+        private CachedOrder(byte[] body, String etag, Long driverId) {
+            this.body = body;
+            this.etag = etag;
+            this.driverId = driverId;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -1,40 +1,185 @@
 package com.msd.spring_boot_rest_api.service;
 
+import com.msd.spring_boot_rest_api.assignment.DriverAssignmentStrategy;
+import com.msd.spring_boot_rest_api.assignment.DriverAvailabilityIndex;
 import com.msd.spring_boot_rest_api.model.Order;
 import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.msd.spring_boot_rest_api.dto.BatchStatusUpdateResult;
+import com.msd.spring_boot_rest_api.dto.CursorPage;
+import com.msd.spring_boot_rest_api.dto.OrderChanges;
+import com.msd.spring_boot_rest_api.dto.OrderCursor;
+import com.msd.spring_boot_rest_api.dto.OrderSummary;
+import com.msd.spring_boot_rest_api.eta.DeliveryEtaEngine;
+import com.msd.spring_boot_rest_api.event.OrderEventPipeline;
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import com.msd.spring_boot_rest_api.exception.InvalidStatusTransitionException;
+import com.msd.spring_boot_rest_api.exception.ResourceNotFoundException;
+import com.msd.spring_boot_rest_api.model.Customer;
 import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.OrderStage;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.model.OrderTombstone;
 import com.msd.spring_boot_rest_api.repository.DriverRepository;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.stream.Collectors;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+// Every public method is timed as ldms.order.service (class/method/exception tags) by
+// MetricsConfig's TimedAspect; status transitions add ldms.order.transition below.
 @Service
+@Timed(value = "ldms.order.service", description = "OrderService method latency")
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    // Widest look-ahead the due-soon view accepts
+    public static final int MAX_DUE_WITHIN_HOURS = 7 * 24;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private static final Set<String> STATUSES =
+            Set.of("Order Placed", "Order Processing", "Out for Delivery", "Order Delivered");
+
+    // Legal transitions: each status may only follow the one mapped here. Orders are
+    // created as "Order Placed", so no transition leads to it.
+    private static final Map<String, String> PREVIOUS_STATUS = new HashMap<>();
+
+    static {
+        PREVIOUS_STATUS.put("Order Processing", "Order Placed");
+        PREVIOUS_STATUS.put("Out for Delivery", "Order Processing");
+        PREVIOUS_STATUS.put("Order Delivered", "Out for Delivery");
+    }
+
+    // Tag values for ldms.order.transition: whether the transition assigned a driver,
+    // released one on delivery, or only completed a stage, and how it ended
+    private static final String TRANSITION_STAGE = "stage";
+    private static final String TRANSITION_ASSIGN_DRIVER = "assign_driver";
+    private static final String TRANSITION_RELEASE_DRIVER = "release_driver";
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_NOT_FOUND = "not_found";
+    private static final String OUTCOME_NO_DRIVER = "no_driver";
+    private static final String OUTCOME_CONFLICT = "conflict";
+    private static final String OUTCOME_ERROR = "error";
+
+    // Open-ended bounds for the past/upcoming views, kept inside MySQL's DATETIME range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final OrderRepository repository;
     private final DriverRepository driverRepository;
-
-    public OrderService(OrderRepository repository, DriverRepository driverRepository) {
+    private final OrderStatsService statsService;
+    private final DriverAssignmentStrategy assignmentStrategy;
+    private final DriverAvailabilityIndex availabilityIndex;
+    private final OrderStatusHistoryWriter historyWriter;
+    private final OrderResponseCache responseCache;
+    private final OrderEventPipeline eventPipeline;
+    private final OrderChangeLog changeLog;
+    private final DeliveryEtaEngine etaEngine;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+
+    public OrderService(OrderRepository repository, DriverRepository driverRepository,
+                        OrderStatsService statsService, DriverAssignmentStrategy assignmentStrategy,
+                        DriverAvailabilityIndex availabilityIndex, OrderStatusHistoryWriter historyWriter,
+                        OrderResponseCache responseCache, OrderEventPipeline eventPipeline,
+                        OrderChangeLog changeLog, DeliveryEtaEngine etaEngine, MeterRegistry meterRegistry) {
         this.repository = repository;
         this.driverRepository = driverRepository;
+        this.statsService = statsService;
+        this.assignmentStrategy = assignmentStrategy;
+        this.availabilityIndex = availabilityIndex;
+        this.historyWriter = historyWriter;
+        this.responseCache = responseCache;
+        this.eventPipeline = eventPipeline;
+        this.changeLog = changeLog;
+        this.etaEngine = etaEngine;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("ldms.order.transition.batch.size")
+                .description("Orders requested per batch status update")
+                .register(meterRegistry);
     }
 
-    public List<Order> getAllOrders() {
-        return repository.findAll();
+    // Keyset-paginated listing ordered by order_id; pass the previous page's "next"
+    // cursor (or null for the first page).
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrders(String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        long afterId = cursor == null ? 0L : OrderCursor.decodeId(cursor);
+        List<Order> rows = repository.findPageAfter(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, order -> OrderCursor.encode(order.getId()));
     }
 
     public Optional<Order> getOrderById(Long id) {
         return repository.findById(id);
     }
 
+    // The tombstone commits with the delete, so delta-sync clients always learn of it.
+    // History rows still queued for the order are dropped by the history writer.
+    @Transactional
     public void deleteOrder(Long id) {
-        repository.deleteById(id);
+        repository.findForDeletion(id).ifPresent(order -> {
+            historyWriter.deleteHistory(id);
+            repository.delete(order);
+            changeLog.recordDeletion(id);
+            responseCache.invalidate(id);
+            statsService.recordDeletion(order);
+            if (order.getDriver() != null && !order.getOrderDelivered().isCompleted()) {
+                availabilityIndex.release(order.getDriver().getDriverId());
+            }
+        });
+    }
+
+    // Delta sync: orders written and deleted after the since watermark, oldest change first.
+    // Without since only the current watermark is returned, to start from after a full load.
+    @Transactional(readOnly = true)
+    public OrderChanges getChanges(Long since, int size) {
+        long upTo = changeLog.watermark();
+        if (since == null) {
+            return new OrderChanges(List.of(), List.of(), upTo, false);
+        }
+        if (since < 0 || since > upTo) {
+            // e.g. a watermark from before a database restore: only a full reload is safe
+            throw new IllegalArgumentException("Unknown watermark " + since + "; reload all orders");
+        }
+        int pageSize = clampPageSize(size);
+        List<Order> changed = repository.findChangedBetween(since, upTo, Limit.of(pageSize + 1));
+        List<OrderTombstone> deleted = changeLog.deletedBetween(since, upTo, pageSize + 1);
+
+        // Merge both by change sequence and cut at the page size; the watermark is then the
+        // last change returned, so the next call picks up exactly where this one stopped.
+        List<Order> changedPage = new ArrayList<>();
+        List<Long> deletedPage = new ArrayList<>();
+        int c = 0;
+        int d = 0;
+        long watermark = upTo;
+        while (c < changed.size() || d < deleted.size()) {
+            if (c + d == pageSize) {
+                return new OrderChanges(changedPage, deletedPage, watermark, true);
+            }
+            if (d >= deleted.size()
+                    || (c < changed.size() && changed.get(c).getChangeSeq() < deleted.get(d).getChangeSeq())) {
+                watermark = changed.get(c).getChangeSeq();
+                changedPage.add(changed.get(c++));
+            } else {
+                watermark = deleted.get(d).getChangeSeq();
+                deletedPage.add(deleted.get(d++).getOrderId());
+            }
+        }
+        return new OrderChanges(changedPage, deletedPage, upTo, false);
     }
 
     // Get current stage of a specific order
@@ -66,34 +211,77 @@ public class OrderService {
         return currentStage;
     }
 
-    public List<Order> getPastOrders() {
-        LocalDate today = LocalDate.now();
-        return repository.findAll().stream()
-                .filter(order -> {
-                    LocalDateTime processingTime = order.getOrderProcessing().getTimestamp();
-                    return processingTime != null && processingTime.toLocalDate().isBefore(today);
-                })
-                .collect(Collectors.toList());
+    // Same paging as getOrders, but returns the lean OrderSummary projection.
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummary> getOrderSummaries(String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        long afterId = cursor == null ? 0L : OrderCursor.decodeId(cursor);
+        List<OrderSummary> rows = repository.findSummaryPageAfter(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, summary -> OrderCursor.encode(summary.getId()));
     }
 
-    public List<Order> getTodayOrders() {
-        LocalDate today = LocalDate.now();
-        return repository.findAll().stream()
-                .filter(order -> {
-                    LocalDateTime processingTime = order.getOrderProcessing().getTimestamp();
-                    return processingTime != null && processingTime.toLocalDate().isEqual(today);
-                })
-                .collect(Collectors.toList());
+    // Date-bucket views are keyset-paginated on (processing_time, order_id), so each call
+    // only touches the rows in the requested page rather than the whole orders table.
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getPastOrders(String cursor, int size) {
+        return getOrdersProcessedBetween(EARLIEST, LocalDate.now().atStartOfDay(), cursor, size);
     }
 
-    public List<Order> getUpcomingOrders() {
-        LocalDate today = LocalDate.now();
-        return repository.findAll().stream()
-                .filter(order -> {
-                    LocalDateTime processingTime = order.getOrderProcessing().getTimestamp();
-                    return processingTime != null && processingTime.toLocalDate().isAfter(today);
-                })
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getTodayOrders(String cursor, int size) {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        return getOrdersProcessedBetween(startOfToday, startOfToday.plusDays(1), cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getUpcomingOrders(String cursor, int size) {
+        return getOrdersProcessedBetween(LocalDate.now().plusDays(1).atStartOfDay(), LATEST, cursor, size);
+    }
+
+    private CursorPage<Order> getOrdersProcessedBetween(LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        LocalDateTime afterTime = from;
+        long afterId = 0L;
+        if (cursor != null) {
+            OrderCursor position = OrderCursor.decodeTimeAndId(cursor);
+            afterTime = position.getTime();
+            afterId = position.getId();
+        }
+        List<Order> rows = repository.findProcessingPageAfter(from, to, afterTime, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize,
+                order -> OrderCursor.encode(order.getOrderProcessing().getTimestamp(), order.getId()));
+    }
+
+    // ETA views: undelivered orders keyset-paginated on (estimated_delivery, order_id).
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrdersDueWithin(int hours, String cursor, int size) {
+        if (hours < 1 || hours > MAX_DUE_WITHIN_HOURS) {
+            throw new IllegalArgumentException("hours must be between 1 and " + MAX_DUE_WITHIN_HOURS);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return getOpenOrdersDueBetween(now, now.plusHours(hours), cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOverdueOrders(String cursor, int size) {
+        return getOpenOrdersDueBetween(EARLIEST, LocalDateTime.now(), cursor, size);
+    }
+
+    private CursorPage<Order> getOpenOrdersDueBetween(LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        LocalDateTime afterTime = from;
+        long afterId = 0L;
+        if (cursor != null) {
+            OrderCursor position = OrderCursor.decodeTimeAndId(cursor);
+            afterTime = position.getTime();
+            afterId = position.getId();
+        }
+        List<Order> rows = repository.findOpenByEtaPageAfter(from, to, afterTime, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, order -> OrderCursor.encode(order.getEstimatedDelivery(), order.getId()));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     public List<Order> getCurrentlyPlacedOrders() {
@@ -107,81 +295,361 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    // One read and one compare-and-set UPDATE guarded by the status the move has to start
+    // from (see PREVIOUS_STATUS). An illegal move, or losing a race to a concurrent request
+    // on the same order, is a 409 instead of a silent overwrite.
     public Order updateOrderStatus(Long orderId, String newStatus) {
-        Optional<Order> orderOpt = repository.findById(orderId);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String transition = TRANSITION_STAGE;
+        String outcome = OUTCOME_ERROR;
+        try {
+            if (!STATUSES.contains(newStatus)) {
+                throw new IllegalArgumentException("Invalid status: " + newStatus);
+            }
+            // Read-only: the in-memory changes below are never flushed, only the guarded UPDATE writes
+            Optional<Order> orderOpt = repository.findForTransition(orderId);
 
-        if (orderOpt.isEmpty()) {
-            throw new RuntimeException("Order not found");
+            if (orderOpt.isEmpty()) {
+                outcome = OUTCOME_NOT_FOUND;
+                throw new ResourceNotFoundException("Order not found");
+            }
+
+            Order order = orderOpt.get();
+            String previousStatus = order.getStatus();
+            if (!isLegalTransition(previousStatus, newStatus)) {
+                outcome = OUTCOME_CONFLICT;
+                throw new InvalidStatusTransitionException(orderId, previousStatus, newStatus);
+            }
+            boolean stageNewlyCompleted = applyStage(order, newStatus);
+            Long assignedDriverId = null;
+
+            if ("Order Processing".equals(newStatus) && order.getDriver() == null) {
+                transition = TRANSITION_ASSIGN_DRIVER;
+                // The strategy reserves the driver in the availability index
+                Optional<Long> candidate = assignmentStrategy.assign(order);
+                if (candidate.isEmpty()) {
+                    outcome = OUTCOME_NO_DRIVER;
+                    throw new RuntimeException("No available drivers");
+                }
+                Long driverId = candidate.get();
+                Optional<Driver> driver = driverRepository.findById(driverId);
+                if (driver.isEmpty()) {
+                    availabilityIndex.removeDriver(driverId);
+                    outcome = OUTCOME_NO_DRIVER;
+                    throw new RuntimeException("No available drivers");
+                }
+                order.setDriver(driver.get());
+                assignedDriverId = driverId;
+            }
+            updateEstimatedDelivery(order, newStatus);
+
+            boolean applied;
+            long changeSeq = changeLog.next();
+            try {
+                applied = compareAndSet(order, previousStatus, newStatus, changeSeq);
+            } catch (RuntimeException e) {
+                if (assignedDriverId != null) {
+                    availabilityIndex.release(assignedDriverId);
+                }
+                throw e;
+            } finally {
+                changeLog.end(changeSeq);
+            }
+            if (!applied) {
+                if (assignedDriverId != null) {
+                    availabilityIndex.release(assignedDriverId);
+                }
+                outcome = OUTCOME_CONFLICT;
+                String currentStatus = repository.findStatusCodeById(orderId)
+                        .map(OrderStatusCode::labelOf)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+                throw new InvalidStatusTransitionException(orderId, currentStatus, newStatus);
+            }
+
+            responseCache.invalidate(orderId);
+            statsService.recordTransition(previousStatus, newStatus, stageNewlyCompleted);
+            eventPipeline.publish(statusChanged(order, previousStatus, newStatus, stageNewlyCompleted));
+            if ("Order Delivered".equals(newStatus) && stageNewlyCompleted && order.getDriver() != null) {
+                transition = TRANSITION_RELEASE_DRIVER;
+                availabilityIndex.release(order.getDriver().getDriverId());
+            }
+            outcome = OUTCOME_SUCCESS;
+            return order;
+        } finally {
+            sample.stop(transitionTimer("ldms.order.transition", newStatus, transition, outcome));
         }
+    }
 
-        Order order = orderOpt.get();
+    // Writes the transition already applied to order in memory; false if the order was no
+    // longer in previousStatus.
+    private boolean compareAndSet(Order order, String previousStatus, String newStatus, long changeSeq) {
+        LocalDateTime stageTime = stage(order, newStatus).getTimestamp();
+        byte status = OrderStatusCode.fromLabel(newStatus).getCode();
+        int updated = repository.compareAndSetStatus(order.getId(), OrderStatusCode.fromLabel(previousStatus).getCode(),
+                status, order.getDriver(), order.getEstimatedDelivery(), stageTime, changeSeq);
+        if (updated == 1) {
+            order.setChangeSeq(changeSeq);
+        }
+        return updated == 1;
+    }
 
-        switch (newStatus) {
-            case "Order Placed":
-                // Set completed = true, which will also auto-set timestamp if not set
-                order.getOrderPlaced().setCompleted(true);
+    public static boolean isLegalTransition(String currentStatus, String newStatus) {
+        String previous = PREVIOUS_STATUS.get(newStatus);
+        return previous != null && previous.equals(currentStatus);
+    }
 
-                // Get the timestamp that was set
-                LocalDateTime placedTime = order.getOrderPlaced().getTimestamp();
+    // Moves many orders to one status in a single transaction: one IN select for the
+    // orders, one IN select for any newly assigned drivers, and one JDBC batch of the same
+    // guarded UPDATE as updateOrderStatus. Orders that cannot make the transition, including
+    // ones whose current status the new one may not follow or that a concurrent request
+    // moved first, are reported and left untouched.
+    @Transactional
+    public BatchStatusUpdateResult updateOrderStatuses(List<Long> orderIds, String newStatus) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            BatchStatusUpdateResult result = applyBatch(orderIds, newStatus);
+            batchSize.record(orderIds.size());
+            meterRegistry.counter("ldms.order.transition.batch.items", "status", result.getStatus(),
+                    "result", "succeeded").increment(result.getSucceeded());
+            meterRegistry.counter("ldms.order.transition.batch.items", "status", result.getStatus(),
+                    "result", "failed").increment(result.getFailed());
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            sample.stop(transitionTimer("ldms.order.transition.batch", newStatus,
+                    batchTransition(newStatus), outcome));
+        }
+    }
 
-                // Add 2.5 days = 2 days + 12 hours
-                LocalDateTime estimatedDelivery = placedTime.plusDays(2).plusHours(12);
+    private BatchStatusUpdateResult applyBatch(List<Long> orderIds, String newStatus) {
+        if (!STATUSES.contains(newStatus)) {
+            throw new IllegalArgumentException("Invalid status: " + newStatus);
+        }
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        if (orderIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " orders per batch");
+        }
 
-                // Convert to String if your estimatedDelivery is a String column (as in your
-                // entity)
-                order.setEstimatedDelivery(estimatedDelivery.toString());
-                order.setStatus("Order Placed");
-                break;
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        Map<Long, Order> orders = new HashMap<>();
+        // Read-only, as in updateOrderStatus: only the guarded UPDATE below writes
+        for (Order order : repository.findAllForTransition(ids)) {
+            orders.put(order.getId(), order);
+        }
 
-            case "Order Processing":
-                order.getOrderProcessing().setCompleted(true);
+        BatchStatusUpdateResult result = new BatchStatusUpdateResult(newStatus);
+        List<Order> pending = new ArrayList<>();
+        for (Long id : ids) {
+            Order order = orders.get(id);
+            if (order == null) {
+                result.addFailure(id, "Order not found");
+            } else if (!isLegalTransition(order.getStatus(), newStatus)) {
+                result.addFailure(id, "Cannot move from '" + order.getStatus() + "' to '" + newStatus + "'");
+            } else {
+                pending.add(order);
+            }
+        }
 
-                if (order.getDriver() == null) {
-                    List<Driver> allDrivers = driverRepository.findAll();
+        // Reserve drivers for the whole batch up front, then load them in one query
+        Map<Long, Long> reservations = new HashMap<>();
+        if ("Order Processing".equals(newStatus)) {
+            reserveDrivers(pending, reservations, result);
+        }
 
-                    if (allDrivers.isEmpty()) {
-                        throw new RuntimeException("No available drivers");
-                    }
+        List<String> previousStatuses = new ArrayList<>(pending.size());
+        List<Boolean> newlyCompleted = new ArrayList<>(pending.size());
+        for (Order order : pending) {
+            previousStatuses.add(order.getStatus());
+            newlyCompleted.add(applyStage(order, newStatus));
+            updateEstimatedDelivery(order, newStatus);
+            order.setChangeSeq(changeLog.next());
+        }
 
-                    // Pick a random driver
-                    Random rand = new Random();
-                    Driver randomDriver = allDrivers.get(rand.nextInt(allDrivers.size()));
+        int[] updated;
+        try {
+            updated = repository.compareAndSetStatuses(pending,
+                    OrderStatusCode.fromLabel(PREVIOUS_STATUS.get(newStatus)).getCode(),
+                    OrderStatusCode.fromLabel(newStatus).getCode());
+        } catch (RuntimeException e) {
+            reservations.values().forEach(availabilityIndex::release);
+            throw e;
+        }
 
-                    order.setDriver(randomDriver);
+        // Cached responses are dropped and the pipeline events published when the
+        // transaction commits
+        for (int i = 0; i < pending.size(); i++) {
+            Order order = pending.get(i);
+            if (updated[i] != 1) {
+                Long driverId = reservations.get(order.getId());
+                if (driverId != null) {
+                    availabilityIndex.release(driverId);
                 }
+                result.addFailure(order.getId(), "Order was changed by a concurrent update");
+                continue;
+            }
+            boolean stageNewlyCompleted = newlyCompleted.get(i);
+            responseCache.invalidate(order.getId());
+            statsService.recordTransition(previousStatuses.get(i), newStatus, stageNewlyCompleted);
+            eventPipeline.publish(statusChanged(order, previousStatuses.get(i), newStatus, stageNewlyCompleted));
+            if ("Order Delivered".equals(newStatus) && stageNewlyCompleted && order.getDriver() != null) {
+                availabilityIndex.release(order.getDriver().getDriverId());
+            }
+            result.addSuccess(order);
+        }
+        return result;
+    }
+
+    // Runs the assignment strategy for every order in the batch that still needs a driver.
+    // Orders no driver can take are moved from pending to the failures in the result.
+    private void reserveDrivers(List<Order> pending, Map<Long, Long> reservations, BatchStatusUpdateResult result) {
+        for (Order order : pending) {
+            if (order.getDriver() == null) {
+                assignmentStrategy.assign(order).ifPresent(driverId -> reservations.put(order.getId(), driverId));
+            }
+        }
+
+        Map<Long, Driver> drivers = new HashMap<>();
+        if (!reservations.isEmpty()) {
+            for (Driver driver : driverRepository.findAllById(new HashSet<>(reservations.values()))) {
+                drivers.put(driver.getDriverId(), driver);
+            }
+        }
+
+        Iterator<Order> it = pending.iterator();
+        while (it.hasNext()) {
+            Order order = it.next();
+            if (order.getDriver() != null) {
+                continue;
+            }
+            Long driverId = reservations.get(order.getId());
+            Driver driver = driverId == null ? null : drivers.get(driverId);
+            if (driver == null) {
+                if (driverId != null) {
+                    // Deleted since the index was built
+                    reservations.remove(order.getId());
+                    availabilityIndex.removeDriver(driverId);
+                }
+                it.remove();
+                result.addFailure(order.getId(), "No available drivers");
+                continue;
+            }
+            order.setDriver(driver);
+        }
+    }
+
+    // Status tags are limited to the known labels so bad input cannot grow the tag space
+    private Timer transitionTimer(String name, String status, String transition, String outcome) {
+        return Timer.builder(name)
+                .description("Order status transition latency")
+                .tag("status", STATUSES.contains(status) ? status : "unknown")
+                .tag("transition", transition)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String batchTransition(String newStatus) {
+        if ("Order Processing".equals(newStatus)) {
+            return TRANSITION_ASSIGN_DRIVER;
+        }
+        return "Order Delivered".equals(newStatus) ? TRANSITION_RELEASE_DRIVER : TRANSITION_STAGE;
+    }
+
+    private static OrderStatusChanged statusChanged(Order order, String previousStatus, String status,
+                                                    boolean stageNewlyCompleted) {
+        Long driverId = order.getDriver() == null ? null : order.getDriver().getDriverId();
+        LocalDateTime previousTime = previousStatus == null ? null : stage(order, previousStatus).getTimestamp();
+        Customer customer = order.getCustomer();
+        return new OrderStatusChanged(order.getId(), driverId, previousStatus, status, stageNewlyCompleted,
+                stage(order, status).getTimestamp(), previousTime,
+                customer == null ? null : customer.getLatitude(), customer == null ? null : customer.getLongitude());
+    }
 
-                order.setStatus("Order Processing");
+    private static OrderStage stage(Order order, String status) {
+        switch (status) {
+            case "Order Placed":
+                return order.getOrderPlaced();
+            case "Order Processing":
+                return order.getOrderProcessing();
+            case "Out for Delivery":
+                return order.getOrderOutForDelivery();
+            case "Order Delivered":
+                return order.getOrderDelivered();
+            default:
+                throw new IllegalArgumentException("Invalid status: " + status);
+        }
+    }
+
+    // Re-estimates delivery from the stage just reached, once the driver is known. A
+    // delivered order keeps the estimate it was delivered against.
+    private void updateEstimatedDelivery(Order order, String newStatus) {
+        if (!"Order Delivered".equals(newStatus)) {
+            LocalDateTime stageTime = stage(order, newStatus).getTimestamp();
+            order.setEstimatedDelivery(etaEngine.estimateDelivery(order, newStatus, stageTime));
+        }
+    }
+
+    // Marks the stage for newStatus completed and sets the status label; returns whether
+    // the stage was newly completed. Driver assignment and release are left to callers.
+    private boolean applyStage(Order order, String newStatus) {
+        boolean stageNewlyCompleted;
+        switch (newStatus) {
+            case "Order Processing":
+                stageNewlyCompleted = !order.getOrderProcessing().isCompleted();
+                order.getOrderProcessing().setCompleted(true);
                 break;
             case "Out for Delivery":
+                stageNewlyCompleted = !order.getOrderOutForDelivery().isCompleted();
                 order.getOrderOutForDelivery().setCompleted(true);
-                order.setStatus("Out for Delivery");
                 break;
             case "Order Delivered":
+                stageNewlyCompleted = !order.getOrderDelivered().isCompleted();
                 order.getOrderDelivered().setCompleted(true);
-                order.setStatus("Order Delivered");
                 break;
             default:
                 throw new IllegalArgumentException("Invalid status: " + newStatus);
         }
-
-        return repository.save(order);
+        order.setStatus(newStatus);
+        return stageNewlyCompleted;
     }
 
-    public List<Order> getOrdersByStatus(String status) {
-        return repository.findAll().stream()
-                .filter(order -> status.equalsIgnoreCase(order.getStatus()))
-                .collect(Collectors.toList());
+    // Status views: one IN query over the status codes, keyset-paginated on
+    // (status, processing_time, order_id) so each page reads only its own rows.
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrdersByStatus(String status, String cursor, int size) {
+        return getOrdersByStatus(List.of(status), cursor, size);
     }
 
-    public List<Order> getOrdersByStatus(List<String> of) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getOrdersByStatus'");
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrdersByStatus(List<String> statuses, String cursor, int size) {
+        if (statuses == null || statuses.isEmpty()) {
+            throw new IllegalArgumentException("At least one status is required");
+        }
+        List<Byte> codes = statuses.stream()
+                .map(status -> OrderStatusCode.fromLabel(status).getCode())
+                .distinct()
+                .toList();
+        int pageSize = clampPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Order> rows;
+        if (cursor == null) {
+            rows = repository.findStatusPageAfter(codes, (byte) 0, EARLIEST, 0L, limit);
+        } else {
+            OrderCursor position = OrderCursor.decodeStatusTimeAndId(cursor);
+            rows = position.getTime() == null
+                    ? repository.findStatusPageAfterUnprocessed(codes, position.getStatus(), position.getId(), limit)
+                    : repository.findStatusPageAfter(codes, position.getStatus(), position.getTime(),
+                            position.getId(), limit);
+        }
+        return CursorPage.of(rows, pageSize, order -> OrderCursor.encode(order.getStatusCode(),
+                order.getOrderProcessing().getTimestamp(), order.getId()));
     }
 
-    public List<Order> getOrdersByStatuses(List<String> statuses) {
-        return repository.findAll().stream()
-                .filter(order -> statuses.contains(order.getStatus()))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrdersByStatuses(List<String> statuses, String cursor, int size) {
+        return getOrdersByStatus(statuses, cursor, size);
     }
 
 }
@@ -0,0 +1,161 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.msd.spring_boot_rest_api.dto.OrderStats;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory order counters for the dashboards. Seeded with one GROUP BY at startup,
+// kept current by OrderService on every transition/delete, and periodically replaced
+// with a fresh DB snapshot to correct any drift. Reads never touch the database and
+// reuse the last snapshot object until a counter actually changes.
+@Service
+public class OrderStatsService {
+
+    public static final String[] STAGES = {
+            "Order Placed", "Order Processing", "Out for Delivery", "Order Delivered"
+    };
+
+    private final OrderRepository repository;
+    private final AtomicReference<Counters> counters = new AtomicReference<>(new Counters(Instant.EPOCH));
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1, null);
+
+    public OrderStatsService(OrderRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${ldms.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${ldms.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        Counters fresh = new Counters(Instant.now());
+        for (Object[] row : repository.countByStatusWithStages()) {
+            String status = OrderStatusCode.labelOf((Byte) row[0]);
+            fresh.total.add(count(row[1]));
+            if (status != null) {
+                fresh.status(status).add(count(row[1]));
+            }
+            for (int stage = 0; stage < STAGES.length; stage++) {
+                fresh.stages[stage].add(count(row[2 + stage]));
+            }
+        }
+        counters.set(fresh);
+        version.incrementAndGet();
+    }
+
+    // Called after an order has moved from one status to another. stageNewlyCompleted is
+    // false when the target stage had already been completed before (re-applied status).
+    public void recordTransition(String fromStatus, String toStatus, boolean stageNewlyCompleted) {
+        Counters current = counters.get();
+        if (fromStatus != null) {
+            current.status(fromStatus).decrement();
+        }
+        current.status(toStatus).increment();
+        if (stageNewlyCompleted) {
+            int stage = stageIndex(toStatus);
+            if (stage >= 0) {
+                current.stages[stage].increment();
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    public void recordDeletion(Order order) {
+        Counters current = counters.get();
+        current.total.decrement();
+        if (order.getStatus() != null) {
+            current.status(order.getStatus()).decrement();
+        }
+        boolean[] completed = {
+                order.getOrderPlaced().isCompleted(),
+                order.getOrderProcessing().isCompleted(),
+                order.getOrderOutForDelivery().isCompleted(),
+                order.getOrderDelivered().isCompleted()
+        };
+        for (int stage = 0; stage < STAGES.length; stage++) {
+            if (completed[stage]) {
+                current.stages[stage].decrement();
+            }
+        }
+        version.incrementAndGet();
+    }
+
+    public OrderStats getStats() {
+        long currentVersion = version.get();
+        Snapshot cached = snapshot;
+        if (cached.version == currentVersion) {
+            return cached.stats;
+        }
+        Counters current = counters.get();
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        current.byStatus.forEach((status, adder) -> byStatus.put(status, adder.sum()));
+        Map<String, Long> byStage = new LinkedHashMap<>();
+        for (int stage = 0; stage < STAGES.length; stage++) {
+            byStage.put(STAGES[stage], current.stages[stage].sum());
+        }
+        OrderStats built = new OrderStats(current.total.sum(),
+                Collections.unmodifiableMap(byStatus), Collections.unmodifiableMap(byStage), current.reconciledAt);
+        // Published together so a reader never pairs one call's stats with another's version
+        snapshot = new Snapshot(currentVersion, built);
+        return built;
+    }
+
+    private static int stageIndex(String status) {
+        for (int i = 0; i < STAGES.length; i++) {
+            if (STAGES[i].equals(status)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long count(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final OrderStats stats;
+
+        Snapshot(long version, OrderStats stats) {
+            this.version = version;
+            this.stats = stats;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder total = new LongAdder();
+        final ConcurrentHashMap<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        final LongAdder[] stages = new LongAdder[STAGES.length];
+        final Instant reconciledAt;
+
+        Counters(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+            for (int i = 0; i < stages.length; i++) {
+                stages[i] = new LongAdder();
+            }
+        }
+
+        LongAdder status(String status) {
+            return byStatus.computeIfAbsent(status, s -> new LongAdder());
+        }
+    }
+}
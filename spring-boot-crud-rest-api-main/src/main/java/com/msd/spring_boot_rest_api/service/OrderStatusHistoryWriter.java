@@ -0,0 +1,109 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.msd.spring_boot_rest_api.event.OrderEventConsumer;
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Appends every status transition to order_status. Runs as the "history" consumer of the
+// OrderEventPipeline, which batches the events (ldms.pipeline.history.batch-size) and
+// retries when the database is unavailable.
+@Component
+public class OrderStatusHistoryWriter implements OrderEventConsumer<OrderStatusChanged> {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusHistoryWriter.class);
+
+    static final String INSERT_SQL =
+            "INSERT INTO order_status (order_id, status, time, completed) VALUES (?, ?, ?, ?)";
+    static final String DELETE_SQL = "DELETE FROM order_status WHERE order_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter failed;
+
+    public OrderStatusHistoryWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failed = Counter.builder("ldms.order.history.failed")
+                .description("Status history rows dropped from a batch whose other rows were written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "history";
+    }
+
+    @Override
+    public Class<OrderStatusChanged> getEventType() {
+        return OrderStatusChanged.class;
+    }
+
+    // A failed batch is retried row by row so one bad row does not lose the others. A row
+    // that violates a constraint is dropped: its order was deleted after the transition,
+    // and retrying cannot bring it back. If no row can be written for any other reason the
+    // database is more likely down, and the error goes back to the pipeline to retry the batch.
+    @Override
+    public void accept(List<OrderStatusChanged> events) {
+        try {
+            insert(events);
+            return;
+        } catch (DataIntegrityViolationException e) {
+            if (events.size() == 1) {
+                drop(events.get(0), e);
+                return;
+            }
+        } catch (DataAccessException e) {
+            if (events.size() == 1) {
+                throw e;
+            }
+        }
+        int skipped = 0;
+        int written = 0;
+        DataAccessException last = null;
+        for (OrderStatusChanged event : events) {
+            try {
+                insert(List.of(event));
+                written++;
+            } catch (DataIntegrityViolationException rowError) {
+                drop(event, rowError);
+            } catch (DataAccessException rowError) {
+                skipped++;
+                last = rowError;
+                log.error("Failed to write order status history for order {}", event.getOrderId(), rowError);
+            }
+        }
+        if (written == 0 && last != null) {
+            throw last;
+        }
+        failed.increment(skipped);
+    }
+
+    // Removes an order's history so the order row itself can be deleted. Call it with the
+    // order row locked; history rows queued meanwhile then fail and are dropped.
+    public void deleteHistory(Long orderId) {
+        jdbcTemplate.update(DELETE_SQL, orderId);
+    }
+
+    private void drop(OrderStatusChanged event, DataIntegrityViolationException e) {
+        failed.increment();
+        log.warn("Dropped order status history for order {}, most likely deleted meanwhile: {}",
+                event.getOrderId(), e.getMostSpecificCause().getMessage());
+    }
+
+    private void insert(List<OrderStatusChanged> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getOrderId());
+            ps.setString(2, event.getStatus());
+            ps.setTimestamp(3, Timestamp.valueOf(event.getTime()));
+            ps.setBoolean(4, true);
+        });
+    }
+}
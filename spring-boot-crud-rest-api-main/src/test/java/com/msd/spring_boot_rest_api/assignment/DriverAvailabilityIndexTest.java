@@ -0,0 +1,113 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DriverAvailabilityIndexTest {
+
+    @Mock
+    private DriverRepository driverRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private DriverAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DriverAvailabilityIndex(driverRepository, orderRepository);
+    }
+
+    @Test
+    void testLeastLoadedPicksDriverWithFewestActiveOrders() {
+        index.replaceAll(List.of(1L, 2L, 3L), Map.of(1L, 2, 2L, 0, 3L, 1));
+        DriverAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy(index);
+
+        assertEquals(Optional.of(2L), strategy.assign(new Order()));
+        assertEquals(Optional.of(2L), strategy.assign(new Order())); // tie 2:1 vs 3:1, lower id wins
+        assertEquals(Optional.of(3L), strategy.assign(new Order()));
+        assertEquals(2, index.activeOrders(2L));
+    }
+
+    @Test
+    void testReleaseMakesDriverPreferredAgain() {
+        index.replaceAll(List.of(1L, 2L), Map.of(1L, 1, 2L, 1));
+
+        index.release(2L);
+
+        assertEquals(Optional.of(2L), index.acquireLeastLoaded());
+    }
+
+    @Test
+    void testRemovedDriverIsNeverAssigned() {
+        index.replaceAll(List.of(1L, 2L), Map.of());
+        index.removeDriver(1L);
+        DriverAssignmentStrategy strategy = new RoundRobinAssignmentStrategy(index);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of(2L), strategy.assign(new Order()));
+        }
+        index.removeDriver(2L);
+        assertTrue(strategy.assign(new Order()).isEmpty());
+    }
+
+    @Test
+    void testRoundRobinCyclesThroughDrivers() {
+        index.replaceAll(List.of(3L, 1L, 2L), Map.of());
+        DriverAssignmentStrategy strategy = new RoundRobinAssignmentStrategy(index);
+
+        List<Long> picks = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            picks.add(strategy.assign(new Order()).orElseThrow());
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 1L, 2L, 3L), picks);
+    }
+
+    @Test
+    void testConcurrentAssignmentsStayBalanced() throws Exception {
+        int drivers = 100;
+        int assignmentsPerThread = 1_000;
+        int threads = 8;
+        index.replaceAll(LongStream.rangeClosed(1, drivers).boxed().toList(), Map.of());
+        DriverAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy(index);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < assignmentsPerThread; i++) {
+                    strategy.assign(new Order()).orElseThrow();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        // 8000 assignments over 100 drivers: least-loaded keeps every driver at exactly 80
+        int expected = threads * assignmentsPerThread / drivers;
+        for (long id = 1; id <= drivers; id++) {
+            assertEquals(expected, index.activeOrders(id));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.msd.spring_boot_rest_api.assignment;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpatialGridIndexTest {
+
+    @Mock
+    private DriverRepository driverRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private SpatialGridIndex grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new SpatialGridIndex(driverRepository, 0.05, 200);
+    }
+
+    @Test
+    void testNearestMatchesBruteForce() {
+        Random random = new Random(42);
+        Map<Long, double[]> drivers = new HashMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            double lat = 6.8 + random.nextDouble() * 0.4;
+            double lng = 79.8 + random.nextDouble() * 0.4;
+            drivers.put(id, new double[] {lat, lng});
+            grid.update(id, lat, lng);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double lat = 6.8 + random.nextDouble() * 0.4;
+            double lng = 79.8 + random.nextDouble() * 0.4;
+
+            List<Long> expected = drivers.entrySet().stream()
+                    .sorted(Comparator.comparingDouble(e ->
+                            SpatialGridIndex.distanceKm(lat, lng, e.getValue()[0], e.getValue()[1])))
+                    .limit(5)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, grid.nearest(lat, lng, 5, id -> true));
+        }
+    }
+
+    @Test
+    void testMovedDriverIsFoundAtNewPosition() {
+        grid.update(1L, 6.90, 79.85);
+        grid.update(2L, 7.30, 80.60);
+
+        grid.update(2L, 6.91, 79.86);
+
+        assertEquals(List.of(1L, 2L), grid.nearest(6.90, 79.85, 2, id -> true));
+        assertEquals(2, grid.size());
+    }
+
+    @Test
+    void testFilterSkipsIneligibleDrivers() {
+        grid.update(1L, 6.90, 79.85);
+        grid.update(2L, 6.95, 79.90);
+
+        assertEquals(List.of(2L), grid.nearest(6.90, 79.85, 1, id -> id != 1L));
+    }
+
+    @Test
+    void testRemovedDriverIsNotReturned() {
+        grid.update(1L, 6.90, 79.85);
+        grid.remove(1L);
+
+        assertTrue(grid.nearest(6.90, 79.85, 3, id -> true).isEmpty());
+    }
+
+    @Test
+    void testConcurrentMovesLeaveDriverInOneCell() throws Exception {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> moves = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                double latitude = 6.0 + t;
+                moves.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        grid.update(1L, latitude, 80.0 + (i % 3));
+                        if (i % 7 == 0) {
+                            grid.remove(1L);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> move : moves) {
+                move.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        grid.update(1L, 6.90, 79.85);
+
+        assertEquals(1, grid.size());
+        assertEquals(1, grid.cellEntries());
+        assertEquals(List.of(1L), grid.nearest(6.90, 79.85, 5, id -> true));
+    }
+
+    @Test
+    void testNearestStrategyPicksClosestDriverWithCapacity() {
+        DriverAvailabilityIndex availability = new DriverAvailabilityIndex(driverRepository, orderRepository);
+        availability.replaceAll(List.of(1L, 2L, 3L), Map.of(1L, 2));
+        grid.update(1L, 6.900, 79.850); // closest, but already at capacity
+        grid.update(2L, 6.920, 79.870);
+        grid.update(3L, 7.200, 80.100);
+        NearestDriverAssignmentStrategy strategy = new NearestDriverAssignmentStrategy(grid, availability, 2, 4);
+
+        Customer customer = new Customer();
+        customer.setLatitude(6.901);
+        customer.setLongitude(79.851);
+        Order order = new Order();
+        order.setCustomer(customer);
+
+        assertEquals(Optional.of(2L), strategy.assign(order));
+        assertEquals(1, availability.activeOrders(2L));
+    }
+
+    @Test
+    void testNearestStrategyFallsBackToLeastLoadedWithoutCoordinates() {
+        DriverAvailabilityIndex availability = new DriverAvailabilityIndex(driverRepository, orderRepository);
+        availability.replaceAll(List.of(1L, 2L), Map.of(1L, 3));
+        NearestDriverAssignmentStrategy strategy = new NearestDriverAssignmentStrategy(grid, availability, 10, 4);
+
+        Order order = new Order();
+        order.setCustomer(new Customer());
+
+        assertEquals(Optional.of(2L), strategy.assign(order));
+    }
+
+    @Test
+    void testNearestStrategyFallbackRespectsCapacity() {
+        DriverAvailabilityIndex availability = new DriverAvailabilityIndex(driverRepository, orderRepository);
+        availability.replaceAll(List.of(1L, 2L), Map.of(1L, 2, 2L, 2));
+        NearestDriverAssignmentStrategy strategy = new NearestDriverAssignmentStrategy(grid, availability, 2, 4);
+
+        Order order = new Order();
+        order.setCustomer(new Customer());
+
+        assertEquals(Optional.empty(), strategy.assign(order));
+        assertEquals(2, availability.activeOrders(1L));
+        assertEquals(2, availability.activeOrders(2L));
+    }
+}
@@ -0,0 +1,219 @@
+package com.msd.spring_boot_rest_api.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderColumnMigrationTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:order_column_migration;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final OrderColumnMigration migration = new OrderColumnMigration(jdbcTemplate);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create table orders (order_id bigint primary key, "
+                + "status varchar(255) not null, estimated_delivery varchar(255) not null)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists order_status");
+        jdbcTemplate.execute("drop table if exists orders");
+    }
+
+    @Test
+    void testStringValuesAreConvertedToTimestamps() {
+        // What LocalDateTime.toString() used to store: seconds and fractions only when non-zero
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00'), "
+                + "(2, 'Order Placed', '2025-06-02T12:00:30'), (3, 'Order Placed', '2025-06-02T12:00:30.250')");
+
+        migration.migrate();
+
+        assertEquals("TIMESTAMP", columnType("ESTIMATED_DELIVERY"));
+        List<LocalDateTime> values = jdbcTemplate.queryForList(
+                "select estimated_delivery from orders order by order_id", LocalDateTime.class);
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 6, 2, 12, 0),
+                LocalDateTime.of(2025, 6, 2, 12, 0, 30),
+                LocalDateTime.of(2025, 6, 2, 12, 0, 30, 250_000_000)), values);
+    }
+
+    @Test
+    void testStatusLabelsAreConvertedToCodes() {
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00'), "
+                + "(2, 'Order Processing', '2025-06-02T12:00'), (3, 'Out for Delivery', '2025-06-02T12:00'), "
+                + "(4, 'Order Delivered', '2025-06-02T12:00')");
+
+        migration.migrate();
+
+        assertEquals("TINYINT", columnType("STATUS"));
+        assertEquals(List.of(1, 2, 3, 4),
+                jdbcTemplate.queryForList("select status from orders order by order_id", Integer.class));
+    }
+
+    @Test
+    void testStatusConversionCanRunAgainAfterStoppingHalfway() {
+        // The values were rewritten but the column type was never changed
+        jdbcTemplate.update("insert into orders values (1, '1', '2025-06-02T12:00'), "
+                + "(2, '3', '2025-06-02T12:00'), (3, 'Order Delivered', '2025-06-02T12:00')");
+
+        migration.migrate();
+
+        assertEquals("TINYINT", columnType("STATUS"));
+        assertEquals(List.of(1, 3, 4),
+                jdbcTemplate.queryForList("select status from orders order by order_id", Integer.class));
+    }
+
+    @Test
+    void testConvertedColumnsAreNotNull() {
+        jdbcTemplate.execute("alter table orders alter column status set null");
+        jdbcTemplate.execute("alter table orders alter column estimated_delivery set null");
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00')");
+
+        migration.migrate();
+
+        assertEquals("NO", nullable("STATUS"));
+        assertEquals("NO", nullable("ESTIMATED_DELIVERY"));
+    }
+
+    @Test
+    void testMissingEstimatedDeliveryStopsTheConversion() {
+        jdbcTemplate.execute("alter table orders alter column estimated_delivery set null");
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00'), "
+                + "(2, 'Order Placed', null)");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, migration::migrate);
+        assertTrue(error.getMessage().startsWith("1 rows have no value in orders.estimated_delivery"));
+        assertEquals("CHARACTER VARYING", columnType("ESTIMATED_DELIVERY"));
+        assertEquals("2025-06-02T12:00",
+                jdbcTemplate.queryForObject("select estimated_delivery from orders where order_id = 1", String.class));
+    }
+
+    @Test
+    void testUnparseableEstimatedDeliveryStopsTheConversion() {
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00'), "
+                + "(2, 'Order Placed', '02/06/2025 12:00')");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, migration::migrate);
+        assertTrue(error.getMessage().startsWith("1 rows have a value in orders.estimated_delivery that is not"));
+        assertEquals("CHARACTER VARYING", columnType("ESTIMATED_DELIVERY"));
+        assertEquals(List.of("2025-06-02T12:00", "02/06/2025 12:00"),
+                jdbcTemplate.queryForList("select estimated_delivery from orders order by order_id", String.class));
+    }
+
+    @Test
+    void testEstimatedDeliveryConversionCanRunAgainAfterStoppingHalfway() {
+        // The values were normalised but the column type was never changed
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02 12:00:00'), "
+                + "(2, 'Order Placed', '2025-06-02T12:30')");
+
+        migration.migrate();
+
+        assertEquals("TIMESTAMP", columnType("ESTIMATED_DELIVERY"));
+        assertEquals(List.of(LocalDateTime.of(2025, 6, 2, 12, 0), LocalDateTime.of(2025, 6, 2, 12, 30)),
+                jdbcTemplate.queryForList("select estimated_delivery from orders order by order_id",
+                        LocalDateTime.class));
+    }
+
+    @Test
+    void testMissingStatusStopsTheConversion() {
+        jdbcTemplate.execute("alter table orders alter column status set null");
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00'), "
+                + "(2, null, '2025-06-02T12:00')");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, migration::migrate);
+        assertTrue(error.getMessage().startsWith("1 orders have no status"));
+        assertEquals("CHARACTER VARYING", columnType("STATUS"));
+        assertEquals("Order Placed",
+                jdbcTemplate.queryForObject("select status from orders where order_id = 1", String.class));
+    }
+
+    @Test
+    void testUnknownStatusStopsTheConversion() {
+        jdbcTemplate.update("insert into orders values (1, 'Order Placed', '2025-06-02T12:00'), "
+                + "(2, 'Lost', '2025-06-02T12:00')");
+
+        assertThrows(IllegalStateException.class, migration::migrate);
+        assertEquals("CHARACTER VARYING", columnType("STATUS"));
+        assertEquals(List.of("Order Placed", "Lost"),
+                jdbcTemplate.queryForList("select status from orders order by order_id", String.class));
+    }
+
+    @Test
+    void testConvertedColumnsAreLeftAlone() {
+        jdbcTemplate.execute("alter table orders alter column estimated_delivery set data type timestamp(6)");
+        jdbcTemplate.execute("alter table orders alter column status set data type tinyint");
+        jdbcTemplate.update("insert into orders values (1, 2, timestamp '2025-06-02 12:00:00')");
+
+        migration.migrate();
+        migration.migrate();
+
+        assertEquals("TIMESTAMP", columnType("ESTIMATED_DELIVERY"));
+        assertEquals("TINYINT", columnType("STATUS"));
+        assertEquals(LocalDateTime.of(2025, 6, 2, 12, 0),
+                jdbcTemplate.queryForObject("select estimated_delivery from orders", LocalDateTime.class));
+        assertEquals(2, jdbcTemplate.queryForObject("select status from orders", Integer.class));
+    }
+
+    @Test
+    void testStatusHistoryTimesAreConvertedToTimestamps() {
+        createStatusHistory();
+        jdbcTemplate.update("insert into orders values (1, 'Order Processing', '2025-06-02T12:00')");
+        jdbcTemplate.update("insert into order_status (order_id, status, time, completed) values "
+                + "(1, 'Order Placed', '2025-06-01T09:00', true), (1, 'Order Processing', '2025-06-01T10:15:30.5', true)");
+
+        migration.migrate();
+
+        assertEquals("TIMESTAMP", jdbcTemplate.queryForObject("select data_type from information_schema.columns "
+                + "where table_name = 'ORDER_STATUS' and column_name = 'TIME'", String.class));
+        assertEquals(List.of(LocalDateTime.of(2025, 6, 1, 9, 0), LocalDateTime.of(2025, 6, 1, 10, 15, 30, 500_000_000)),
+                jdbcTemplate.queryForList("select time from order_status order by status_id", LocalDateTime.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.indexes "
+                + "where index_name = 'IDX_ORDER_STATUS_ORDER_TIME'", Integer.class));
+    }
+
+    @Test
+    void testUnparseableStatusHistoryTimeStopsTheConversion() {
+        createStatusHistory();
+        jdbcTemplate.update("insert into orders values (1, 'Order Processing', '2025-06-02T12:00')");
+        jdbcTemplate.update("insert into order_status (order_id, status, time, completed) values "
+                + "(1, 'Order Placed', 'yesterday', true)");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, migration::migrate);
+        assertTrue(error.getMessage().startsWith("1 rows have a value in order_status.time that is not"));
+        assertEquals("yesterday", jdbcTemplate.queryForObject("select time from order_status", String.class));
+    }
+
+    @Test
+    void testMissingTableIsIgnored() {
+        jdbcTemplate.execute("drop table orders");
+
+        assertDoesNotThrow(migration::migrate);
+    }
+
+    // The table as created before time became a LocalDateTime
+    private void createStatusHistory() {
+        jdbcTemplate.execute("create table order_status (status_id bigint auto_increment primary key, "
+                + "status varchar(255) not null, time varchar(255) not null, completed boolean not null, "
+                + "order_id bigint not null references orders (order_id))");
+        jdbcTemplate.execute("create index idx_order_status_order_time on order_status (order_id, time)");
+    }
+
+    private String columnType(String column) {
+        return jdbcTemplate.queryForObject("select data_type from information_schema.columns "
+                + "where table_name = 'ORDERS' and column_name = ?", String.class, column);
+    }
+
+    private String nullable(String column) {
+        return jdbcTemplate.queryForObject("select is_nullable from information_schema.columns "
+                + "where table_name = 'ORDERS' and column_name = ?", String.class, column);
+    }
+}
@@ -0,0 +1,36 @@
+package com.msd.spring_boot_rest_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadConfigTest {
+
+    @Test
+    void testUnsetHikariPoolSizeFallsBackToHikariDefault() {
+        BeanPostProcessor postProcessor =
+                VirtualThreadConfig.connectionLimitingDataSourcePostProcessor(new MockEnvironment());
+
+        Object limited = postProcessor.postProcessAfterInitialization(new HikariDataSource(), "dataSource");
+
+        assertEquals(10, ((ConnectionLimitingDataSource) limited).getMaxConcurrency());
+    }
+
+    @Test
+    void testConfiguredPoolSizeAndOverride() {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setMaximumPoolSize(25);
+
+        Object fromPool = VirtualThreadConfig.connectionLimitingDataSourcePostProcessor(new MockEnvironment())
+                .postProcessAfterInitialization(hikari, "dataSource");
+        Object overridden = VirtualThreadConfig.connectionLimitingDataSourcePostProcessor(
+                        new MockEnvironment().withProperty("ldms.db.max-concurrency", "4"))
+                .postProcessAfterInitialization(new HikariDataSource(), "dataSource");
+
+        assertEquals(25, ((ConnectionLimitingDataSource) fromPool).getMaxConcurrency());
+        assertEquals(4, ((ConnectionLimitingDataSource) overridden).getMaxConcurrency());
+    }
+}
@@ -2,15 +2,20 @@ package com.msd.spring_boot_rest_api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.msd.spring_boot_rest_api.dto.LoginRequest;
+import com.msd.spring_boot_rest_api.exception.ServiceUnavailableException;
 import com.msd.spring_boot_rest_api.model.Role;
 import com.msd.spring_boot_rest_api.model.User;
 import com.msd.spring_boot_rest_api.repository.UserRepository;
 import com.msd.spring_boot_rest_api.security.JwtTokenProvider;
+import com.msd.spring_boot_rest_api.security.PasswordVerifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,6 +25,8 @@ import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +40,12 @@ class AuthControllerTest {
     @Mock
     private JwtTokenProvider tokenProvider;
 
+    @Mock
+    private PasswordVerifier passwordVerifier;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthController authController;
 
@@ -56,6 +69,7 @@ class AuthControllerTest {
         String token = "mock-jwt-token";
 
         when(userRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(user));
+        when(passwordVerifier.verify("password123", "password123")).thenReturn(PasswordVerifier.Result.matched(null));
         when(tokenProvider.generateToken(anyString(), any(Role.class))).thenReturn(token);
 
         // When & Then
@@ -67,7 +81,57 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.tokenType").value("Bearer"));
 
         verify(userRepository).findByEmail("admin@test.com");
+        verify(userRepository, never()).save(any(User.class));
         verify(tokenProvider).generateToken("admin@test.com", Role.ADMIN);
+        assertEquals(1, loginCount("success"));
+    }
+
+    @Test
+    void testLoginUpgradesLegacyPassword() throws Exception {
+        // Given
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("admin@test.com");
+        loginRequest.setPassword("password123");
+
+        User user = new User("admin@test.com", "password123", Role.ADMIN);
+
+        when(userRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(user));
+        when(passwordVerifier.verify("password123", "password123"))
+                .thenReturn(PasswordVerifier.Result.matched("{bcrypt}$2a$10$hash"));
+        when(tokenProvider.generateToken("admin@test.com", Role.ADMIN)).thenReturn("mock-jwt-token");
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk());
+
+        verify(userRepository).save(user);
+        assertEquals("{bcrypt}$2a$10$hash", user.getPassword());
+    }
+
+    @Test
+    void testLoginRejectedWhenVerifierSaturated() throws Exception {
+        // Given
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail("admin@test.com");
+        loginRequest.setPassword("password123");
+
+        User user = new User("admin@test.com", "password123", Role.ADMIN);
+
+        when(userRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(user));
+        when(passwordVerifier.verify("password123", "password123"))
+                .thenThrow(new ServiceUnavailableException("Too many concurrent logins, please retry"));
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable());
+
+        verifyNoInteractions(tokenProvider);
+        assertEquals(1, loginCount("rejected"));
+        assertNull(meterRegistry.find("ldms.auth.login").tag("outcome", "success").timer());
     }
 
     @Test
@@ -88,6 +152,7 @@ class AuthControllerTest {
 
         verify(userRepository).findByEmail("nonexistent@test.com");
         verifyNoInteractions(tokenProvider);
+        verifyNoInteractions(passwordVerifier);
     }
 
     @Test
@@ -100,6 +165,7 @@ class AuthControllerTest {
         User user = new User("admin@test.com", "password123", Role.ADMIN);
 
         when(userRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(user));
+        when(passwordVerifier.verify("wrongpassword", "password123")).thenReturn(PasswordVerifier.Result.mismatch());
 
         // When & Then
         mockMvc.perform(post("/api/auth/login")
@@ -123,6 +189,7 @@ class AuthControllerTest {
         String warehouseToken = "warehouse-jwt-token";
 
         when(userRepository.findByEmail("warehouse@test.com")).thenReturn(Optional.of(warehouseUser));
+        when(passwordVerifier.verify("password123", "password123")).thenReturn(PasswordVerifier.Result.matched(null));
         when(tokenProvider.generateToken("warehouse@test.com", Role.WAREHOUSE)).thenReturn(warehouseToken);
 
         mockMvc.perform(post("/api/auth/login")
@@ -150,4 +217,8 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.token").value(driverToken))
                 .andExpect(jsonPath("$.tokenType").value("Bearer"));
     }
+
+    private long loginCount(String outcome) {
+        return meterRegistry.get("ldms.auth.login").tag("outcome", outcome).timer().count();
+    }
 }
@@ -0,0 +1,79 @@
+package com.msd.spring_boot_rest_api.controller;
+
+import com.msd.spring_boot_rest_api.dto.CustomerSearchResult;
+import com.msd.spring_boot_rest_api.exception.GlobalExceptionHandler;
+import com.msd.spring_boot_rest_api.search.CustomerSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerControllerTest {
+
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @InjectMocks
+    private CustomerController customerController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(customerController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testSearchReturnsSuggestions() throws Exception {
+        // Given
+        when(searchIndex.search("ali", 10)).thenReturn(List.of(
+                new CustomerSearchResult(7L, "Alice Perera", "alice@ldms.com", "555-0107"),
+                new CustomerSearchResult(3L, "Kalina Silva", "kalina@ldms.com", "555-0103")));
+
+        // When & Then
+        mockMvc.perform(get("/api/customers/search").param("q", "ali"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].customerId").value(7))
+                .andExpect(jsonPath("$[0].customerName").value("Alice Perera"))
+                .andExpect(jsonPath("$[0].customerEmail").value("alice@ldms.com"))
+                .andExpect(jsonPath("$[0].customerPhone").value("555-0107"))
+                .andExpect(jsonPath("$[1].customerId").value(3));
+
+        verify(searchIndex).search("ali", 10);
+    }
+
+    @Test
+    void testSearchPassesLimit() throws Exception {
+        // Given
+        when(searchIndex.search("555", 3)).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/customers/search").param("q", "555").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testSearchRejectsInvalidQuery() throws Exception {
+        // Given
+        when(searchIndex.search(" ", 10)).thenThrow(new IllegalArgumentException("q must not be blank"));
+
+        // When & Then
+        mockMvc.perform(get("/api/customers/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
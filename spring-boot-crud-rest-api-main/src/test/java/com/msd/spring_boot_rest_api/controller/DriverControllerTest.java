@@ -1,19 +1,26 @@
 package com.msd.spring_boot_rest_api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msd.spring_boot_rest_api.assignment.SpatialGridIndex;
+import com.msd.spring_boot_rest_api.dto.LocationUpdateRequest;
 import com.msd.spring_boot_rest_api.model.Driver;
 import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import com.msd.spring_boot_rest_api.service.OrderEventBroadcaster;
+import com.msd.spring_boot_rest_api.service.OrderResponseCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -25,6 +32,15 @@ class DriverControllerTest {
     @Mock
     private DriverRepository driverRepository;
 
+    @Mock
+    private SpatialGridIndex spatialIndex;
+
+    @Mock
+    private OrderResponseCache orderResponseCache;
+
+    @Mock
+    private OrderEventBroadcaster eventBroadcaster;
+
     @InjectMocks
     private DriverController driverController;
 
@@ -65,6 +81,76 @@ class DriverControllerTest {
         verify(driverRepository).findAll();
     }
 
+    @Test
+    void testUpdateLocation() throws Exception {
+        // Given
+        Driver driver = new Driver();
+        driver.setDriverId(1L);
+        driver.setDriverName("John Doe");
+        driver.setVehicle("Truck-001");
+        when(driverRepository.findById(1L)).thenReturn(Optional.of(driver));
+        when(driverRepository.save(driver)).thenReturn(driver);
+
+        LocationUpdateRequest request = new LocationUpdateRequest();
+        request.setLatitude(6.9271);
+        request.setLongitude(79.8612);
+
+        // When & Then
+        mockMvc.perform(put("/api/drivers/1/location")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.latitude").value(6.9271))
+                .andExpect(jsonPath("$.longitude").value(79.8612));
+
+        verify(spatialIndex).update(1L, 6.9271, 79.8612);
+        verify(orderResponseCache).invalidateDriver(1L);
+    }
+
+    @Test
+    void testUpdateLocationDriverNotFound() throws Exception {
+        // Given
+        when(driverRepository.findById(99L)).thenReturn(Optional.empty());
+
+        LocationUpdateRequest request = new LocationUpdateRequest();
+        request.setLatitude(6.9);
+        request.setLongitude(79.8);
+
+        // When & Then
+        mockMvc.perform(put("/api/drivers/99/location")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(spatialIndex);
+    }
+
+    @Test
+    void testDriverEventsOpensStream() throws Exception {
+        // Given
+        when(driverRepository.findById(1L)).thenReturn(Optional.of(new Driver()));
+        when(eventBroadcaster.subscribeToDriver(1L, null)).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/drivers/1/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(eventBroadcaster).subscribeToDriver(1L, null);
+    }
+
+    @Test
+    void testDriverEventsDriverNotFound() throws Exception {
+        // Given
+        when(driverRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/drivers/99/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(eventBroadcaster);
+    }
+
     @Test
     void testApiWorking() throws Exception {
         // When & Then
@@ -0,0 +1,149 @@
+package com.msd.spring_boot_rest_api.eta;
+
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryEtaEngineTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 2, 12, 0);
+    private static final double LAT = 51.50;
+    private static final double LNG = -0.12;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWithoutHistoryEveryLegTakesTheDefault() {
+        DeliveryEtaEngine engine = engine("");
+
+        assertEquals(NOON.plusHours(40), engine.estimateDelivery(order(null, false), "Order Processing", NOON));
+        assertEquals(NOON.plusHours(20), engine.estimateDelivery(order(null, false), "Out for Delivery", NOON));
+        assertEquals(NOON, engine.estimateDelivery(order(null, false), "Order Delivered", NOON));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.estimateDelivery(order(null, false), "Order Placed", NOON));
+    }
+
+    @Test
+    void testEstimateFollowsTheMedianOfRecordedLegs() {
+        DeliveryEtaEngine engine = engine("");
+        // Fleet-wide: the last leg takes 60 to 100 minutes, median 80; nothing else is known
+        engine.accept(legs(null, false, "Order Delivered", 60, 100));
+
+        assertEquals(NOON.plusMinutes(80), engine.estimateDelivery(order(null, false), "Out for Delivery", NOON));
+        assertEquals(NOON.plusMinutes(1200 + 80),
+                engine.estimateDelivery(order(null, false), "Order Processing", NOON));
+    }
+
+    @Test
+    void testDriverThenRegionThenFleet() {
+        DeliveryEtaEngine engine = engine("");
+        // Most of the fleet's deliveries take 100 minutes
+        for (int i = 0; i < 3; i++) {
+            engine.accept(legs(null, false, "Order Delivered", 100, 100));
+        }
+        engine.accept(legs(null, true, "Order Delivered", 40, 40));
+        engine.accept(legs(7L, false, "Order Delivered", 20, 20));
+        // Too few samples to count yet
+        engine.accept(legs(8L, false, "Order Delivered", 5, 5).subList(0, 3));
+
+        assertEquals(NOON.plusMinutes(20), engine.estimateDelivery(order(7L, true), "Out for Delivery", NOON));
+        assertEquals(NOON.plusMinutes(40), engine.estimateDelivery(order(8L, true), "Out for Delivery", NOON));
+        assertEquals(NOON.plusMinutes(40), engine.estimateDelivery(order(null, true), "Out for Delivery", NOON));
+        assertEquals(NOON.plusMinutes(100), engine.estimateDelivery(order(8L, false), "Out for Delivery", NOON));
+    }
+
+    @Test
+    void testRepeatedStagesAreNotRecorded() {
+        DeliveryEtaEngine engine = engine("");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        engine.bindTo(registry);
+        List<OrderStatusChanged> events = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            events.add(new OrderStatusChanged((long) i, null, "Out for Delivery", "Order Delivered", false,
+                    NOON.plusMinutes(5), NOON, null, null));
+        }
+
+        engine.accept(events);
+
+        assertEquals(0.0, registry.get("ldms.eta.samples").functionCounter().count());
+        assertEquals(NOON.plusHours(20), engine.estimateDelivery(order(null, false), "Out for Delivery", NOON));
+    }
+
+    @Test
+    void testCheckpointRestoresTheSketches() {
+        Path checkpoint = tempDir.resolve("eta/sketches.bin");
+        DeliveryEtaEngine engine = engine(checkpoint.toString());
+        engine.accept(legs(7L, true, "Out for Delivery", 30, 50));
+        engine.accept(legs(null, false, "Order Delivered", 60, 100));
+        engine.checkpoint();
+        assertTrue(Files.exists(checkpoint));
+
+        DeliveryEtaEngine restarted = engine(checkpoint.toString());
+        restarted.restore();
+
+        for (DeliveryEtaEngine candidate : List.of(engine, restarted)) {
+            assertEquals(NOON.plusMinutes(40 + 80),
+                    candidate.estimateDelivery(order(7L, true), "Order Processing", NOON));
+            assertEquals(NOON.plusMinutes(40 + 80),
+                    candidate.estimateDelivery(order(null, true), "Order Processing", NOON));
+        }
+    }
+
+    @Test
+    void testUnreadableCheckpointStartsEmpty() throws Exception {
+        Path checkpoint = tempDir.resolve("sketches.bin");
+        Files.writeString(checkpoint, "not a checkpoint");
+        DeliveryEtaEngine engine = engine(checkpoint.toString());
+
+        engine.restore();
+
+        assertEquals(NOON.plusHours(20), engine.estimateDelivery(order(null, false), "Out for Delivery", NOON));
+    }
+
+    private static DeliveryEtaEngine engine(String checkpointPath) {
+        return new DeliveryEtaEngine(0.5, 20, 1200, 0.5, checkpointPath);
+    }
+
+    // 21 legs ending in status, evenly spread from min to max minutes
+    private static List<OrderStatusChanged> legs(Long driverId, boolean geocoded, String status, int min, int max) {
+        String previous = DeliveryEtaEngine.LEG_ENDS.indexOf(status) == 0
+                ? "Order Placed" : DeliveryEtaEngine.LEG_ENDS.get(DeliveryEtaEngine.LEG_ENDS.indexOf(status) - 1);
+        List<OrderStatusChanged> events = new ArrayList<>();
+        for (int i = 0; i <= 20; i++) {
+            int minutes = min + (max - min) * i / 20;
+            events.add(new OrderStatusChanged((long) i, driverId, previous, status, true, NOON.plusMinutes(minutes),
+                    NOON, geocoded ? LAT : null, geocoded ? LNG : null));
+        }
+        return events;
+    }
+
+    private static Order order(Long driverId, boolean geocoded) {
+        Order order = new Order();
+        if (driverId != null) {
+            Driver driver = new Driver();
+            driver.setDriverId(driverId);
+            order.setDriver(driver);
+        }
+        Customer customer = new Customer();
+        if (geocoded) {
+            // Same region as the recorded legs, a few km away
+            customer.setLatitude(LAT + 0.02);
+            customer.setLongitude(LNG + 0.02);
+        }
+        order.setCustomer(customer);
+        return order;
+    }
+}
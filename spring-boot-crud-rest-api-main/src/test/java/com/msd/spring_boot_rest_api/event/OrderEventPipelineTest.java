@@ -0,0 +1,216 @@
+package com.msd.spring_boot_rest_api.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventPipelineTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("ldms.pipeline.retry-backoff-ms", "1")
+            .withProperty("ldms.pipeline.poll-interval-ms", "20");
+    private OrderEventPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void testEventsReachEveryConsumerOfTheirTypeInBatches() {
+        environment.setProperty("ldms.pipeline.batch-size", "10");
+        RecordingConsumer<String> strings = new RecordingConsumer<>("strings", String.class);
+        RecordingConsumer<Long> longs = new RecordingConsumer<>("longs", Long.class);
+        start(strings, longs);
+
+        for (int i = 0; i < 25; i++) {
+            pipeline.publish("event-" + i);
+        }
+        pipeline.publish(7L);
+        pipeline.flush();
+
+        assertEquals(25, strings.events.size());
+        assertEquals("event-0", strings.events.get(0));
+        assertEquals("event-24", strings.events.get(24));
+        assertTrue(strings.batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(List.of(7L), longs.events);
+        assertEquals(25.0, count("strings", "processed"));
+        assertEquals(25, registry.get("ldms.pipeline.delay").tag("consumer", "strings").timer().count());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedUntilItSucceeds() {
+        RecordingConsumer<String> flaky = new RecordingConsumer<>("flaky", String.class);
+        flaky.failures.set(2);
+        start(flaky);
+
+        pipeline.publish("a");
+        pipeline.flush();
+
+        assertEquals(List.of("a"), flaky.events);
+        assertEquals(3, flaky.attempts.get());
+        assertEquals(2.0, count("flaky", "retried"));
+        assertEquals(1.0, count("flaky", "processed"));
+        assertEquals(0.0, count("flaky", "failed"));
+    }
+
+    @Test
+    void testBatchIsGivenUpAfterMaxAttempts() {
+        environment.setProperty("ldms.pipeline.broken.max-attempts", "3");
+        RecordingConsumer<String> broken = new RecordingConsumer<>("broken", String.class);
+        broken.failures.set(Integer.MAX_VALUE);
+        start(broken);
+
+        pipeline.publish("a");
+        pipeline.flush();
+
+        assertEquals(3, broken.attempts.get());
+        assertEquals(1.0, count("broken", "failed"));
+        assertTrue(broken.events.isEmpty());
+    }
+
+    @Test
+    void testStalledConsumerDoesNotHoldUpTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer<String> stalled = new RecordingConsumer<>("stalled", String.class);
+        stalled.gate = release;
+        RecordingConsumer<String> healthy = new RecordingConsumer<>("healthy", String.class);
+        start(stalled, healthy);
+
+        pipeline.publish("a");
+        pipeline.publish("b");
+
+        waitFor(() -> healthy.events.size() == 2);
+        waitFor(() -> lag("healthy") == 0);
+        assertTrue(stalled.events.isEmpty());
+        assertTrue(lag("stalled") > 0);
+
+        release.countDown();
+        pipeline.flush();
+        assertEquals(List.of("a", "b"), stalled.events);
+    }
+
+    @Test
+    void testPublisherHandlesItsOwnEventWhenQueueStaysFull() throws Exception {
+        environment.setProperty("ldms.pipeline.queue-capacity", "1");
+        environment.setProperty("ldms.pipeline.offer-timeout-ms", "10");
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer<String> slow = new RecordingConsumer<>("slow", String.class);
+        slow.gate = release;
+        start(slow);
+
+        // The worker takes "a" and stalls on it; "b" fills the queue, "c" has no room
+        pipeline.publish("a");
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        slow.gate = new CountDownLatch(0);
+        pipeline.publish("b");
+        pipeline.publish("c");
+
+        assertEquals(1.0, count("slow", "inline"));
+        assertEquals(1.0, registry.get("ldms.pipeline.queued").tag("consumer", "slow").gauge().value());
+        assertTrue(slow.events.contains("c"));
+
+        release.countDown();
+        pipeline.shutdown();
+        assertEquals(3, slow.events.size());
+    }
+
+    @Test
+    void testEventsInsideTransactionWaitForCommit() {
+        RecordingConsumer<String> consumer = new RecordingConsumer<>("tx", String.class);
+        start(consumer);
+        TransactionSynchronizationManager.initSynchronization();
+
+        pipeline.publish("committed");
+        pipeline.flush();
+        assertTrue(consumer.events.isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        pipeline.flush();
+        assertEquals(List.of("committed"), consumer.events);
+    }
+
+    private void start(OrderEventConsumer<?>... consumers) {
+        pipeline = new OrderEventPipeline(List.of(consumers), registry, environment);
+        pipeline.start();
+    }
+
+    private double count(String consumer, String result) {
+        return registry.get("ldms.pipeline.events").tags("consumer", consumer, "result", result).counter().count();
+    }
+
+    private double lag(String consumer) {
+        return registry.get("ldms.pipeline.lag").tag("consumer", consumer).gauge().value();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Keeps what it receives. Fails the first {@code failures} attempts, and with a gate
+     * blocks in accept() until it is released, like a consumer whose database hangs.
+     */
+    private static final class RecordingConsumer<E> implements OrderEventConsumer<E> {
+        private final String name;
+        private final Class<E> type;
+        private final List<E> events = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        RecordingConsumer(String name, Class<E> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Class<E> getEventType() {
+            return type;
+        }
+
+        @Override
+        public void accept(List<E> batch) throws Exception {
+            attempts.incrementAndGet();
+            // Read before signalling, so a test that swaps the gate once entered fires
+            // cannot open the one this call waits on
+            CountDownLatch current = gate;
+            entered.countDown();
+            current.await(5, TimeUnit.SECONDS);
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("consumer failure");
+            }
+            batchSizes.add(batch.size());
+            events.addAll(new ArrayList<>(batch));
+        }
+    }
+}
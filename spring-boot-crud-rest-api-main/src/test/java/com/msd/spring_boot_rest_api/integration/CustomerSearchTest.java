@@ -0,0 +1,116 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.dto.CustomerSearchResult;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.repository.CustomerRepository;
+import com.msd.spring_boot_rest_api.search.CustomerSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The typeahead index follows customers written through JPA once the transaction commits,
+ * ignores rolled-back writes, and picks up rows inserted with plain SQL on rebuild.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:customersearch;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CustomerSearchTest {
+
+    @Autowired
+    private CustomerSearchIndex searchIndex;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(tx ->
+                entityManager.createQuery("delete from Customer").executeUpdate());
+        // Bulk deletes bypass the entity listener
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void testWritesAreIndexedOnCommit() {
+        Long customerId = transactionTemplate.execute(tx -> {
+            Customer customer = customer("Amara Wijesinghe", "amara@ldms.com", "077 555 0101");
+            entityManager.persist(customer);
+            assertTrue(searchIndex.search("wijesinghe", 10).isEmpty(), "visible before commit");
+            return customer.getCustomerId();
+        });
+        assertEquals(List.of(customerId), ids(searchIndex.search("wijes", 10)));
+        assertEquals(List.of(customerId), ids(searchIndex.search("0775550", 10)));
+
+        transactionTemplate.executeWithoutResult(tx ->
+                customerRepository.findById(customerId).orElseThrow().setCustomerName("Amara Gunasekara"));
+        assertTrue(searchIndex.search("wijes", 10).isEmpty());
+        CustomerSearchResult renamed = searchIndex.search("gunasek", 10).get(0);
+        assertEquals("Amara Gunasekara", renamed.getCustomerName());
+        assertEquals("077 555 0101", renamed.getCustomerPhone());
+
+        customerRepository.deleteById(customerId);
+        assertTrue(searchIndex.search("gunasek", 10).isEmpty());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void testRolledBackWritesAreNotIndexed() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.persist(customer("Rolled Back", "rolled@ldms.com", "077 555 0102"));
+            entityManager.flush();
+            tx.setRollbackOnly();
+        });
+
+        assertTrue(searchIndex.search("rolled", 10).isEmpty());
+    }
+
+    @Test
+    void testRebuildPicksUpRowsWrittenWithSql() {
+        jdbcTemplate.update("insert into customers "
+                + "(customer_name, customer_email, customer_address, customer_phone, role) "
+                + "values ('Imported Customer', 'imported@ldms.com', '1 Import Street', '077 555 0103', 'ADMIN')");
+        assertTrue(searchIndex.search("imported", 10).isEmpty());
+
+        searchIndex.rebuild();
+
+        assertEquals("Imported Customer", searchIndex.search("imported", 10).get(0).getCustomerName());
+    }
+
+    private static Customer customer(String name, String email, String phone) {
+        Customer customer = new Customer();
+        customer.setCustomerName(name);
+        customer.setCustomerEmail(email);
+        customer.setCustomerAddress("1 Main Street");
+        customer.setCustomerPhone(phone);
+        customer.setRole(Role.ADMIN);
+        return customer;
+    }
+
+    private static List<Long> ids(List<CustomerSearchResult> results) {
+        return results.stream().map(CustomerSearchResult::getCustomerId).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Open event streams must not hold pooled connections: with a pool of two, more
+ * subscribers than connections still get their stream, and other requests still run.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:eventstreams;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.datasource.hikari.maximum-pool-size=2",
+    "spring.datasource.hikari.connection-timeout=250"
+})
+class EventStreamConnectionTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Test
+    void testSubscribersDoNotHoldConnections() throws Exception {
+        Driver driver = new Driver();
+        driver.setDriverName("Stream Driver");
+        driver.setVehicle("Van-001");
+        Long driverId = driverRepository.save(driver).getDriverId();
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        // The streams stay open: MockMvc never completes the async requests
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/drivers/" + driverId + "/events").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isOk())
+                    .andExpect(request().asyncStarted());
+        }
+
+        mockMvc.perform(get("/api/drivers"))
+                .andExpect(status().isOk());
+    }
+}
@@ -15,6 +15,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -110,6 +112,53 @@ public class LDMSSystemIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void testOrderStatusUpdateRequiresAuthentication() throws Exception {
+        // The security filter chain is only in front of the controllers when applied explicitly.
+        // No authentication entry point is configured, so an anonymous request gets 403.
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        securedMockMvc.perform(put("/api/orders/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"Order Processing\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testDriverLocationUpdatesAreAdminOnly() throws Exception {
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        for (String role : new String[] {"DRIVER", "WAREHOUSE"}) {
+            securedMockMvc.perform(put("/api/drivers/1/location")
+                    .with(user("someone@ldms.com").roles(role))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"latitude\":6.9,\"longitude\":79.8}"))
+                    .andExpect(status().isForbidden());
+        }
+        securedMockMvc.perform(put("/api/drivers/1/location")
+                .with(user("admin@ldms.com").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"latitude\":6.9,\"longitude\":79.8}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPrometheusScrapeRequiresAdmin() throws Exception {
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+
+        securedMockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        securedMockMvc.perform(get("/actuator/prometheus")
+                .with(user("driver@ldms.com").roles("DRIVER")))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void testUserRoleBasedAuthentication() throws Exception {
         // Create users with different roles
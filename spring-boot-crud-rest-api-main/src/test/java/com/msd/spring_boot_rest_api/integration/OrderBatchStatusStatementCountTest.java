@@ -0,0 +1,154 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.event.OrderEventPipeline;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.service.OrderChangeLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A batch status update must load its orders with one select and write them back as one
+ * JDBC batch of guarded UPDATEs, not one select and one update per order.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:batchstatus;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "ldms.orders.changes.stamp-ms=3600000"
+})
+class OrderBatchStatusStatementCountTest {
+
+    private static final int ORDERS = 40;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderEventPipeline eventPipeline;
+
+    @Autowired
+    private OrderChangeLog changeLog;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private List<Long> orderIds;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        orderIds = transactionTemplate.execute(tx -> {
+            Customer customer = new Customer();
+            customer.setCustomerName("Batch Customer");
+            customer.setCustomerEmail("batch@ldms.com");
+            customer.setCustomerAddress("1 Main Street");
+            customer.setCustomerPhone("555-0100");
+            customer.setRole(Role.ADMIN);
+            entityManager.persist(customer);
+
+            Driver driver = new Driver();
+            driver.setDriverName("Batch Driver");
+            driver.setVehicle("Van-001");
+            entityManager.persist(driver);
+
+            List<Long> ids = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ORDERS; i++) {
+                Order order = new Order();
+                order.setStatus("Order Processing");
+                order.setEstimatedDelivery(now.plusDays(2));
+                order.setCustomer(customer);
+                order.setDriver(driver);
+                order.getOrderPlaced().setTimestamp(now.minusDays(1));
+                order.getOrderProcessing().setTimestamp(now);
+                entityManager.persist(order);
+                ids.add(order.getId());
+            }
+            return ids;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventPipeline.flush();
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from OrderStatus").executeUpdate();
+            entityManager.createQuery("delete from Order").executeUpdate();
+            entityManager.createQuery("delete from Driver").executeUpdate();
+            entityManager.createQuery("delete from Customer").executeUpdate();
+        });
+    }
+
+    @Test
+    void testBatchUpdateUsesOneSelectAndBatchedUpdates() throws Exception {
+        String ids = orderIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        // The change log reads the highest stored sequence once per application start
+        changeLog.watermark();
+        statistics.clear();
+
+        mockMvc.perform(put("/api/orders/status:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"orderIds\":[" + ids + "],\"status\":\"Out for Delivery\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(ORDERS))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        // One IN select for the orders through Hibernate; the loaded orders are read-only and
+        // never flushed, the guarded UPDATE goes out as a plain JDBC batch
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+
+        Long moved = transactionTemplate.execute(tx -> entityManager
+                .createQuery("select count(o) from Order o where o.statusCode = :status", Long.class)
+                .setParameter("status", OrderStatusCode.OUT_FOR_DELIVERY.getCode())
+                .getSingleResult());
+        assertEquals(ORDERS, moved);
+
+        // History rows are written off the request path, one per transitioned order
+        eventPipeline.flush();
+        Long history = transactionTemplate.execute(tx -> entityManager
+                .createQuery("select count(s) from OrderStatus s where s.status = 'Out for Delivery'", Long.class)
+                .getSingleResult());
+        assertEquals(ORDERS, history);
+    }
+}
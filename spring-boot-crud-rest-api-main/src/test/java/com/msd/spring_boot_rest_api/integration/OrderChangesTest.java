@@ -0,0 +1,209 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.dto.OrderChanges;
+import com.msd.spring_boot_rest_api.event.OrderEventPipeline;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.service.OrderChangeLog;
+import com.msd.spring_boot_rest_api.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Delta sync end to end: orders inserted outside the service get numbered, transitions and
+ * deletions show up after the watermark they happened behind, pages resume where the last
+ * one stopped, and the watermark never passes a change that has not committed.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orderchanges;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "ldms.orders.changes.stamp-ms=3600000"
+})
+class OrderChangesTest {
+
+    private static final int ORDERS = 5;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderChangeLog changeLog;
+
+    @Autowired
+    private OrderEventPipeline eventPipeline;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private List<Long> orderIds;
+
+    @BeforeEach
+    void setUp() {
+        orderIds = transactionTemplate.execute(tx -> {
+            Customer customer = new Customer();
+            customer.setCustomerName("Sync Customer");
+            customer.setCustomerEmail("sync@ldms.com");
+            customer.setCustomerAddress("1 Main Street");
+            customer.setCustomerPhone("555-0100");
+            customer.setRole(Role.ADMIN);
+            entityManager.persist(customer);
+            Driver driver = new Driver();
+            driver.setDriverName("Sync Driver");
+            driver.setVehicle("Van-001");
+            entityManager.persist(driver);
+
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < ORDERS; i++) {
+                Order order = new Order();
+                order.setStatus("Order Processing");
+                order.setEstimatedDelivery(now.plusDays(2));
+                order.setCustomer(customer);
+                order.setDriver(driver);
+                order.getOrderPlaced().setCompleted(true);
+                order.getOrderPlaced().setTimestamp(now.minusDays(1));
+                order.getOrderProcessing().setCompleted(true);
+                order.getOrderProcessing().setTimestamp(now);
+                entityManager.persist(order);
+                ids.add(order.getId());
+            }
+            return ids;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventPipeline.flush();
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from OrderStatus").executeUpdate();
+            entityManager.createQuery("delete from OrderTombstone").executeUpdate();
+            entityManager.createQuery("delete from Order").executeUpdate();
+            entityManager.createQuery("delete from Driver").executeUpdate();
+            entityManager.createQuery("delete from Customer").executeUpdate();
+        });
+    }
+
+    @Test
+    void testOrdersInsertedElsewhereAreNumberedAndListed() {
+        long before = orderService.getChanges(null, 50).getWatermark();
+        assertTrue(orderService.getChanges(before, 50).getChanged().isEmpty());
+
+        changeLog.stampNewOrders();
+
+        OrderChanges changes = orderService.getChanges(before, 50);
+        assertEquals(Set.copyOf(orderIds), ids(changes.getChanged()));
+        assertFalse(changes.isMore());
+        assertEquals(ORDERS, changes.getChanged().stream().map(Order::getChangeSeq).distinct().count());
+        assertTrue(changes.getWatermark() >= changes.getChanged().get(ORDERS - 1).getChangeSeq());
+    }
+
+    @Test
+    void testTransitionsAndDeletionsAfterWatermark() {
+        changeLog.stampNewOrders();
+        long since = orderService.getChanges(null, 50).getWatermark();
+
+        orderService.updateOrderStatus(orderIds.get(1), "Out for Delivery");
+        orderService.deleteOrder(orderIds.get(3));
+
+        OrderChanges changes = orderService.getChanges(since, 50);
+        assertEquals(Set.of(orderIds.get(1)), ids(changes.getChanged()));
+        assertEquals("Out for Delivery", changes.getChanged().get(0).getStatus());
+        assertEquals(List.of(orderIds.get(3)), changes.getDeleted());
+
+        // Nothing new since: the next poll comes back empty with the same watermark
+        OrderChanges next = orderService.getChanges(changes.getWatermark(), 50);
+        assertTrue(next.getChanged().isEmpty() && next.getDeleted().isEmpty());
+        assertEquals(changes.getWatermark(), next.getWatermark());
+    }
+
+    @Test
+    void testPagesResumeWhereThePreviousOneStopped() {
+        long since = orderService.getChanges(null, 50).getWatermark();
+        changeLog.stampNewOrders();
+        orderService.deleteOrder(orderIds.get(0));
+
+        Set<Long> changed = new HashSet<>();
+        List<Long> deleted = new ArrayList<>();
+        int pages = 0;
+        OrderChanges page;
+        do {
+            page = orderService.getChanges(since, 2);
+            page.getChanged().forEach(order -> changed.add(order.getId()));
+            deleted.addAll(page.getDeleted());
+            since = page.getWatermark();
+            pages++;
+        } while (page.isMore());
+
+        // Four remaining orders and one tombstone, two per page
+        assertEquals(Set.copyOf(orderIds.subList(1, ORDERS)), changed);
+        assertEquals(List.of(orderIds.get(0)), deleted);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testWatermarkStaysBehindUncommittedChange() {
+        long before = changeLog.watermark();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            long taken = changeLog.next();
+            assertTrue(taken > before);
+            // end() inside the transaction must not release the number before the commit
+            changeLog.end(taken);
+            assertEquals(taken - 1, changeLog.watermark());
+        });
+
+        assertTrue(changeLog.watermark() > before);
+    }
+
+    @Test
+    void testChangesEndpoint() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        long since = orderService.getChanges(null, 50).getWatermark();
+        orderService.deleteOrder(orderIds.get(2));
+
+        mockMvc.perform(get("/api/orders/changes").param("since", Long.toString(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted[0]").value(orderIds.get(2)))
+                .andExpect(jsonPath("$.changed.length()").value(0))
+                .andExpect(jsonPath("$.more").value(false));
+        mockMvc.perform(get("/api/orders/changes").param("since", Long.toString(since + 1_000)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Set<Long> ids(List<Order> orders) {
+        Set<Long> ids = new HashSet<>();
+        orders.forEach(order -> ids.add(order.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,132 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 regressions: every order list endpoint must render a page of
+ * orders (with customer and driver) using a single SQL statement.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:statementcount;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "ldms.orders.changes.stamp-ms=3600000"
+})
+class OrderListStatementCountTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            List<Customer> customers = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Customer customer = new Customer();
+                customer.setCustomerName("Customer " + i);
+                customer.setCustomerEmail("customer" + i + "@ldms.com");
+                customer.setCustomerAddress(i + " Main Street");
+                customer.setCustomerPhone("555-010" + i);
+                customer.setRole(Role.ADMIN);
+                entityManager.persist(customer);
+                customers.add(customer);
+            }
+            List<Driver> drivers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Driver driver = new Driver();
+                driver.setDriverName("Driver " + i);
+                driver.setVehicle("Van-00" + i);
+                entityManager.persist(driver);
+                drivers.add(driver);
+            }
+            // Spread processing times over past, today and upcoming, and ETAs over overdue,
+            // due within a day and later, so every view has rows
+            LocalDateTime noon = LocalDate.now().atTime(12, 0);
+            for (int i = 0; i < 12; i++) {
+                Order order = new Order();
+                order.setStatus("Order Processing");
+                order.setEstimatedDelivery(LocalDateTime.now().plusHours((i % 3) * 24 - 12));
+                order.setCustomer(customers.get(i % customers.size()));
+                order.setDriver(drivers.get(i % drivers.size()));
+                order.getOrderPlaced().setTimestamp(noon.minusDays(3));
+                order.getOrderProcessing().setTimestamp(noon.plusDays((i % 3) - 1));
+                entityManager.persist(order);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from Order").executeUpdate();
+            entityManager.createQuery("delete from Driver").executeUpdate();
+            entityManager.createQuery("delete from Customer").executeUpdate();
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/api/orders",
+        "/api/orders/summary",
+        "/api/orders/today",
+        "/api/orders/past",
+        "/api/orders/upcoming",
+        "/api/orders/due-soon",
+        "/api/orders/overdue",
+        "/warehouse/all-orders"
+    })
+    void testListEndpointUsesSingleStatement(String endpoint) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get(endpoint))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount(),
+                endpoint + " should load orders, customers and drivers in one statement");
+    }
+}
@@ -0,0 +1,165 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.dto.CursorPage;
+import com.msd.spring_boot_rest_api.event.OrderEventPipeline;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Status views against the database: the IN query walks the requested statuses in stage
+ * order, each by processing time, and pages resume correctly on rows with and without a
+ * processing time.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:orderstatusquery;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class OrderStatusQueryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 2, 12, 0);
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderEventPipeline eventPipeline;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+
+    // Ids in the order the Placed/Processing/Out for Delivery view must return them
+    private List<Long> expected;
+    private long deliveredId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        expected = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            Customer customer = new Customer();
+            customer.setCustomerName("Status Customer");
+            customer.setCustomerEmail("status@ldms.com");
+            customer.setCustomerAddress("1 Main Street");
+            customer.setCustomerPhone("555-0100");
+            customer.setRole(Role.ADMIN);
+            entityManager.persist(customer);
+
+            // Persisted out of order so neither ids nor insertion order give the answer
+            Order outLate = persist(customer, "Out for Delivery", NOON.plusHours(5));
+            Order processingLate = persist(customer, "Order Processing", NOON.plusHours(3));
+            Order placed1 = persist(customer, "Order Placed", null);
+            Order processingTied1 = persist(customer, "Order Processing", NOON.plusHours(1));
+            Order delivered = persist(customer, "Order Delivered", NOON);
+            Order placed2 = persist(customer, "Order Placed", null);
+            Order processingTied2 = persist(customer, "Order Processing", NOON.plusHours(1));
+            Order outEarly = persist(customer, "Out for Delivery", NOON.minusHours(2));
+            Order placed3 = persist(customer, "Order Placed", null);
+
+            for (Order order : List.of(placed1, placed2, placed3, processingTied1, processingTied2,
+                    processingLate, outEarly, outLate)) {
+                expected.add(order.getId());
+            }
+            deliveredId = delivered.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventPipeline.flush();
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from Order").executeUpdate();
+            entityManager.createQuery("delete from Customer").executeUpdate();
+        });
+    }
+
+    @Test
+    void testPagesWalkStatusesInStageOrder() {
+        List<String> statuses = List.of("Out for Delivery", "order placed", "Order Processing");
+
+        // Every page size puts a page boundary on unprocessed rows, tied times and status changes
+        for (int size = 1; size <= expected.size(); size++) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<Order> page = orderService.getOrdersByStatus(statuses, cursor, size);
+                assertTrue(page.getItems().size() <= size);
+                page.getItems().forEach(order -> seen.add(order.getId()));
+                cursor = page.getNext();
+            } while (cursor != null);
+            assertEquals(expected, seen, "page size " + size);
+        }
+    }
+
+    @Test
+    void testSingleStatus() {
+        CursorPage<Order> page = orderService.getOrdersByStatus("Order Delivered", null, 50);
+
+        assertEquals(List.of(deliveredId), page.getItems().stream().map(Order::getId).toList());
+        assertEquals("Order Delivered", page.getItems().get(0).getStatus());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void testByStatusEndpoint() throws Exception {
+        mockMvc.perform(get("/api/orders/by-status")
+                        .param("status", "Order Placed", "Order Processing")
+                        .param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(4))
+                .andExpect(jsonPath("$.items[0].id").value(expected.get(0)))
+                .andExpect(jsonPath("$.items[0].status").value("Order Placed"))
+                .andExpect(jsonPath("$.items[3].status").value("Order Processing"))
+                .andExpect(jsonPath("$.next").exists());
+
+        mockMvc.perform(get("/api/orders/by-status").param("status", "Lost"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Order persist(Customer customer, String status, LocalDateTime processingTime) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setEstimatedDelivery(NOON.plusDays(2));
+        order.setCustomer(customer);
+        order.getOrderPlaced().setTimestamp(NOON.minusDays(1));
+        order.getOrderPlaced().setCompleted(true);
+        if (processingTime != null) {
+            order.getOrderProcessing().setTimestamp(processingTime);
+            order.getOrderProcessing().setCompleted(true);
+        }
+        entityManager.persist(order);
+        return order;
+    }
+}
@@ -0,0 +1,169 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.exception.InvalidStatusTransitionException;
+import com.msd.spring_boot_rest_api.event.OrderEventPipeline;
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent requests for the same status transition must not both apply it: the guarded
+ * UPDATE lets exactly one through and the others see a conflict, and a single transition
+ * costs one select and one update.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:transitions;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "ldms.orders.changes.stamp-ms=3600000"
+})
+class OrderStatusTransitionConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderEventPipeline eventPipeline;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long orderId;
+    private LocalDateTime processedAt;
+
+    @BeforeEach
+    void setUp() {
+        processedAt = LocalDateTime.now().minusHours(1).withNano(0);
+        orderId = transactionTemplate.execute(tx -> {
+            Customer customer = new Customer();
+            customer.setCustomerName("Race Customer");
+            customer.setCustomerEmail("race@ldms.com");
+            customer.setCustomerAddress("1 Main Street");
+            customer.setCustomerPhone("555-0100");
+            customer.setRole(Role.ADMIN);
+            entityManager.persist(customer);
+
+            Driver driver = new Driver();
+            driver.setDriverName("Race Driver");
+            driver.setVehicle("Van-001");
+            entityManager.persist(driver);
+
+            Order order = new Order();
+            order.setStatus("Order Processing");
+            order.setEstimatedDelivery(processedAt.plusDays(2));
+            order.setCustomer(customer);
+            order.setDriver(driver);
+            order.getOrderPlaced().setCompleted(true);
+            order.getOrderPlaced().setTimestamp(processedAt.minusDays(1));
+            order.getOrderProcessing().setCompleted(true);
+            order.getOrderProcessing().setTimestamp(processedAt);
+            entityManager.persist(order);
+            return order.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventPipeline.flush();
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from OrderStatus").executeUpdate();
+            entityManager.createQuery("delete from Order").executeUpdate();
+            entityManager.createQuery("delete from Driver").executeUpdate();
+            entityManager.createQuery("delete from Customer").executeUpdate();
+        });
+    }
+
+    @Test
+    void testConcurrentTransitionsApplyExactlyOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.updateOrderStatus(orderId, "Out for Delivery");
+                        return true;
+                    } catch (InvalidStatusTransitionException e) {
+                        assertEquals("Out for Delivery", e.getCurrentStatus());
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int applied = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    applied++;
+                }
+            }
+            assertEquals(1, applied);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Order order = transactionTemplate.execute(tx -> entityManager.find(Order.class, orderId));
+        assertEquals("Out for Delivery", order.getStatus());
+        assertTrue(order.getOrderOutForDelivery().isCompleted());
+        assertNotNull(order.getOrderOutForDelivery().getTimestamp());
+        // Stages reached earlier keep their original timestamps
+        assertEquals(processedAt, order.getOrderProcessing().getTimestamp());
+        assertNotNull(order.getDriver());
+
+        eventPipeline.flush();
+        Long history = transactionTemplate.execute(tx -> entityManager
+                .createQuery("select count(s) from OrderStatus s where s.order.id = :id", Long.class)
+                .setParameter("id", orderId)
+                .getSingleResult());
+        assertEquals(1, history);
+    }
+
+    @Test
+    void testTransitionIsOneSelectAndOneUpdate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        orderService.updateOrderStatus(orderId, "Out for Delivery");
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(orderId, "Out for Delivery"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.msd.spring_boot_rest_api.integration;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Role;
+import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Driver and Customer rows come from the second-level cache once loaded, the driver list
+ * from the query cache, and writes through JPA invalidate both.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:referencecache;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driverClassName=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "ldms.orders.changes.stamp-ms=3600000"
+})
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long driverId;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        driverId = driverRepository.save(driver("Cached Driver")).getDriverId();
+        customerId = transactionTemplate.execute(tx -> {
+            Customer customer = new Customer();
+            customer.setCustomerName("Cached Customer");
+            customer.setCustomerEmail("cached@ldms.com");
+            customer.setCustomerAddress("1 Main Street");
+            customer.setCustomerPhone("555-0100");
+            customer.setRole(Role.ADMIN);
+            entityManager.persist(customer);
+            return customer.getCustomerId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.createQuery("delete from Driver").executeUpdate();
+            entityManager.createQuery("delete from Customer").executeUpdate();
+        });
+    }
+
+    @Test
+    void testDriverAndCustomerLookupsAreServedFromCache() {
+        driverRepository.findById(driverId);
+        transactionTemplate.execute(tx -> entityManager.find(Customer.class, customerId));
+        statistics.clear();
+
+        assertEquals("Cached Driver", driverRepository.findById(driverId).orElseThrow().getDriverName());
+        Customer customer = transactionTemplate.execute(tx -> entityManager.find(Customer.class, customerId));
+
+        assertEquals("Cached Customer", customer.getCustomerName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertTrue(meterRegistry.get("cache.gets").tags("cache", "drivers", "result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void testDriverListIsCachedUntilDriversChange() {
+        driverRepository.findAll();
+        statistics.clear();
+        assertEquals(1, driverRepository.findAll().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Adding a driver invalidates the cached list
+        Long addedId = driverRepository.save(driver("Added Driver")).getDriverId();
+        List<Driver> drivers = driverRepository.findAll();
+        assertEquals(2, drivers.size());
+
+        // So does changing one
+        Driver moved = driverRepository.findById(driverId).orElseThrow();
+        moved.setLocation("Depot 2");
+        driverRepository.save(moved);
+        assertTrue(driverRepository.findAll().stream().anyMatch(d -> "Depot 2".equals(d.getLocation())));
+        assertEquals("Depot 2", driverRepository.findById(driverId).orElseThrow().getLocation());
+
+        // And removing one drops it from both the list and by-id lookups
+        driverRepository.deleteById(addedId);
+        assertEquals(1, driverRepository.findAll().size());
+        assertTrue(driverRepository.findById(addedId).isEmpty());
+    }
+
+    private static Driver driver(String name) {
+        Driver driver = new Driver();
+        driver.setDriverName(name);
+        driver.setVehicle("Van-001");
+        return driver;
+    }
+}
@@ -0,0 +1,83 @@
+package com.msd.spring_boot_rest_api.repository;
+
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class OrderTransitionRepositoryImplTest {
+
+    private final JdbcTemplate jdbcTemplate = spy(new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:order_transitions;DB_CLOSE_DELAY=-1", "sa", "")));
+    private final OrderTransitionRepositoryImpl repository = new OrderTransitionRepositoryImpl(jdbcTemplate);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create table orders (order_id bigint primary key, status tinyint not null, "
+                + "driver_id bigint, estimated_delivery timestamp, change_seq bigint not null, "
+                + "processing_time timestamp, processing_completed boolean not null)");
+        // Order 2 already left "Order Placed"
+        jdbcTemplate.update("insert into orders values (1, 1, null, null, 3, null, false), "
+                + "(2, 2, null, null, 4, null, true)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists orders");
+    }
+
+    @Test
+    void testCountsAreExactWhenTheDriverReportsThem() {
+        int[] counts = repository.compareAndSetStatuses(List.of(order(1L, 10L), order(2L, 11L)),
+                OrderStatusCode.PLACED.getCode(), OrderStatusCode.PROCESSING.getCode());
+
+        assertArrayEquals(new int[]{1, 0}, counts);
+    }
+
+    @Test
+    void testUnknownCountsAreReadBack() {
+        // What MySQL reports with rewriteBatchedStatements=true
+        doAnswer(invocation -> {
+            int[][] counts = (int[][]) invocation.callRealMethod();
+            Arrays.fill(counts[0], Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        int[] counts = repository.compareAndSetStatuses(List.of(order(1L, 10L), order(2L, 11L)),
+                OrderStatusCode.PLACED.getCode(), OrderStatusCode.PROCESSING.getCode());
+
+        assertArrayEquals(new int[]{1, 0}, counts);
+        assertEquals(List.of(10L, 4L),
+                jdbcTemplate.queryForList("select change_seq from orders order by order_id", Long.class));
+    }
+
+    @Test
+    void testNoTransitionLeadsToPlaced() {
+        assertThrows(IllegalArgumentException.class, () -> repository.compareAndSetStatuses(
+                List.of(order(1L, 10L)), OrderStatusCode.PLACED.getCode(), OrderStatusCode.PLACED.getCode()));
+    }
+
+    private static Order order(long id, long changeSeq) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus("Order Processing");
+        order.setChangeSeq(changeSeq);
+        order.getOrderProcessing().setCompleted(true);
+        return order;
+    }
+}
@@ -0,0 +1,226 @@
+package com.msd.spring_boot_rest_api.search;
+
+import com.msd.spring_boot_rest_api.dto.CustomerSearchResult;
+import com.msd.spring_boot_rest_api.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerSearchIndexTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CustomerSearchIndex(customerRepository, 2000);
+    }
+
+    @Test
+    void testFieldStartRanksBeforeWordStartBeforeSubstring() {
+        index.update(1L, "Kalina Silva", "kalina@ldms.com", "555-0101");
+        index.update(2L, "Mary Ali", "mary@ldms.com", "555-0102");
+        index.update(3L, "Alice Perera", "perera@ldms.com", "555-0103");
+        index.update(4L, "Bob Fernando", "bob@ldms.com", "555-0104");
+
+        assertEquals(List.of(3L, 2L, 1L), ids(index.search("ali", 10)));
+        assertEquals(List.of(3L), ids(index.search("ali", 1)));
+    }
+
+    @Test
+    void testShortQueryMatchesWordStartsOnly() {
+        index.update(1L, "Kalina Silva", "kalina@ldms.com", "555-0101");
+        index.update(2L, "Mary Ali", "mary@ldms.com", "555-0102");
+        index.update(3L, "Alice Perera", "perera@ldms.com", "555-0103");
+
+        assertEquals(List.of(3L, 2L), ids(index.search("al", 10)));
+        assertEquals(List.of(3L, 2L), ids(index.search("A", 10)));
+    }
+
+    @Test
+    void testMatchesEmailPhoneAndAccentsRegardlessOfFormatting() {
+        index.update(1L, "Jos\u00e9 Fern\u00e1ndez", "jose.f@example.lk", "+94 (77) 123-4567");
+        index.update(2L, "Nimal Perera", "nimal@ldms.com", "0112 345 678");
+
+        assertEquals(List.of(1L), ids(index.search("jose fern", 10)));
+        assertEquals(List.of(1L), ids(index.search("  FERN\u00c1NDEZ ", 10)));
+        assertEquals(List.of(1L), ids(index.search("f@example", 10)));
+        assertEquals(List.of(1L), ids(index.search("77 123-45", 10)));
+        assertEquals(List.of(2L), ids(index.search("(0112) 345", 10)));
+
+        CustomerSearchResult result = index.search("nimal", 10).get(0);
+        assertEquals("Nimal Perera", result.getCustomerName());
+        assertEquals("nimal@ldms.com", result.getCustomerEmail());
+        assertEquals("0112 345 678", result.getCustomerPhone());
+    }
+
+    @Test
+    void testFuzzyMatchesFollowExactOnes() {
+        index.update(1L, "Jonathan Silva", "js@ldms.com", "555-0101");
+        index.update(2L, "Jonathon Perera", "jp@ldms.com", "555-0102");
+        index.update(3L, "Kamal Jayasuriya", "kamal@ldms.com", "555-0103");
+
+        // Trigram candidates: one substitution away
+        assertEquals(List.of(2L, 1L), ids(index.search("jonathon", 10)));
+        // Too short for the trigram bound; candidates share the first two characters
+        assertEquals(List.of(3L), ids(index.search("kanal", 10)));
+        // Two edits are allowed from 10 characters on
+        assertEquals(List.of(3L), ids(index.search("kamal jaiasurija", 10)));
+        assertTrue(index.search("xyzzy", 10).isEmpty());
+    }
+
+    @Test
+    void testFuzzyMatchesOnlyFillFreeSlots() {
+        index.update(1L, "Jonathan Silva", "js@ldms.com", "555-0101");
+        index.update(2L, "Jonathon Perera", "jp@ldms.com", "555-0102");
+
+        assertEquals(List.of(1L), ids(index.search("jonathan", 1)));
+    }
+
+    @Test
+    void testUpdateAndRemoveAreVisibleImmediately() {
+        index.update(1L, "Alice Perera", "alice@ldms.com", "555-0101");
+        assertEquals(1, index.size());
+
+        index.update(1L, "Beatrice Perera", "beatrice@ldms.com", "555-0101");
+        assertEquals(1, index.size());
+        assertTrue(index.search("alice", 10).isEmpty());
+        assertEquals("Beatrice Perera", index.search("beatrice", 10).get(0).getCustomerName());
+        assertEquals(1, index.search("perera", 10).size());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertTrue(index.search("beatrice", 10).isEmpty());
+        assertTrue(index.search("pe", 10).isEmpty());
+    }
+
+    @Test
+    void testExactMatchesAgreeWithBruteForce() {
+        index = new CustomerSearchIndex(customerRepository, 100_000);
+        Random random = new Random(42);
+        String[] first = {"amal", "kamal", "nimal", "sunil", "anura", "chaminda", "dilani", "malini", "ruwan"};
+        String[] last = {"perera", "silva", "fernando", "jayasuriya", "de silva", "bandara", "wickrama"};
+        Map<Long, String[]> customers = new HashMap<>();
+        for (long id = 1; id <= 3_000; id++) {
+            String name = first[random.nextInt(first.length)] + " " + last[random.nextInt(last.length)];
+            String email = name.replace(" ", ".") + id + "@ldms.com";
+            String phone = "07" + random.nextInt(10) + "-" + (1_000_000 + random.nextInt(9_000_000));
+            customers.put(id, new String[] {name, email, phone});
+            index.update(id, name, email, phone);
+        }
+        // Churn, so some queries run over removed documents
+        for (long id = 1; id <= 300; id++) {
+            if (id % 3 == 0) {
+                customers.remove(id);
+                index.remove(id);
+            } else {
+                String[] fields = customers.get(id);
+                fields[0] = last[random.nextInt(last.length)] + " " + first[random.nextInt(first.length)];
+                index.update(id, fields[0], fields[1], fields[2]);
+            }
+        }
+
+        for (int query = 0; query < 300; query++) {
+            long id = 1 + random.nextInt(3_000);
+            String[] fields = customers.get(id);
+            if (fields == null) {
+                continue;
+            }
+            String field = CustomerSearchIndex.normaliseText(fields[random.nextInt(2)]);
+            int from = random.nextInt(field.length() - 3);
+            String q = field.substring(from, from + 3 + random.nextInt(Math.min(6, field.length() - from - 3) + 1))
+                    .trim();
+            if (q.length() < 3 || !CustomerSearchIndex.normaliseQuery(q).equals(q)) {
+                continue; // shorter queries match word starts only; digit runs are phone queries
+            }
+
+            Set<Long> expected = new HashSet<>();
+            customers.forEach((customerId, values) -> {
+                if (CustomerSearchIndex.normaliseText(values[0]).contains(q)
+                        || CustomerSearchIndex.normaliseText(values[1]).contains(q)
+                        || CustomerSearchIndex.normalisePhone(values[2]).contains(q)) {
+                    expected.add(customerId);
+                }
+            });
+            if (expected.size() > CustomerSearchIndex.MAX_LIMIT) {
+                continue;
+            }
+            List<Long> found = ids(index.search(q, CustomerSearchIndex.MAX_LIMIT));
+            assertEquals(expected, new HashSet<>(found.subList(0, expected.size())), "query '" + q + "'");
+        }
+    }
+
+    @Test
+    void testRebuildReplacesContentAndKeepsConcurrentWrites() {
+        index.update(9L, "Stale Customer", "stale@ldms.com", "555-0109");
+        when(customerRepository.findSearchFieldsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            // Committed while the table is being read
+            index.update(3L, "Late Customer", "late@ldms.com", "555-0103");
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[] {1L, "Alice Perera", "alice@ldms.com", "555-0101"});
+            rows.add(new Object[] {2L, "Bob Fernando", "bob@ldms.com", "555-0102"});
+            return rows;
+        });
+
+        index.rebuild();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(1L), ids(index.search("alice", 10)));
+        assertEquals(List.of(3L), ids(index.search("late", 10)));
+        assertTrue(index.search("stale", 10).isEmpty());
+    }
+
+    @Test
+    void testFailedRebuildKeepsCurrentContent() {
+        index.update(1L, "Alice Perera", "alice@ldms.com", "555-0101");
+        when(customerRepository.findSearchFieldsAfter(anyLong(), any())).thenThrow(new IllegalStateException("down"));
+
+        assertThrows(IllegalStateException.class, () -> index.rebuild());
+
+        assertEquals(List.of(1L), ids(index.search("alice", 10)));
+        index.update(2L, "Bob Fernando", "bob@ldms.com", "555-0102");
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("  ", 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("ali", 0));
+        assertThrows(IllegalArgumentException.class, () -> index.search("ali", CustomerSearchIndex.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search("a".repeat(CustomerSearchIndex.MAX_QUERY_LENGTH + 1), 10));
+    }
+
+    @Test
+    void testSubstringDistance() {
+        assertEquals(0, CustomerSearchIndex.substringDistance("per", "alice perera", 2));
+        assertEquals(1, CustomerSearchIndex.substringDistance("pererq", "alice perera", 2));
+        assertEquals(1, CustomerSearchIndex.substringDistance("alce", "alice perera", 2));
+        assertEquals(2, CustomerSearchIndex.substringDistance("alcie", "alice perera", 2));
+        assertEquals(2, CustomerSearchIndex.substringDistance("xyz", "alice", 1));
+    }
+
+    private static List<Long> ids(List<CustomerSearchResult> results) {
+        return results.stream().map(CustomerSearchResult::getCustomerId).toList();
+    }
+}
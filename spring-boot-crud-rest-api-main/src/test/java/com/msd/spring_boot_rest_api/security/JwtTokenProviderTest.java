@@ -0,0 +1,146 @@
+package com.msd.spring_boot_rest_api.security;
+
+import com.msd.spring_boot_rest_api.model.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    @Test
+    void testVerifyReturnsClaimsFromOneParse() {
+        JwtTokenProvider provider = new JwtTokenProvider(100);
+        String token = provider.generateToken("driver@test.com", Role.DRIVER);
+
+        Optional<VerifiedToken> verified = provider.verify(token);
+
+        assertTrue(verified.isPresent());
+        assertEquals("driver@test.com", verified.get().getEmail());
+        assertEquals(Role.DRIVER, verified.get().getRole());
+        assertTrue(verified.get().getExpiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void testVerifyRejectsTamperedAndForeignTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(100);
+        String token = provider.generateToken("admin@test.com", Role.ADMIN);
+        String other = provider.generateToken("driver@test.com", Role.DRIVER);
+        // admin's header and claims with the signature of a different token
+        String tampered = token.substring(0, token.lastIndexOf('.')) + other.substring(other.lastIndexOf('.'));
+        String foreign = new JwtTokenProvider(100).generateToken("admin@test.com", Role.ADMIN);
+
+        assertTrue(provider.verify(tampered).isEmpty());
+        assertTrue(provider.verify(foreign).isEmpty());
+        assertTrue(provider.verify("not-a-jwt").isEmpty());
+        assertTrue(provider.verify(null).isEmpty());
+    }
+
+    @Test
+    void testCacheHitReturnsSameVerifiedToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(100);
+        String token = provider.generateToken("warehouse@test.com", Role.WAREHOUSE);
+
+        VerifiedToken first = provider.verify(token).orElseThrow();
+        VerifiedToken second = provider.verify(token).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testVerifyAndSignAreTimedByResult() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtTokenProvider provider = new JwtTokenProvider(100, Clock.systemUTC(), registry);
+        String token = provider.generateToken("driver@test.com", Role.DRIVER);
+
+        provider.verify(token);
+        provider.verify(token);
+        provider.verify("not-a-jwt");
+
+        assertEquals(1, registry.get("ldms.jwt.sign").timer().count());
+        assertEquals(1, registry.get("ldms.jwt.verify").tag("result", "verified").timer().count());
+        assertEquals(1, registry.get("ldms.jwt.verify").tag("result", "cache_hit").timer().count());
+        assertEquals(1, registry.get("ldms.jwt.verify").tag("result", "rejected").timer().count());
+        assertEquals(1.0, registry.get("ldms.jwt.cache.size").gauge().value());
+    }
+
+    @Test
+    void testCacheDropsEntriesAtExpiry() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        cache.put("token", new VerifiedToken("a@test.com", Role.ADMIN, clock.instant().plusSeconds(60)));
+
+        assertTrue(cache.get("token").isPresent());
+
+        clock.advance(Duration.ofSeconds(60));
+        assertTrue(cache.get("token").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        VerifiedTokenCache cache = new VerifiedTokenCache(2, clock);
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, new VerifiedToken(i + "@test.com", Role.ADMIN, clock.instant().plusSeconds(60)));
+        }
+
+        assertTrue(cache.size() <= 2, "size " + cache.size());
+    }
+
+    @Test
+    void testEachEntryExpiresAtItsOwnToken() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        cache.put("short", new VerifiedToken("a@test.com", Role.ADMIN, clock.instant().plusSeconds(10)));
+        cache.put("long", new VerifiedToken("b@test.com", Role.ADMIN, clock.instant().plusSeconds(60)));
+
+        clock.advance(Duration.ofSeconds(10));
+        assertTrue(cache.get("short").isEmpty());
+        assertTrue(cache.get("long").isPresent());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testDisabledCacheStoresNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, Clock.systemUTC());
+        cache.put("token", new VerifiedToken("a@test.com", Role.ADMIN, Instant.now().plusSeconds(60)));
+
+        assertTrue(cache.get("token").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.msd.spring_boot_rest_api.security;
+
+import com.msd.spring_boot_rest_api.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerifierTest {
+
+    private final PasswordEncoder encoder = new PasswordConfig().passwordEncoder(4);
+    private PasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void testLegacyPlaintextMatchesAndIsUpgraded() {
+        verifier = new PasswordVerifier(encoder, 1, 4, 5_000);
+
+        PasswordVerifier.Result result = verifier.verify("password123", "password123");
+
+        assertTrue(result.matches());
+        assertNotNull(result.getUpgradedHash());
+        assertTrue(result.getUpgradedHash().startsWith("{bcrypt}$2a$04$"));
+        assertTrue(encoder.matches("password123", result.getUpgradedHash()));
+    }
+
+    @Test
+    void testCurrentHashMatchesWithoutUpgrade() {
+        verifier = new PasswordVerifier(encoder, 1, 4, 5_000);
+        String hash = encoder.encode("password123");
+
+        PasswordVerifier.Result result = verifier.verify("password123", hash);
+
+        assertTrue(result.matches());
+        assertNull(result.getUpgradedHash());
+        assertFalse(verifier.verify("wrongpassword", hash).matches());
+    }
+
+    @Test
+    void testRejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        verifier = new PasswordVerifier(blocking, 1, 1, 5_000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One login running, one queued
+            Future<PasswordVerifier.Result> running = callers.submit(() -> verifier.verify("a", "a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<PasswordVerifier.Result> queued = callers.submit(() -> verifier.verify("b", "b"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (verifier.queuedTasks() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(ServiceUnavailableException.class, () -> verifier.verify("c", "c"));
+
+            release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS).matches());
+            assertTrue(queued.get(5, TimeUnit.SECONDS).matches());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTimesOutSlowVerification() {
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        verifier = new PasswordVerifier(slow, 1, 1, 50);
+
+        assertThrows(ServiceUnavailableException.class, () -> verifier.verify("a", "a"));
+    }
+}
@@ -0,0 +1,210 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msd.spring_boot_rest_api.dto.OrderEvent;
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventBroadcasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        useBroadcaster(64, 4096);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void testEventGoesToOrderAndDriverSubscribers() throws Exception {
+        RecordingEmitter order = subscribe("order:1", null);
+        RecordingEmitter driver = subscribe("driver:5", null);
+        RecordingEmitter otherOrder = subscribe("order:2", null);
+
+        broadcaster.publish(event(1L, 5L, "Order Processing"));
+
+        String toOrder = order.next();
+        assertTrue(toOrder.contains("event:status\n"), toOrder);
+        assertTrue(toOrder.contains("\"orderId\":1"), toOrder);
+        assertTrue(toOrder.contains("\"status\":\"Order Processing\""), toOrder);
+        assertEquals(toOrder, driver.next());
+        assertNull(otherOrder.poll());
+        assertEquals(3, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void testFirstFrameSetsReconnectDelay() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe("order:1", null, emitter);
+
+        String connected = emitter.next();
+        assertTrue(connected.contains("retry:3000\n"), connected);
+        assertTrue(connected.contains(":connected\n"), connected);
+    }
+
+    @Test
+    void testReconnectReplaysMissedEventsForItsTopic() throws Exception {
+        RecordingEmitter first = subscribe("order:1", null);
+        broadcaster.publish(event(1L, null, "Order Processing"));
+        String lastSeen = id(first.next());
+
+        broadcaster.publish(event(2L, null, "Order Processing"));
+        broadcaster.publish(event(1L, null, "Out for Delivery"));
+        broadcaster.publish(event(1L, null, "Order Delivered"));
+
+        RecordingEmitter resumed = subscribe("order:1", lastSeen);
+        assertTrue(resumed.next().contains("\"status\":\"Out for Delivery\""));
+        assertTrue(resumed.next().contains("\"status\":\"Order Delivered\""));
+        assertNull(resumed.poll());
+    }
+
+    @Test
+    void testIdFromBeforeRestartGetsResync() throws Exception {
+        RecordingEmitter emitter = subscribe("order:1", "0-42");
+
+        assertTrue(emitter.next().contains("event:resync\n"));
+    }
+
+    @Test
+    void testGapOlderThanReplayLogGetsResync() throws Exception {
+        useBroadcaster(64, 4);
+        RecordingEmitter first = subscribe("order:1", null);
+        broadcaster.publish(event(1L, null, "Order Processing"));
+        String lastSeen = id(first.next());
+        for (int i = 0; i < 10; i++) {
+            broadcaster.publish(event(2L, null, "Order Processing"));
+        }
+
+        RecordingEmitter resumed = subscribe("order:1", lastSeen);
+        assertTrue(resumed.next().contains("event:resync\n"));
+        assertNull(resumed.poll());
+    }
+
+    @Test
+    void testSlowSubscriberIsEvictedWithoutBlockingOthers() throws Exception {
+        useBroadcaster(4, 4096);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(release);
+        broadcaster.subscribe("order:1", null, stuck);
+        RecordingEmitter healthy = subscribe("order:1", null);
+
+        // The healthy client keeps up; the stuck one's buffer of 4 overflows on the 5th event
+        for (int i = 0; i < 20; i++) {
+            broadcaster.publish(event(1L, null, "Order Processing"));
+            assertTrue(healthy.next().contains("event:status\n"));
+        }
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("ldms.events.evicted").functionCounter().count());
+        release.countDown();
+    }
+
+    @Test
+    void testHeartbeatReachesIdleSubscribers() throws Exception {
+        RecordingEmitter emitter = subscribe("driver:5", null);
+
+        broadcaster.heartbeat();
+
+        assertEquals(":ping\n\n", emitter.next());
+    }
+
+    @Test
+    void testCommittedTransitionsGoOutAsStatusEvents() throws Exception {
+        RecordingEmitter emitter = subscribe("driver:5", null);
+
+        broadcaster.accept(List.of(
+                new OrderStatusChanged(1L, 5L, "Order Placed", "Order Processing", true, LocalDateTime.now(),
+                        null, null, null),
+                new OrderStatusChanged(2L, 5L, "Order Processing", "Out for Delivery", true, LocalDateTime.now(),
+                        null, null, null)));
+
+        assertTrue(emitter.next().contains("\"orderId\":1"));
+        String second = emitter.next();
+        assertTrue(second.contains("\"status\":\"Out for Delivery\""), second);
+        assertFalse(second.contains("previousStatus"), second);
+    }
+
+    private void useBroadcaster(int bufferSize, int replaySize) {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+        broadcaster = new OrderEventBroadcaster(new ObjectMapper().findAndRegisterModules(),
+                bufferSize, replaySize, 60_000, 3_000);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster.bindTo(meterRegistry);
+    }
+
+    // Subscribes and consumes the "connected" frame
+    private RecordingEmitter subscribe(String topic, String lastEventId) throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(topic, lastEventId, emitter);
+        assertTrue(emitter.next().contains(":connected"));
+        return emitter;
+    }
+
+    private static OrderEvent event(Long orderId, Long driverId, String status) {
+        return new OrderEvent(orderId, driverId, status, LocalDateTime.now());
+    }
+
+    private static String id(String frame) {
+        return frame.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+    }
+
+    /**
+     * Collects each frame as its wire text instead of writing to a response. With a latch it
+     * blocks in send() until released, like a client that stopped reading.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        String next() throws InterruptedException {
+            String frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame, "no frame within 5s");
+            return frame;
+        }
+
+        String poll() throws InterruptedException {
+            return frames.poll(100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.msd.spring_boot_rest_api.model.Customer;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({OrderExportService.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = "ldms.export.clear-every=2")
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderExportService exportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setCustomerName("Jane, \"JJ\" Doe");
+        customer.setCustomerEmail("jane@ldms.com");
+        customer.setCustomerAddress("1 Main Street");
+        customer.setCustomerPhone("555-0100");
+        customer.setRole(Role.ADMIN);
+        entityManager.persist(customer);
+
+        for (int i = 0; i < 5; i++) {
+            persistOrder(i % 2 == 0 ? "Order Placed" : "Order Delivered", LocalDateTime.now().minusDays(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testExportNdjsonWritesOneLinePerOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(null, null, null, OrderExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, count);
+        assertEquals(5, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"));
+        }
+    }
+
+    @Test
+    void testExportCsvFiltersByStatusAndEscapesFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(List.of("Order Placed"), null, null, OrderExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, count);
+        assertEquals(4, lines.length); // header + 3 rows
+        assertTrue(lines[0].startsWith("order_id,status"));
+        assertTrue(lines[1].contains("\"Jane, \"\"JJ\"\" Doe\""));
+    }
+
+    @Test
+    void testExportCsvNeutralisesFormulaCells() throws Exception {
+        customer.setCustomerName("=HYPERLINK(\"http://evil.example\")");
+        entityManager.merge(customer);
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(List.of("Order Placed"), null, null, OrderExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[1].contains(",\"'=HYPERLINK(\"\"http://evil.example\"\")\","));
+        assertTrue(lines[1].contains(",Order Placed,"));
+    }
+
+    @Test
+    void testExportFiltersByProcessingDateRange() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDateTime from = LocalDateTime.now().minusDays(1).minusHours(1);
+
+        long count = exportService.export(null, from, null, OrderExportService.Format.NDJSON, out);
+
+        assertEquals(2, count);
+    }
+
+    private void persistOrder(String status, LocalDateTime processingTime) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setEstimatedDelivery(processingTime.plusDays(2));
+        order.setCustomer(customer);
+        order.getOrderPlaced().setTimestamp(processingTime.minusHours(1));
+        order.getOrderProcessing().setTimestamp(processingTime);
+        entityManager.persist(order);
+    }
+}
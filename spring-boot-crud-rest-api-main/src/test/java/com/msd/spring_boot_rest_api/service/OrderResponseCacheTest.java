@@ -0,0 +1,211 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderResponseCacheTest {
+
+    private final OrderResponseCache cache = new OrderResponseCache(new ObjectMapper().findAndRegisterModules(),
+            1_000_000, 600);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void testSerializesOnceAndServesTheSameBytes() {
+        Order order = order(1L, "Order Placed");
+
+        OrderResponseCache.CachedOrder first = cache.get(1L, () -> load(order)).orElseThrow();
+        OrderResponseCache.CachedOrder second = cache.get(1L, () -> load(order)).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertTrue(new String(first.getBody(), StandardCharsets.UTF_8).contains("\"status\":\"Order Placed\""));
+        assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+    }
+
+    @Test
+    void testEtagFollowsContent() {
+        Order order = order(1L, "Order Placed");
+        String placed = cache.get(1L, () -> load(order)).orElseThrow().getEtag();
+
+        order.setStatus("Order Processing");
+        cache.invalidate(1L);
+        String processing = cache.get(1L, () -> load(order)).orElseThrow().getEtag();
+        cache.invalidate(1L);
+        String reloaded = cache.get(1L, () -> load(order)).orElseThrow().getEtag();
+
+        assertNotEquals(placed, processing);
+        assertEquals(processing, reloaded);
+    }
+
+    @Test
+    void testMissingOrdersAreNotCached() {
+        assertTrue(cache.get(9L, () -> load(null)).isEmpty());
+        assertTrue(cache.get(9L, () -> load(null)).isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidationDuringLoadDropsTheLoadedEntry() throws Exception {
+        Order order = order(1L, "Order Placed");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<OrderResponseCache.CachedOrder>> reader = CompletableFuture.supplyAsync(
+                () -> cache.get(1L, () -> {
+                    loading.countDown();
+                    await(release);
+                    return load(order);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // The writer commits, then invalidates while the reader still holds the old row
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> cache.invalidate(1L));
+        Thread.sleep(50);
+        release.countDown();
+        reader.get(5, TimeUnit.SECONDS);
+        writer.get(5, TimeUnit.SECONDS);
+
+        cache.get(1L, () -> load(order));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLoaderHoldsNoMonitor() {
+        // A monitor held across the database read would pin a virtual thread to its carrier
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger monitors = new AtomicInteger(-1);
+
+        cache.get(1L, () -> {
+            monitors.set(threads.getThreadInfo(new long[] {Thread.currentThread().threadId()}, true, false)[0]
+                    .getLockedMonitors().length);
+            return load(order(1L, "Order Placed"));
+        });
+
+        assertEquals(0, monitors.get());
+    }
+
+    @Test
+    void testConcurrentReadersShareOneLoad() throws Exception {
+        Order order = order(1L, "Order Placed");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<OrderResponseCache.CachedOrder>> first = CompletableFuture.supplyAsync(
+                () -> cache.get(1L, () -> {
+                    loading.countDown();
+                    await(release);
+                    return load(order);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Optional<OrderResponseCache.CachedOrder>> second = CompletableFuture.supplyAsync(
+                () -> cache.get(1L, () -> load(order)));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS).orElseThrow(), second.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidateInsideTransactionRepeatsAfterCommit() {
+        Order order = order(1L, "Order Placed");
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(1L);
+
+        // A read between the write and the commit caches the old row...
+        cache.get(1L, () -> load(order));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // ...which the commit drops
+        cache.get(1L, () -> load(order));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testDriverChangeInvalidatesThatDriversOrders() {
+        Driver driver = new Driver();
+        driver.setDriverId(5L);
+        Order assigned = order(1L, "Order Processing");
+        assigned.setDriver(driver);
+        Order unassigned = order(2L, "Order Placed");
+        cache.get(1L, () -> load(assigned));
+        cache.get(2L, () -> load(unassigned));
+
+        cache.invalidateDriver(5L);
+        cache.get(1L, () -> load(assigned));
+        cache.get(2L, () -> load(unassigned));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testBoundedByTotalBytes() {
+        OrderResponseCache small = new OrderResponseCache(new ObjectMapper().findAndRegisterModules(), 10_000, 600);
+        for (long id = 1; id <= 1_000; id++) {
+            Order order = order(id, "Order Placed");
+            small.get(id, () -> Optional.of(order));
+        }
+        // Each entry is a few hundred bytes
+        assertTrue(small.size() < 100, "size " + small.size());
+    }
+
+    @Test
+    void testEvictedOrdersLeaveTheDriverIndex() {
+        OrderResponseCache small = new OrderResponseCache(new ObjectMapper().findAndRegisterModules(), 10_000, 600);
+        Driver driver = new Driver();
+        driver.setDriverId(5L);
+        for (long id = 1; id <= 1_000; id++) {
+            Order order = order(id, "Order Processing");
+            order.setDriver(driver);
+            small.get(id, () -> Optional.of(order));
+        }
+        assertEquals(small.size(), small.indexedOrders());
+
+        small.invalidateDriver(5L);
+
+        assertEquals(0, small.size());
+        assertEquals(0, small.indexedOrders());
+    }
+
+    private Optional<Order> load(Order order) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(order);
+    }
+
+    private static Order order(Long id, String status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(status);
+        order.setEstimatedDelivery(LocalDateTime.of(2025, 7, 15, 12, 0));
+        return order;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,23 +1,45 @@
 package com.msd.spring_boot_rest_api.service;
 
+import com.msd.spring_boot_rest_api.assignment.DriverAssignmentStrategy;
+import com.msd.spring_boot_rest_api.assignment.DriverAvailabilityIndex;
+import com.msd.spring_boot_rest_api.dto.BatchStatusUpdateResult;
+import com.msd.spring_boot_rest_api.dto.CursorPage;
+import com.msd.spring_boot_rest_api.dto.OrderChanges;
+import com.msd.spring_boot_rest_api.eta.DeliveryEtaEngine;
+import com.msd.spring_boot_rest_api.event.OrderEventPipeline;
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import com.msd.spring_boot_rest_api.exception.InvalidStatusTransitionException;
+import com.msd.spring_boot_rest_api.exception.ResourceNotFoundException;
 import com.msd.spring_boot_rest_api.model.Order;
 import com.msd.spring_boot_rest_api.model.Driver;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.model.OrderTombstone;
 import com.msd.spring_boot_rest_api.repository.OrderRepository;
 import com.msd.spring_boot_rest_api.repository.DriverRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +51,34 @@ class OrderServiceTest {
     @Mock
     private DriverRepository driverRepository;
 
+    @Mock
+    private OrderStatsService statsService;
+
+    @Mock
+    private DriverAssignmentStrategy assignmentStrategy;
+
+    @Mock
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private OrderStatusHistoryWriter historyWriter;
+
+    @Mock
+    private OrderResponseCache responseCache;
+
+    @Mock
+    private OrderEventPipeline eventPipeline;
+
+    @Mock
+    private OrderChangeLog changeLog;
+
+    // Real engine without history: every leg takes the default, i.e. 2.5 days in total
+    @Spy
+    private DeliveryEtaEngine etaEngine = new DeliveryEtaEngine(0.5, 20, 1200, 0.5, "");
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private OrderService orderService;
 
@@ -38,8 +88,8 @@ class OrderServiceTest {
     void setUp() {
         testOrder = new Order();
         testOrder.setId(1L);
-        testOrder.setStatus("PENDING");
-        testOrder.setEstimatedDelivery("2025-07-15");
+        testOrder.setStatus("Order Placed");
+        testOrder.setEstimatedDelivery(LocalDateTime.of(2025, 7, 15, 12, 0));
     }
 
     @Test
@@ -54,16 +104,152 @@ class OrderServiceTest {
         order2.setStatus("Order Processing");
 
         List<Order> expectedOrders = Arrays.asList(order1, order2);
-        when(orderRepository.findAll()).thenReturn(expectedOrders);
+        when(orderRepository.findPageAfter(eq(0L), any(Limit.class))).thenReturn(expectedOrders);
 
         // When
-        List<Order> actualOrders = orderService.getAllOrders();
+        CursorPage<Order> page = orderService.getOrders(null, 50);
 
         // Then
+        List<Order> actualOrders = page.getItems();
         assertEquals(2, actualOrders.size());
         assertEquals("Order Placed", actualOrders.get(0).getStatus());
         assertEquals("Order Processing", actualOrders.get(1).getStatus());
-        verify(orderRepository).findAll();
+        assertNull(page.getNext());
+        verify(orderRepository).findPageAfter(eq(0L), any(Limit.class));
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetOrdersReturnsCursorWhenMoreRowsExist() {
+        // Given - the repository returns one row more than the page size
+        Order order1 = new Order();
+        order1.setId(1L);
+        Order order2 = new Order();
+        order2.setId(2L);
+        Order order3 = new Order();
+        order3.setId(3L);
+        when(orderRepository.findPageAfter(eq(0L), any(Limit.class))).thenReturn(Arrays.asList(order1, order2, order3));
+        when(orderRepository.findPageAfter(eq(2L), any(Limit.class))).thenReturn(Arrays.asList(order3));
+
+        // When
+        CursorPage<Order> first = orderService.getOrders(null, 2);
+        CursorPage<Order> second = orderService.getOrders(first.getNext(), 2);
+
+        // Then
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNext());
+        assertEquals(1, second.getItems().size());
+        assertEquals(3L, second.getItems().get(0).getId());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    void testGetOrdersDueWithinPagesOnEstimatedDelivery() {
+        // Given - the repository returns one row more than the page size
+        LocalDateTime eta = LocalDateTime.now().plusHours(2);
+        Order order1 = new Order();
+        order1.setId(1L);
+        order1.setEstimatedDelivery(eta);
+        Order order2 = new Order();
+        order2.setId(2L);
+        order2.setEstimatedDelivery(eta.plusMinutes(30));
+        when(orderRepository.findOpenByEtaPageAfter(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), eq(0L), any(Limit.class))).thenReturn(Arrays.asList(order1, order2));
+        when(orderRepository.findOpenByEtaPageAfter(any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(eta), eq(1L), any(Limit.class))).thenReturn(List.of(order2));
+
+        // When
+        CursorPage<Order> first = orderService.getOrdersDueWithin(4, null, 1);
+        CursorPage<Order> second = orderService.getOrdersDueWithin(4, first.getNext(), 1);
+
+        // Then
+        assertEquals(List.of(order1), first.getItems());
+        assertNotNull(first.getNext());
+        assertEquals(List.of(order2), second.getItems());
+        assertNull(second.getNext());
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderRepository).findOpenByEtaPageAfter(from.capture(), to.capture(), any(LocalDateTime.class),
+                eq(0L), any(Limit.class));
+        assertEquals(from.getValue().plusHours(4), to.getValue());
+    }
+
+    @Test
+    void testGetOrdersDueWithinRejectsOutOfRangeHours() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersDueWithin(0, null, 50));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersDueWithin(OrderService.MAX_DUE_WITHIN_HOURS + 1, null, 50));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testGetOverdueOrdersEndsAtNow() {
+        // Given
+        Order overdue = new Order();
+        overdue.setId(1L);
+        overdue.setEstimatedDelivery(LocalDateTime.now().minusHours(3));
+        when(orderRepository.findOpenByEtaPageAfter(any(LocalDateTime.class), any(LocalDateTime.class),
+                any(LocalDateTime.class), eq(0L), any(Limit.class))).thenReturn(List.of(overdue));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        CursorPage<Order> page = orderService.getOverdueOrders(null, 50);
+
+        // Then
+        assertEquals(List.of(overdue), page.getItems());
+        assertNull(page.getNext());
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderRepository).findOpenByEtaPageAfter(any(LocalDateTime.class), to.capture(),
+                any(LocalDateTime.class), eq(0L), any(Limit.class));
+        assertFalse(to.getValue().isBefore(before));
+        assertFalse(to.getValue().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testGetOrdersByStatusQueriesCodesWithIn() {
+        // Given - a placed order ends the first page, a processed one the second
+        Order placed = new Order();
+        placed.setId(4L);
+        placed.setStatus("Order Placed");
+        Order processing = new Order();
+        processing.setId(2L);
+        processing.setStatus("Order Processing");
+        processing.getOrderProcessing().setTimestamp(LocalDateTime.of(2025, 6, 2, 12, 0));
+        Order outForDelivery = new Order();
+        outForDelivery.setId(3L);
+        outForDelivery.setStatus("Out for Delivery");
+        List<Byte> codes = List.of(OrderStatusCode.PLACED.getCode(), OrderStatusCode.PROCESSING.getCode(),
+                OrderStatusCode.OUT_FOR_DELIVERY.getCode());
+        when(orderRepository.findStatusPageAfter(eq(codes), eq((byte) 0), any(LocalDateTime.class), eq(0L),
+                any(Limit.class))).thenReturn(Arrays.asList(placed, processing));
+        when(orderRepository.findStatusPageAfterUnprocessed(eq(codes), eq(OrderStatusCode.PLACED.getCode()),
+                eq(4L), any(Limit.class))).thenReturn(Arrays.asList(processing, outForDelivery));
+        when(orderRepository.findStatusPageAfter(eq(codes), eq(OrderStatusCode.PROCESSING.getCode()),
+                eq(LocalDateTime.of(2025, 6, 2, 12, 0)), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(outForDelivery));
+
+        // When
+        List<String> statuses = List.of("Order Placed", "Order Processing", "Out for Delivery", "order placed");
+        CursorPage<Order> first = orderService.getOrdersByStatus(statuses, null, 1);
+        CursorPage<Order> second = orderService.getOrdersByStatus(statuses, first.getNext(), 1);
+        CursorPage<Order> third = orderService.getOrdersByStatus(statuses, second.getNext(), 1);
+
+        // Then
+        assertEquals(List.of(placed), first.getItems());
+        assertEquals(List.of(processing), second.getItems());
+        assertEquals(List.of(outForDelivery), third.getItems());
+        assertNull(third.getNext());
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetOrdersByStatusRejectsUnknownOrMissingStatus() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersByStatus(List.of("Order Placed", "Lost"), null, 50));
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersByStatus(List.of(), null, 50));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.getOrdersByStatus(List.of("Order Placed"), "not-a-cursor", 50));
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
@@ -77,7 +263,7 @@ class OrderServiceTest {
         // Then
         assertTrue(result.isPresent());
         assertEquals(1L, result.get().getId());
-        assertEquals("PENDING", result.get().getStatus());
+        assertEquals("Order Placed", result.get().getStatus());
         verify(orderRepository).findById(1L);
     }
 
@@ -97,13 +283,97 @@ class OrderServiceTest {
     @Test
     void testDeleteOrder() {
         // Given
-        doNothing().when(orderRepository).deleteById(1L);
+        when(orderRepository.findForDeletion(1L)).thenReturn(Optional.of(testOrder));
 
         // When
         orderService.deleteOrder(1L);
 
         // Then
-        verify(orderRepository).deleteById(1L);
+        InOrder historyThenOrder = inOrder(historyWriter, orderRepository);
+        historyThenOrder.verify(historyWriter).deleteHistory(1L);
+        historyThenOrder.verify(orderRepository).delete(testOrder);
+        verify(eventPipeline, never()).flush();
+        verify(changeLog).recordDeletion(1L);
+        verify(responseCache).invalidate(1L);
+        verify(statsService).recordDeletion(testOrder);
+    }
+
+    @Test
+    void testDeleteOrderNotFound() {
+        // Given
+        when(orderRepository.findForDeletion(999L)).thenReturn(Optional.empty());
+
+        // When
+        orderService.deleteOrder(999L);
+
+        // Then
+        verify(orderRepository, never()).delete(any(Order.class));
+        verifyNoInteractions(statsService);
+    }
+
+    @Test
+    void testGetChangesMergesWritesAndDeletionsInChangeOrder() {
+        // Given
+        when(changeLog.watermark()).thenReturn(20L);
+        Order changed5 = new Order();
+        changed5.setId(1L);
+        changed5.setChangeSeq(5L);
+        Order changed9 = new Order();
+        changed9.setId(2L);
+        changed9.setChangeSeq(9L);
+        when(orderRepository.findChangedBetween(eq(3L), eq(20L), any(Limit.class)))
+                .thenReturn(List.of(changed5, changed9));
+        when(changeLog.deletedBetween(3L, 20L, 3)).thenReturn(List.of(new OrderTombstone(7L, 7L, LocalDateTime.now())));
+
+        // When
+        OrderChanges firstPage = orderService.getChanges(3L, 2);
+
+        // Then: cut after seq 7, so the next call starts right behind the tombstone
+        assertEquals(List.of(changed5), firstPage.getChanged());
+        assertEquals(List.of(7L), firstPage.getDeleted());
+        assertEquals(7L, firstPage.getWatermark());
+        assertTrue(firstPage.isMore());
+    }
+
+    @Test
+    void testGetChangesLastPageReturnsCurrentWatermark() {
+        // Given
+        when(changeLog.watermark()).thenReturn(20L);
+        Order changed = new Order();
+        changed.setChangeSeq(9L);
+        when(orderRepository.findChangedBetween(eq(3L), eq(20L), any(Limit.class))).thenReturn(List.of(changed));
+        when(changeLog.deletedBetween(3L, 20L, 51)).thenReturn(List.of());
+
+        // When
+        OrderChanges changes = orderService.getChanges(3L, 50);
+
+        // Then
+        assertEquals(1, changes.getChanged().size());
+        assertEquals(20L, changes.getWatermark());
+        assertFalse(changes.isMore());
+    }
+
+    @Test
+    void testGetChangesWithoutSinceOnlyReturnsWatermark() {
+        // Given
+        when(changeLog.watermark()).thenReturn(20L);
+
+        // When
+        OrderChanges changes = orderService.getChanges(null, 50);
+
+        // Then
+        assertEquals(20L, changes.getWatermark());
+        assertTrue(changes.getChanged().isEmpty());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testGetChangesRejectsWatermarkAheadOfServer() {
+        // Given
+        when(changeLog.watermark()).thenReturn(20L);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> orderService.getChanges(21L, 50));
     }
 
     @Test
@@ -113,37 +383,340 @@ class OrderServiceTest {
         mockDriver.setDriverId(1L);
         mockDriver.setDriverName("Test Driver");
         mockDriver.setVehicle("Van");
-        
-        Order updatedOrder = new Order();
-        updatedOrder.setId(1L);
-        updatedOrder.setStatus("Order Processing");
 
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(driverRepository.findAll()).thenReturn(Arrays.asList(mockDriver));
-        when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.of(1L));
+        when(driverRepository.findById(1L)).thenReturn(Optional.of(mockDriver));
+        when(changeLog.next()).thenReturn(42L);
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatusCode.PLACED.getCode()),
+                eq(OrderStatusCode.PROCESSING.getCode()), eq(mockDriver), any(), any(LocalDateTime.class), eq(42L)))
+                .thenReturn(1);
 
         // When
         Order result = orderService.updateOrderStatus(1L, "Order Processing");
 
         // Then
+        assertSame(testOrder, result);
         assertEquals("Order Processing", result.getStatus());
-        verify(orderRepository).findById(1L);
-        verify(driverRepository).findAll();
-        verify(orderRepository).save(any(Order.class));
+        assertSame(mockDriver, result.getDriver());
+        assertTrue(result.getOrderProcessing().isCompleted());
+        assertEquals(42L, result.getChangeSeq());
+        verify(changeLog).end(42L);
+        verify(orderRepository).findForTransition(1L);
+        verify(orderRepository, never()).findById(anyLong());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(statsService).recordTransition("Order Placed", "Order Processing", true);
+        verify(responseCache).invalidate(1L);
+        ArgumentCaptor<OrderStatusChanged> event = ArgumentCaptor.forClass(OrderStatusChanged.class);
+        verify(eventPipeline).publish(event.capture());
+        assertEquals(1L, event.getValue().getOrderId());
+        assertEquals(1L, event.getValue().getDriverId());
+        assertEquals("Order Placed", event.getValue().getPreviousStatus());
+        assertEquals("Order Processing", event.getValue().getStatus());
+        assertTrue(event.getValue().isStageNewlyCompleted());
+        assertEquals(result.getOrderProcessing().getTimestamp(), event.getValue().getTime());
+    }
+
+    @Test
+    void testUpdateOrderStatusNoDriversAvailable() {
+        // Given
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(1L, "Order Processing"));
+        verify(orderRepository, never())
+                .compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong());
+        verifyNoInteractions(eventPipeline);
+    }
+
+    @Test
+    void testUpdateOrderStatusReleasesReservationWhenWriteFails() {
+        // Given
+        Driver driver = new Driver();
+        driver.setDriverId(7L);
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.of(7L));
+        when(driverRepository.findById(7L)).thenReturn(Optional.of(driver));
+        when(orderRepository.compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong()))
+                .thenThrow(new RuntimeException("db down"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(1L, "Order Processing"));
+        verify(availabilityIndex).release(7L);
+    }
+
+    @Test
+    void testUpdateOrderStatusLosingRaceIsConflict() {
+        // Given: another request moved the order on between our read and our write
+        Driver driver = new Driver();
+        driver.setDriverId(7L);
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.of(7L));
+        when(driverRepository.findById(7L)).thenReturn(Optional.of(driver));
+        when(orderRepository.compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong()))
+                .thenReturn(0);
+        when(orderRepository.findStatusCodeById(1L)).thenReturn(Optional.of(OrderStatusCode.PROCESSING.getCode()));
+
+        // When
+        InvalidStatusTransitionException conflict = assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(1L, "Order Processing"));
+
+        // Then
+        assertEquals("Order Processing", conflict.getCurrentStatus());
+        verify(availabilityIndex).release(7L);
+        verifyNoInteractions(statsService, responseCache, eventPipeline);
+        assertEquals(1, transitionCount("Order Processing", "assign_driver", "conflict"));
+    }
+
+    @Test
+    void testUpdateOrderStatusRejectsIllegalTransition() {
+        // Given
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+
+        // When & Then: an order that was only placed cannot skip to delivered
+        InvalidStatusTransitionException conflict = assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(1L, "Order Delivered"));
+        assertEquals("Order Placed", conflict.getCurrentStatus());
+        assertEquals("Order Delivered", conflict.getRequestedStatus());
+        assertEquals("Order Placed", testOrder.getStatus());
+        verify(orderRepository, never())
+                .compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong());
+        verifyNoInteractions(assignmentStrategy, statsService);
+    }
+
+    @Test
+    void testUpdateOrderStatusRejectsUnknownStatus() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrderStatus(1L, "SHIPPED"));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void testNoTransitionLeadsToOrderPlaced() {
+        // Given
+        testOrder.setStatus("Order Processing");
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+
+        // When & Then
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(1L, "Order Placed"));
+        verify(orderRepository, never())
+                .compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong());
+        verifyNoInteractions(statsService);
+    }
+
+    @Test
+    void testDeliveredOrderReleasesDriver() {
+        // Given
+        Driver driver = new Driver();
+        driver.setDriverId(3L);
+        testOrder.setDriver(driver);
+        testOrder.setStatus("Out for Delivery");
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.compareAndSetStatus(eq(1L), eq(OrderStatusCode.OUT_FOR_DELIVERY.getCode()),
+                eq(OrderStatusCode.DELIVERED.getCode()), eq(driver), any(), any(LocalDateTime.class), anyLong()))
+                .thenReturn(1);
+
+        // When
+        orderService.updateOrderStatus(1L, "Order Delivered");
+
+        // Then
+        verify(availabilityIndex).release(3L);
+        verifyNoInteractions(assignmentStrategy);
     }
 
     @Test
     void testUpdateOrderStatusNotFound() {
         // Given
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+        when(orderRepository.findForTransition(999L)).thenReturn(Optional.empty());
 
         // When & Then
-        assertThrows(RuntimeException.class, () -> {
+        assertThrows(ResourceNotFoundException.class, () -> {
             orderService.updateOrderStatus(999L, "Order Processing");
         });
 
-        verify(orderRepository).findById(999L);
-        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository).findForTransition(999L);
+        verify(orderRepository, never())
+                .compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testUpdateOrderStatusTimedByTransitionType() {
+        // Given
+        Driver driver = new Driver();
+        driver.setDriverId(4L);
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.of(4L));
+        when(driverRepository.findById(4L)).thenReturn(Optional.of(driver));
+        when(orderRepository.compareAndSetStatus(anyLong(), anyByte(), anyByte(), any(), any(), any(), anyLong()))
+                .thenReturn(1);
+        when(orderRepository.findForTransition(999L)).thenReturn(Optional.empty());
+
+        // When
+        orderService.updateOrderStatus(1L, "Order Processing");
+        orderService.updateOrderStatus(1L, "Out for Delivery");
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(999L, "Out for Delivery"));
+
+        // Then
+        assertEquals(1, transitionCount("Order Processing", "assign_driver", "success"));
+        assertEquals(1, transitionCount("Out for Delivery", "stage", "success"));
+        assertEquals(1, transitionCount("Out for Delivery", "stage", "not_found"));
+    }
+
+    @Test
+    void testUpdateOrderStatusTimesMissingDriverAsFailure() {
+        // Given
+        when(orderRepository.findForTransition(1L)).thenReturn(Optional.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.empty());
+
+        // When
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(1L, "Order Processing"));
+
+        // Then
+        assertEquals(1, transitionCount("Order Processing", "assign_driver", "no_driver"));
+    }
+
+    private long transitionCount(String status, String transition, String outcome) {
+        return meterRegistry.get("ldms.order.transition")
+                .tags("status", status, "transition", transition, "outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    @Test
+    void testUpdateOrderStatusesAssignsDriversWithOneLookup() {
+        // Given
+        Order second = new Order();
+        second.setId(2L);
+        second.setStatus("Order Placed");
+        Driver driver = new Driver();
+        driver.setDriverId(5L);
+
+        when(orderRepository.findAllForTransition(any())).thenReturn(List.of(testOrder, second));
+        when(assignmentStrategy.assign(any(Order.class))).thenReturn(Optional.of(5L));
+        when(driverRepository.findAllById(eq(Set.of(5L)))).thenReturn(List.of(driver));
+        when(changeLog.next()).thenReturn(11L, 12L);
+        when(orderRepository.compareAndSetStatuses(List.of(testOrder, second), OrderStatusCode.PLACED.getCode(),
+                OrderStatusCode.PROCESSING.getCode())).thenReturn(new int[]{1, 1});
+
+        // When
+        BatchStatusUpdateResult result = orderService.updateOrderStatuses(List.of(1L, 2L, 99L), "Order Processing");
+
+        // Then
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertSame(driver, testOrder.getDriver());
+        assertSame(driver, second.getDriver());
+        assertEquals("Order Processing", second.getStatus());
+        verify(driverRepository, times(1)).findAllById(any());
+        verify(driverRepository, never()).findById(anyLong());
+        verify(orderRepository, never()).findById(anyLong());
+        assertEquals(11L, testOrder.getChangeSeq());
+        assertEquals(12L, second.getChangeSeq());
+        verify(statsService, times(2)).recordTransition("Order Placed", "Order Processing", true);
+        verify(responseCache).invalidate(1L);
+        verify(responseCache).invalidate(2L);
+        verify(responseCache, never()).invalidate(99L);
+        ArgumentCaptor<OrderStatusChanged> events = ArgumentCaptor.forClass(OrderStatusChanged.class);
+        verify(eventPipeline, times(2)).publish(events.capture());
+        assertEquals(List.of(1L, 2L), events.getAllValues().stream().map(OrderStatusChanged::getOrderId).toList());
+        assertEquals(2.0, meterRegistry.get("ldms.order.transition.batch.items")
+                .tags("status", "Order Processing", "result", "succeeded").counter().count());
+        assertEquals(1.0, meterRegistry.get("ldms.order.transition.batch.items")
+                .tags("status", "Order Processing", "result", "failed").counter().count());
+    }
+
+    @Test
+    void testUpdateOrderStatusesReportsOrdersWithoutDriver() {
+        // Given
+        when(orderRepository.findAllForTransition(any())).thenReturn(List.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.empty());
+        when(orderRepository.compareAndSetStatuses(eq(List.of()), anyByte(), anyByte())).thenReturn(new int[0]);
+
+        // When
+        BatchStatusUpdateResult result = orderService.updateOrderStatuses(List.of(1L), "Order Processing");
+
+        // Then
+        assertEquals(0, result.getSucceeded());
+        assertEquals("No available drivers", result.getResults().get(0).getError());
+        assertEquals("Order Placed", testOrder.getStatus());
+        verifyNoInteractions(statsService);
+    }
+
+    @Test
+    void testUpdateOrderStatusesReleasesReservationsWhenUpdateFails() {
+        // Given
+        Driver driver = new Driver();
+        driver.setDriverId(7L);
+        when(orderRepository.findAllForTransition(any())).thenReturn(List.of(testOrder));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.of(7L));
+        when(driverRepository.findAllById(any())).thenReturn(List.of(driver));
+        when(orderRepository.compareAndSetStatuses(any(), anyByte(), anyByte()))
+                .thenThrow(new RuntimeException("db down"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> orderService.updateOrderStatuses(List.of(1L), "Order Processing"));
+        verify(availabilityIndex).release(7L);
+        verifyNoInteractions(statsService);
+    }
+
+    @Test
+    void testUpdateOrderStatusesReportsIllegalTransitions() {
+        // Given
+        Order shipped = new Order();
+        shipped.setId(2L);
+        shipped.setStatus("Out for Delivery");
+        when(orderRepository.findAllForTransition(any())).thenReturn(List.of(testOrder, shipped));
+        when(orderRepository.compareAndSetStatuses(List.of(shipped), OrderStatusCode.OUT_FOR_DELIVERY.getCode(),
+                OrderStatusCode.DELIVERED.getCode())).thenReturn(new int[]{1});
+
+        // When
+        BatchStatusUpdateResult result = orderService.updateOrderStatuses(List.of(1L, 2L), "Order Delivered");
+
+        // Then
+        assertEquals(1, result.getSucceeded());
+        assertEquals("Cannot move from 'Order Placed' to 'Order Delivered'", result.getResults().get(0).getError());
+        assertEquals("Order Placed", testOrder.getStatus());
+        assertEquals("Order Delivered", shipped.getStatus());
+    }
+
+    @Test
+    void testUpdateOrderStatusesReportsOrdersChangedConcurrently() {
+        // Given
+        Order second = new Order();
+        second.setId(2L);
+        second.setStatus("Order Placed");
+        Driver driver = new Driver();
+        driver.setDriverId(5L);
+        Driver other = new Driver();
+        other.setDriverId(6L);
+        when(orderRepository.findAllForTransition(any())).thenReturn(List.of(testOrder, second));
+        when(assignmentStrategy.assign(testOrder)).thenReturn(Optional.of(5L));
+        when(assignmentStrategy.assign(second)).thenReturn(Optional.of(6L));
+        when(driverRepository.findAllById(any())).thenReturn(List.of(driver, other));
+        // Order 2 left "Order Placed" between the read and the UPDATE
+        when(orderRepository.compareAndSetStatuses(List.of(testOrder, second), OrderStatusCode.PLACED.getCode(),
+                OrderStatusCode.PROCESSING.getCode())).thenReturn(new int[]{1, 0});
+
+        // When
+        BatchStatusUpdateResult result = orderService.updateOrderStatuses(List.of(1L, 2L), "Order Processing");
+
+        // Then
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals("Order was changed by a concurrent update", result.getResults().get(1).getError());
+        verify(availabilityIndex).release(6L);
+        verify(availabilityIndex, never()).release(5L);
+        verify(statsService, times(1)).recordTransition("Order Placed", "Order Processing", true);
+        verify(responseCache).invalidate(1L);
+        verify(responseCache, never()).invalidate(2L);
+        verify(eventPipeline, times(1)).publish(any());
+    }
+
+    @Test
+    void testUpdateOrderStatusesRejectsUnknownStatus() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrderStatuses(List.of(1L), "SHIPPED"));
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
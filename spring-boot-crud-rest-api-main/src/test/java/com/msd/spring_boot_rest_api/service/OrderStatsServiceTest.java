@@ -0,0 +1,86 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.msd.spring_boot_rest_api.dto.OrderStats;
+import com.msd.spring_boot_rest_api.model.Order;
+import com.msd.spring_boot_rest_api.model.OrderStatusCode;
+import com.msd.spring_boot_rest_api.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatsServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private OrderStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        // status, count, placed, processing, out for delivery, delivered
+        when(orderRepository.countByStatusWithStages()).thenReturn(Arrays.asList(
+                new Object[] {OrderStatusCode.PLACED.getCode(), 4L, 4L, 0L, 0L, 0L},
+                new Object[] {OrderStatusCode.PROCESSING.getCode(), 2L, 2L, 2L, 0L, 0L}));
+        statsService.seed();
+    }
+
+    @Test
+    void testSeedUsesSingleGroupByQuery() {
+        OrderStats stats = statsService.getStats();
+
+        assertEquals(6, stats.getTotal());
+        assertEquals(4L, stats.getByStatus().get("Order Placed"));
+        assertEquals(2L, stats.getByStatus().get("Order Processing"));
+        assertEquals(6L, stats.getByStage().get("Order Placed"));
+        assertEquals(2L, stats.getByStage().get("Order Processing"));
+        assertEquals(0L, stats.getByStage().get("Order Delivered"));
+        verify(orderRepository, times(1)).countByStatusWithStages();
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    void testRecordTransitionMovesCounts() {
+        statsService.recordTransition("Order Placed", "Order Processing", true);
+
+        OrderStats stats = statsService.getStats();
+        assertEquals(3L, stats.getByStatus().get("Order Placed"));
+        assertEquals(3L, stats.getByStatus().get("Order Processing"));
+        assertEquals(3L, stats.getByStage().get("Order Processing"));
+        assertEquals(6, stats.getTotal());
+    }
+
+    @Test
+    void testRecordDeletionDecrementsStatusAndCompletedStages() {
+        Order order = new Order();
+        order.setStatus("Order Processing");
+        order.getOrderPlaced().setCompleted(true);
+        order.getOrderProcessing().setCompleted(true);
+
+        statsService.recordDeletion(order);
+
+        OrderStats stats = statsService.getStats();
+        assertEquals(5, stats.getTotal());
+        assertEquals(1L, stats.getByStatus().get("Order Processing"));
+        assertEquals(5L, stats.getByStage().get("Order Placed"));
+        assertEquals(1L, stats.getByStage().get("Order Processing"));
+    }
+
+    @Test
+    void testReadsReuseSnapshotUntilCountersChange() {
+        OrderStats first = statsService.getStats();
+        assertSame(first, statsService.getStats());
+
+        statsService.recordTransition("Order Placed", "Order Processing", true);
+        assertNotSame(first, statsService.getStats());
+    }
+}
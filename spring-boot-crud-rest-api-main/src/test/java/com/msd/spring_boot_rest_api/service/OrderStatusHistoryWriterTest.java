@@ -0,0 +1,102 @@
+package com.msd.spring_boot_rest_api.service;
+
+import com.msd.spring_boot_rest_api.event.OrderStatusChanged;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderStatusHistoryWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Size of every batchUpdate call that went through
+    private final List<Integer> batches = new ArrayList<>();
+    private OrderStatusHistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new OrderStatusHistoryWriter(jdbcTemplate, registry);
+    }
+
+    @Test
+    void testEventsAreWrittenAsOneBatch() {
+        failFor();
+
+        writer.accept(List.of(event(1L), event(2L), event(3L)));
+
+        assertEquals(List.of(3), batches);
+    }
+
+    @Test
+    void testBadRowIsSkippedAndTheOthersWritten() {
+        failFor(2L);
+
+        writer.accept(List.of(event(1L), event(2L), event(3L)));
+
+        assertEquals(List.of(1, 1), batches);
+        assertEquals(1.0, registry.get("ldms.order.history.failed").counter().count());
+    }
+
+    @Test
+    void testRowForDeletedOrderIsDroppedNotRetried() {
+        failFor(1L);
+
+        writer.accept(List.of(event(1L)));
+
+        assertTrue(batches.isEmpty());
+        assertEquals(1.0, registry.get("ldms.order.history.failed").counter().count());
+    }
+
+    @Test
+    void testBatchWhereEveryRowFailsIsHandedBackForRetry() {
+        failFor(1L, 2L);
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> writer.accept(List.of(event(1L), event(2L))));
+        assertTrue(batches.isEmpty());
+        assertEquals(0.0, registry.get("ldms.order.history.failed").counter().count());
+    }
+
+    // Any batch containing one of the given order ids fails: a single bad row with a
+    // constraint violation, several with a connection error
+    @SuppressWarnings("unchecked")
+    private void failFor(Long... orderIds) {
+        List<Long> failing = List.of(orderIds);
+        when(jdbcTemplate.batchUpdate(eq(OrderStatusHistoryWriter.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<OrderStatusChanged> rows = invocation.getArgument(1);
+                    long bad = rows.stream().filter(row -> failing.contains(row.getOrderId())).count();
+                    if (bad > 0 && failing.size() == 1) {
+                        throw new DataIntegrityViolationException("order deleted");
+                    }
+                    if (bad > 0) {
+                        throw new DataAccessResourceFailureException("connection refused");
+                    }
+                    batches.add(rows.size());
+                    return new int[0][];
+                });
+    }
+
+    private static OrderStatusChanged event(Long orderId) {
+        return new OrderStatusChanged(orderId, null, "Order Placed", "Order Processing", true, LocalDateTime.now(),
+                null, null, null);
+    }
+}